@@ -38,3 +38,14 @@ dependencies {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// Benchmarks are tagged "benchmark" and only run with -Pbenchmarks
+tasks.test {
+	if (project.hasProperty("benchmarks")) {
+		useJUnitPlatform { includeTags("benchmark") }
+		testLogging { showStandardStreams = true }
+		maxHeapSize = "2g"
+	} else {
+		useJUnitPlatform { excludeTags("benchmark") }
+	}
+}
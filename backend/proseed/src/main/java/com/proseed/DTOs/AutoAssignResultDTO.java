@@ -0,0 +1,27 @@
+package com.proseed.DTOs;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of staffing the open leaf tasks of a process.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoAssignResultDTO {
+    private Long processId;
+    // Whether the assignments were written; false for a proposal only
+    private boolean applied;
+    // Open tasks without subtasks and without assignees that were considered
+    private int openLeafTaskCount;
+    // Proposed assignments, or the ones written if applied. A task staffed concurrently by
+    // someone else is left out of the written ones.
+    private List<AutoAssignmentDTO> assignments;
+    // Tasks no employee qualifies for
+    private List<Long> unmatchedTaskIds;
+}
@@ -0,0 +1,15 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoAssignmentDTO {
+    private Long taskId;
+    private Long employeeId;
+}
@@ -0,0 +1,25 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Counters of one in-memory cache since startup.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+    private String name;
+    // Entries currently cached, 0 while the cache is not loaded
+    private int size;
+    // Reads served from memory
+    private long hits;
+    // Reads that had to load the table
+    private long misses;
+    // Invalidations by writes
+    private long evictions;
+}
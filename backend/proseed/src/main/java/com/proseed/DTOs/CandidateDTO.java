@@ -0,0 +1,27 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An employee who can work on a task, as ranked by the matching index.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateDTO {
+    private Long employeeId;
+    private String firstName;
+    private String lastName;
+    private Long departmentId;
+    // Required skills of the task the employee has, out of requiredSkillCount
+    private int matchedSkillCount;
+    private int requiredSkillCount;
+    // matchedSkillCount / requiredSkillCount, 1.0 if the task requires no skills
+    private double coverage;
+    // Open tasks the employee is assigned to
+    private int openTaskCount;
+}
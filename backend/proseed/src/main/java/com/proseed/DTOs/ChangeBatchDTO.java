@@ -0,0 +1,24 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One message of the event stream: the changes committed during one coalescing window.
+ * When a burst is too large to list, changes is empty and overflow is set; the client should
+ * then catch up through GET /api/sync/changes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeBatchDTO {
+    // Highest change version in the batch
+    private long version;
+    private List<ChangeEventDTO> changes;
+    private boolean overflow;
+}
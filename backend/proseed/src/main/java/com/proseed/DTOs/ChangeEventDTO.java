@@ -0,0 +1,24 @@
+package com.proseed.DTOs;
+
+import com.proseed.entities.SyncEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A committed change of one entity, as pushed to event stream subscribers.
+ * Only identifies the entity; clients fetch the new state through the sync or read endpoints.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEventDTO {
+    private SyncEntityType type;
+    private Long id;
+    // Process the entity belongs to (the process itself for PROCESS, null for EMPLOYEE)
+    private Long processId;
+    private boolean deleted;
+    private long version;
+}
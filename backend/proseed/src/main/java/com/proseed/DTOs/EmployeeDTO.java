@@ -17,4 +17,6 @@ public class EmployeeDTO {
     private com.proseed.DTOs.DepartmentDTO department; // Contains id and name
     private com.proseed.DTOs.RoleDTO role; // Contains id and name
     private List<com.proseed.DTOs.SkillDTO> skills; // Contains id and name
+    private Long version; // Optimistic locking version, send it back as If-Match
+    private int openTaskCount; // Assigned tasks that are not completed
 }
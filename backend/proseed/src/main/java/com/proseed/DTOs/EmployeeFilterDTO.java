@@ -0,0 +1,19 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Optional filters for listing employees. A null field does not restrict the result.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeFilterDTO {
+    private Long departmentId;
+    private Long roleId;
+    private Long skillId;
+}
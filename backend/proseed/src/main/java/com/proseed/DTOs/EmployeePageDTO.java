@@ -0,0 +1,20 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of employees and the cursor of the next page (null on the last page).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeePageDTO {
+    private List<EmployeeDTO> employees;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Moves many employees to one role and/or department; a null roleId or departmentId leaves it as it is.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeReassignmentDTO {
+    private List<Long> employeeIds;
+    private Long roleId;
+    private Long departmentId;
+}
@@ -0,0 +1,20 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * The complete set of skills one employee should have, for replacing the skills of many employees at once.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSkillsDTO {
+    private Long employeeId;
+    private List<Long> skillIds;
+}
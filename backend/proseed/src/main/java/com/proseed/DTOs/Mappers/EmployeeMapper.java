@@ -17,7 +17,9 @@ public class EmployeeMapper {
                 employee.getEmployeeSkills().stream()
                     .map(SkillMapper::toSkillDTO)
                     .collect(Collectors.toList())
-                : null
+                : null,
+            employee.getVersion(),
+            employee.getOpenTaskCount()
         );
     }
 }
@@ -5,7 +5,11 @@ import com.proseed.entities.ProcessEntity;
 import com.proseed.entities.Task;
 import com.proseed.DTOs.TaskDTO;
 import com.proseed.DTOs.ProcessWithTaskInfoDTO;
+import com.proseed.DTOs.TaskLinkDTO;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ProcessMapper {
@@ -23,10 +27,29 @@ public class ProcessMapper {
             processEntity.getTasks() != null
                 ? processEntity.getTasks().stream().map(Task::getId)
                                 .collect(Collectors.toList())
-                : List.of()
+                : List.of(),
+            processEntity.getTreeVersion()
         );
     }
 
+    /**
+     * Creates ProcessDTOs for several processes without touching their lazy task collections.
+     * @param processes processes, in the order of the result
+     * @param taskLinks (taskId, processId) rows of the tasks of these processes
+     * @return ProcessDTOs with their task IDs
+     */
+    public static List<ProcessDTO> toDTOs(List<ProcessEntity> processes, List<TaskLinkDTO> taskLinks) {
+        Map<Long, ProcessDTO> byId = new LinkedHashMap<>();
+        for (ProcessEntity p : processes) {
+            byId.put(p.getId(), new ProcessDTO(p.getId(), p.getName(), p.getDescription(), new ArrayList<>(), p.getTreeVersion()));
+        }
+        for (TaskLinkDTO link : taskLinks) {
+            ProcessDTO dto = byId.get(link.getRefId());
+            if (dto != null) dto.getTaskIds().add(link.getTaskId());
+        }
+        return new ArrayList<>(byId.values());
+    }
+
     public static ProcessWithTaskInfoDTO toProcessWithTaskInfoDTO(ProcessEntity processEntity) {
         List<TaskDTO> taskDtos = processEntity.getTasks() != null
             ? processEntity.getTasks().stream()
@@ -4,6 +4,8 @@ import com.proseed.DTOs.EmployeeDTO;
 import com.proseed.DTOs.TaskWithEmployeesDTO;
 import com.proseed.DTOs.SkillDTO;
 import com.proseed.DTOs.DepartmentDTO;
+import com.proseed.DTOs.TaskLinkDTO;
+import com.proseed.DTOs.TaskRowDTO;
 import com.proseed.entities.Task;
 import com.proseed.DTOs.TaskDTO;
 import com.proseed.entities.Employee;
@@ -12,7 +14,10 @@ import com.proseed.entities.Department;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class TaskMapper {
@@ -66,13 +71,99 @@ public class TaskMapper {
             task.getParentTask() != null ? task.getParentTask().getId() : null,
             task.getProcess() != null ? task.getProcess().getId() : null,
             skills,
-            departments
+            departments,
+            task.getVersion(),
+            task.getDescendantCount(),
+            task.getCompletedDescendantCount(),
+            task.getDescendantAssignmentCount()
         );
 
         return dto;
     }
 
+    /**
+     * Builds flat TaskDTOs (empty subTasks) from projected task rows and their join-table rows.
+     * Runs in O(rows + links); the returned map keeps the order of the given rows.
+     * @param rows task rows
+     * @param assignees (taskId, employeeId) rows
+     * @param skills (taskId, skillId, skillName) rows
+     * @param departments (taskId, departmentId, departmentName) rows
+     * @return TaskDTOs keyed by task ID
+     */
+    public static Map<Long, TaskDTO> toFlatTaskDTOs(List<TaskRowDTO> rows, List<TaskLinkDTO> assignees,
+                                                    List<TaskLinkDTO> skills, List<TaskLinkDTO> departments) {
+        Map<Long, TaskDTO> byId = new LinkedHashMap<>();
+        for (TaskRowDTO row : rows) {
+            byId.put(row.getId(), new TaskDTO(
+                row.getId(),
+                row.getName(),
+                row.getDescription(),
+                row.isCompleted(),
+                new ArrayList<>(),
+                new ArrayList<>(),
+                row.getParentTaskId(),
+                row.getProcessId(),
+                new ArrayList<>(),
+                new ArrayList<>(),
+                row.getVersion(),
+                row.getDescendantCount(),
+                row.getCompletedDescendantCount(),
+                row.getDescendantAssignmentCount()
+            ));
+        }
+        for (TaskLinkDTO link : assignees) {
+            TaskDTO dto = byId.get(link.getTaskId());
+            if (dto != null) dto.getEmployeeIds().add(link.getRefId());
+        }
+        for (TaskLinkDTO link : skills) {
+            TaskDTO dto = byId.get(link.getTaskId());
+            if (dto != null) dto.getSkills().add(new SkillDTO(link.getRefId(), link.getRefName()));
+        }
+        for (TaskLinkDTO link : departments) {
+            TaskDTO dto = byId.get(link.getTaskId());
+            if (dto != null) dto.getDepartments().add(new DepartmentDTO(link.getRefId(), link.getRefName()));
+        }
+        return byId;
+    }
+
+    /**
+     * Links flat TaskDTOs into a tree through their parentTaskId.
+     * Runs in O(n); no recursion, so arbitrarily deep trees are safe.
+     * @param byId flat TaskDTOs keyed by task ID
+     * @return top-level tasks (parentTaskId == null) with nested subTasks
+     */
+    public static List<TaskDTO> toTaskTree(Map<Long, TaskDTO> byId) {
+        List<TaskDTO> roots = new ArrayList<>();
+        for (TaskDTO dto : byId.values()) {
+            if (dto.getParentTaskId() == null) {
+                roots.add(dto);
+                continue;
+            }
+            TaskDTO parent = byId.get(dto.getParentTaskId());
+            if (parent != null) {
+                parent.getSubTasks().add(dto);
+            }
+        }
+        return roots;
+    }
+
     public static Task fromTaskDTO(TaskDTO dto) {
+        return fromTaskDTO(dto, new References(Map.of(), Map.of(), Map.of()));
+    }
+
+    /**
+     * Employees, skills and departments of a whole task payload, resolved up front and keyed by ID.
+     */
+    public record References(Map<Long, Employee> employees, Map<Long, EmployeeSkill> skills,
+                             Map<Long, Department> departments) {
+    }
+
+    /**
+     * Builds the Task tree of a DTO and binds every node to its own employees, skills and
+     * departments while it is built, so nothing has to be matched back to the DTOs afterwards.
+     * IDs missing from the references are skipped.
+     */
+    public static Task fromTaskDTO(TaskDTO dto, References references) {
         Task t = new Task();
         // preserve id when provided so service can resolve existing entities
         if (dto.getId() != null) {
@@ -82,15 +173,49 @@ public class TaskMapper {
         t.setDescription(dto.getDescription());
         t.setCompleted(dto.getCompleted() != null ? dto.getCompleted() : false);
 
+        // Set before the task is added to its parent's set, as the employees are part of its hash code
+        Set<Employee> employees = resolve(dto.getEmployeeIds(), references.employees());
+        if (!employees.isEmpty()) {
+            t.setEmployees(employees);
+        }
+        if (dto.getSkills() != null) {
+            Set<EmployeeSkill> skills = resolve(dto.getSkills().stream().map(SkillDTO::getId).toList(),
+                references.skills());
+            if (!skills.isEmpty()) {
+                t.setSkills(skills);
+            }
+        }
+        if (dto.getDepartments() != null) {
+            Set<Department> departments = resolve(dto.getDepartments().stream().map(DepartmentDTO::getId).toList(),
+                references.departments());
+            if (!departments.isEmpty()) {
+                t.setDepartments(departments);
+            }
+        }
+
         // map subtasks recursively
         if (dto.getSubTasks() != null) {
-            Set<Task> subs = dto.getSubTasks().stream()
-                .map(TaskMapper::fromTaskDTO)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+            Set<Task> subs = new LinkedHashSet<>();
+            for (TaskDTO sub : dto.getSubTasks()) {
+                subs.add(fromTaskDTO(sub, references));
+            }
             t.setSubTasks(subs);
             // parent links will be set in service.prepareSubTasks before save
         }
 
         return t;
     }
+
+    private static <T> Set<T> resolve(List<Long> ids, Map<Long, T> byId) {
+        Set<T> resolved = new HashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                T entity = id != null ? byId.get(id) : null;
+                if (entity != null) {
+                    resolved.add(entity);
+                }
+            }
+        }
+        return resolved;
+    }
 }
@@ -15,4 +15,7 @@ public class ProcessDTO {
     private String name;
     private String description;
     private List<Long> taskIds;
+    // Tree version of the process, the same value as the ETag of its read endpoints.
+    // Send it back as If-Match to update only this state.
+    private Long version;
 }
\ No newline at end of file
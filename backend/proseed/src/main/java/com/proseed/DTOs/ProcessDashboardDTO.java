@@ -0,0 +1,17 @@
+package com.proseed.DTOs;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessDashboardDTO {
+    // Change version the figures are up to date with, also sent as the ETag
+    private long version;
+    private List<ProcessSummaryDTO> processes;
+}
@@ -0,0 +1,28 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * State of a process deletion running in the background (DELETE /api/processes/{id}?async=true).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessDeletionJobDTO {
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String id;
+    private Long processId;
+    private Status status;
+    private Instant submittedAt;
+    // Set once the job is COMPLETED or FAILED
+    private Instant finishedAt;
+    // Reason of a failure
+    private String error;
+}
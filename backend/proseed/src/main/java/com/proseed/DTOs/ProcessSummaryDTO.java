@@ -0,0 +1,28 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Progress and staffing figures of one process, for the dashboard.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessSummaryDTO {
+    private Long id;
+    private String name;
+    private long taskCount;
+    private long completedTaskCount;
+    // Completed share of the tasks, rounded down; 0 for a process without tasks
+    private int completionPercent;
+    // Tasks without a parent task
+    private long rootTaskCount;
+    // Distinct employees assigned to at least one task of the process
+    private long assigneeCount;
+    // Tasks that require skills but have nobody assigned
+    private long unstaffedSkilledTaskCount;
+}
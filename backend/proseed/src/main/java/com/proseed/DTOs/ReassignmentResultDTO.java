@@ -0,0 +1,20 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of moving employees to a role and/or department.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReassignmentResultDTO {
+    // Number of distinct existing employees in the request
+    private int employees;
+    // Number of employees whose role or department actually changed
+    private int changedEmployees;
+}
@@ -0,0 +1,23 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * All departments, skills and roles in one response, each list ordered by ID.
+ * The version changes whenever any of the lists changes and is sent as the ETag.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReferenceDataDTO {
+    private String version;
+    private List<DepartmentDTO> departments;
+    private List<SkillDTO> skills;
+    private List<RoleDTO> roles;
+}
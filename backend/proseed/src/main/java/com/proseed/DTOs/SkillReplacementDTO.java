@@ -0,0 +1,23 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of replacing the skills of one or more employees.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SkillReplacementDTO {
+    // Number of employees in the request
+    private int employees;
+    // Number of employees whose skills actually changed
+    private int changedEmployees;
+    // Employee-skill links added and removed
+    private int addedLinks;
+    private int removedLinks;
+}
@@ -0,0 +1,20 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of an operation applied to a task and all of its subtasks.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubtreeUpdateDTO {
+    // Number of tasks in the subtree, including its root
+    private int subtreeSize;
+    // Number of tasks the operation actually changed
+    private int changedTasks;
+}
@@ -0,0 +1,24 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Entities created, updated or deleted after a given change version.
+ * Pass version as the next "since" value to continue from where this response ends.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChangesDTO {
+    private long version;
+    private List<TaskDTO> tasks;
+    private List<ProcessDTO> processes;
+    private List<EmployeeDTO> employees;
+    private List<TombstoneDTO> deleted;
+}
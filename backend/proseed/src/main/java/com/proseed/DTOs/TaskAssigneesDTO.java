@@ -0,0 +1,18 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.List;
+
+/**
+ * DTO for replacing the assignees of a task and all of its subtasks in a single request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskAssigneesDTO {
+    private List<Long> employeeIds;
+}
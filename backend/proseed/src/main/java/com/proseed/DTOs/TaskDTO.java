@@ -21,4 +21,10 @@ public class TaskDTO {
     private Long processId;
     private List<SkillDTO> skills;
     private List<DepartmentDTO> departments;
+    // Optimistic locking version, send it back as If-Match to update only this state
+    private Long version;
+    // Progress of the subtree, maintained by the server; ignored on create and update
+    private Integer descendantCount;
+    private Integer completedDescendantCount;
+    private Integer descendantAssignmentCount;
 }
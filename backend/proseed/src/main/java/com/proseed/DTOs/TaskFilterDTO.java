@@ -0,0 +1,24 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Optional filters for listing tasks. A null field does not restrict the result.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilterDTO {
+    private Long processId;
+    private Boolean completed;
+    private Long parentTaskId;
+    // Only top-level tasks (no parent); cannot be combined with parentTaskId
+    private boolean rootsOnly;
+    private Long employeeId;
+    private Long skillId;
+    private Long departmentId;
+}
@@ -0,0 +1,24 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Flat projection of a single join-table row of a task
+ * (assignee, required skill or required department).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskLinkDTO {
+    private Long taskId;
+    private Long refId;
+    private String refName;
+
+    public TaskLinkDTO(Long taskId, Long refId) {
+        this(taskId, refId, null);
+    }
+}
@@ -0,0 +1,20 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Position of a task relative to another task in the hierarchy.
+ * depth is the distance in edges (1 = direct child/parent).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskNodeDTO {
+    private Long id;
+    private Long parentTaskId;
+    private int depth;
+}
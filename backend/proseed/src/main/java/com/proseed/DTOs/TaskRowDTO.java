@@ -0,0 +1,27 @@
+package com.proseed.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Flat projection of a single task row (no collections).
+ * Used by the tree loader to build nested TaskDTOs in memory.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskRowDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private boolean completed;
+    private Long parentTaskId;
+    private Long processId;
+    private long version;
+    private int descendantCount;
+    private int completedDescendantCount;
+    private int descendantAssignmentCount;
+}
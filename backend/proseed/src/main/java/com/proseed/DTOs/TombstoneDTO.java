@@ -0,0 +1,17 @@
+package com.proseed.DTOs;
+
+import com.proseed.entities.SyncEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TombstoneDTO {
+    private SyncEntityType type;
+    private Long id;
+    private long version;
+}
@@ -20,6 +20,9 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired private TaskRepository taskRepository;
     @Autowired private EmployeeSkillRepository employeeSkillRepository;
     @Autowired private com.proseed.repos.DepartmentRepository departmentRepository;
+    @Autowired private com.proseed.services.TaskHierarchyService taskHierarchyService;
+    @Autowired private com.proseed.services.TaskRollupService taskRollupService;
+    @Autowired private com.proseed.services.EmployeeWorkloadService employeeWorkloadService;
 
     @Override
     public void run(String... args) throws Exception {
@@ -187,5 +190,11 @@ public class DataInitializer implements CommandLineRunner {
         subTask3.getSubTasks().add(subTask5);
 
         taskRepository.saveAll(List.of(task1, task2, task3));
+
+        // The sample tasks bypass TaskService, so index their hierarchy and compute their rollups
+        // and the employees' open task counts in one go
+        taskHierarchyService.rebuildIfInconsistent();
+        taskRollupService.rebuildIfInconsistent();
+        employeeWorkloadService.rebuildIfInconsistent();
     }
 }
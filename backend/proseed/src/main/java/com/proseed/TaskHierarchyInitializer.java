@@ -0,0 +1,34 @@
+package com.proseed;
+
+import com.proseed.services.EmployeeWorkloadService;
+import com.proseed.services.TaskHierarchyService;
+import com.proseed.services.TaskRollupService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes sure the task_closure index covers every task and the progress rollups and open task
+ * counts add up on startup, e.g. for databases that contain tasks created before the index or
+ * the counters existed.
+ */
+@Component
+public class TaskHierarchyInitializer implements ApplicationRunner {
+    private final TaskHierarchyService taskHierarchyService;
+    private final TaskRollupService taskRollupService;
+    private final EmployeeWorkloadService employeeWorkloadService;
+
+    public TaskHierarchyInitializer(TaskHierarchyService taskHierarchyService, TaskRollupService taskRollupService,
+                                    EmployeeWorkloadService employeeWorkloadService) {
+        this.taskHierarchyService = taskHierarchyService;
+        this.taskRollupService = taskRollupService;
+        this.employeeWorkloadService = employeeWorkloadService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        taskHierarchyService.rebuildIfInconsistent();
+        taskRollupService.rebuildIfInconsistent();
+        employeeWorkloadService.rebuildIfInconsistent();
+    }
+}
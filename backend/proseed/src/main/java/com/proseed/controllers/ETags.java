@@ -0,0 +1,45 @@
+package com.proseed.controllers;
+
+/**
+ * Entity tags built from version numbers, for conditional requests.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    /**
+     * Formats a version as a strong ETag.
+     */
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Formats an opaque version string, e.g. a content hash, as a strong ETag.
+     */
+    static String of(String version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Reads the version from an If-Match header holding a single ETag of {@link #of(long)}.
+     * Quotes are optional, so the version field of a DTO can be sent as is.
+     * @param ifMatch The header value, or null
+     * @return The expected version, null if the header is absent or "*" (no check),
+     *         or -1 for a weak or unrecognized tag, which never matches a version
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
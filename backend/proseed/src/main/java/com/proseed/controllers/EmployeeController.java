@@ -1,13 +1,24 @@
 package com.proseed.controllers;
 
 import com.proseed.DTOs.EmployeeDTO;
+import com.proseed.DTOs.EmployeeFilterDTO;
+import com.proseed.DTOs.EmployeePageDTO;
 import com.proseed.DTOs.EmployeePatchDTO;
+import com.proseed.DTOs.EmployeeReassignmentDTO;
+import com.proseed.DTOs.EmployeeSkillsDTO;
+import com.proseed.DTOs.SkillReplacementDTO;
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.DTOs.TaskPageDTO;
 import com.proseed.entities.Employee;
 import com.proseed.services.EmployeeService;
+import com.proseed.services.ExportService;
 
 import jakarta.persistence.EntityNotFoundException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,25 +27,76 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
-@CrossOrigin
+@CrossOrigin(exposedHeaders = TaskController.NEXT_CURSOR_HEADER)
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_TASK_PAGE_SIZE = 100;
+    private static final int MAX_TASK_PAGE_SIZE = 1000;
+
     private final EmployeeService employeeService;
+    private final ExportService exportService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, ExportService exportService) {
         this.employeeService = employeeService;
+        this.exportService = exportService;
     }
 
+    /**
+     * List employees one page at a time, ordered by ID, with their department, role and skills.
+     * Each page is read with two queries (the IDs, then the employees with their details), however
+     * large it is. Paged like GET /api/tasks: the cursor of the next page is sent in the
+     * X-Next-Cursor header.
+     * @param departmentId Only employees of this department
+     * @param roleId Only employees with this role
+     * @param skillId Only employees holding this skill
+     * @param cursor Cursor of the page to return (omit for the first page)
+     * @param limit Page size, 1 to 1000 (default 500)
+     * @return List of EmployeeDTOs, 400 if the cursor or limit is invalid
+     */
     @GetMapping
-    public ResponseEntity<List<EmployeeDTO>> getAllEmployees() {
-        return ResponseEntity.ok(employeeService.findAll());
+    public ResponseEntity<List<EmployeeDTO>> getAllEmployees(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) Long roleId,
+            @RequestParam(required = false) Long skillId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            EmployeePageDTO page = employeeService.findPage(new EmployeeFilterDTO(departmentId, roleId, skillId),
+                cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(TaskController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getEmployees());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(exportService::writeEmployees);
     }
 
     @GetMapping("/{id}")
@@ -44,31 +106,126 @@ public class EmployeeController {
             .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
+    /**
+     * List the tasks assigned to an employee one page at a time, ordered by ID. Read through the
+     * (employee_id, task_id) index of the assignments, so the cost does not depend on the number
+     * of tasks overall. Paged like GET /api/tasks: the cursor of the next page is sent in the
+     * X-Next-Cursor header.
+     * @param processId Only tasks of this process
+     * @param completed Only completed (true) or open (false) tasks
+     * @param cursor Cursor of the page to return (omit for the first page)
+     * @param limit Page size, 1 to 1000 (default 100)
+     * @return List of TaskDTOs, 400 if the cursor or limit is invalid, 404 if the employee does not exist
+     */
+    @GetMapping("/{id}/tasks")
+    public ResponseEntity<List<TaskDTO>> getEmployeeTasks(@PathVariable Long id,
+            @RequestParam(required = false) Long processId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_TASK_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_TASK_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<TaskPageDTO> page;
+        try {
+            page = employeeService.findTasks(id, processId, completed, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (page.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.get().getNextCursor() != null) {
+            response.header(TaskController.NEXT_CURSOR_HEADER, page.get().getNextCursor());
+        }
+        return response.body(page.get().getTasks());
+    }
+
     @PostMapping
     public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
         Employee saved = employeeService.create(employee);
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
+    /**
+     * Update first and last name. If-Match (the employee's version) makes the update fail with
+     * 412 if the employee changed since; a concurrent update that commits first causes 409.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable Long id, @RequestBody Employee updatedEmployee) {
-        return employeeService.update(id, updatedEmployee)
-            .map(ResponseEntity::ok)
-            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    public ResponseEntity<Employee> updateEmployee(@PathVariable Long id, @RequestBody Employee updatedEmployee,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return employeeService.update(id, updatedEmployee, ETags.expectedVersion(ifMatch))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     /**
      * Partially update an employee. Only provided fields are changed.
      * @param id employee id
      * @param patch EmployeeDTO containing fields to update
-     * @return updated EmployeeDTO or 404
+     * @param ifMatch optional version the patch is based on, see updateEmployee
+     * @return updated EmployeeDTO, 404, 412 or 409
      */
     @PatchMapping("/{id}")
-    public ResponseEntity<?> patchEmployee(@PathVariable Long id, @RequestBody EmployeePatchDTO patch) {
+    public ResponseEntity<?> patchEmployee(@PathVariable Long id, @RequestBody EmployeePatchDTO patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try{
-            return employeeService.updatePartial(id, patch)
+            return employeeService.updatePartial(id, patch, ETags.expectedVersion(ifMatch))
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the skills of many employees at once. Each entry lists the complete skills of one employee.
+     * @param entries employee IDs with their new skill IDs; an empty list removes all skills
+     * @return numbers of changed employees and links, 400 for a duplicate or missing ID, 404 if an employee or skill does not exist
+     */
+    @PutMapping("/skills")
+    public ResponseEntity<?> replaceSkills(@RequestBody List<EmployeeSkillsDTO> entries) {
+        Map<Long, List<Long>> skillIdsByEmployee = new LinkedHashMap<>();
+        for (EmployeeSkillsDTO entry : entries) {
+            if (entry.getEmployeeId() == null || entry.getSkillIds() == null
+                    || skillIdsByEmployee.put(entry.getEmployeeId(), entry.getSkillIds()) != null) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Every entry needs an employeeId, listed once, and skillIds");
+            }
+        }
+        try {
+            SkillReplacementDTO result = employeeService.setSkillsToEmployees(skillIdsByEmployee);
+            return ResponseEntity.ok(result);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Move many employees to a role and/or department at once.
+     * @param reassignment employee IDs with the new roleId and/or departmentId
+     * @return numbers of found and changed employees, 400 if IDs are missing, 404 if the role or department does not exist
+     */
+    @PutMapping("/reassign")
+    public ResponseEntity<?> reassignEmployees(@RequestBody EmployeeReassignmentDTO reassignment) {
+        try {
+            return ResponseEntity.ok(employeeService.reassign(reassignment.getEmployeeIds(),
+                reassignment.getRoleId(), reassignment.getDepartmentId()));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (IllegalArgumentException e) {
@@ -0,0 +1,50 @@
+package com.proseed.controllers;
+
+import com.proseed.services.EventStreamService;
+import com.proseed.services.ProcessService;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events streams of committed changes.
+ *
+ * Each "changes" event lists the entities changed in the last moment; clients fetch the
+ * changed entities through GET /api/sync/changes. An event with "overflow": true carries
+ * no list and means the client should sync.
+ *
+ * Endpoints:
+ *   GET /api/events                 - Changes of all tasks, processes and employees
+ *   GET /api/processes/{id}/events  - Changes of one process and its tasks
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api")
+public class EventStreamController {
+    private final EventStreamService eventStreamService;
+    private final ProcessService processService;
+
+    public EventStreamController(EventStreamService eventStreamService, ProcessService processService) {
+        this.eventStreamService = eventStreamService;
+        this.processService = processService;
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAll() {
+        return eventStreamService.subscribe(null);
+    }
+
+    @GetMapping(value = "/processes/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProcess(@PathVariable Long id) {
+        if (processService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(eventStreamService.subscribe(id));
+    }
+}
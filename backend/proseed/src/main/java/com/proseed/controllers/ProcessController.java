@@ -1,13 +1,23 @@
 package com.proseed.controllers;
 
+import com.proseed.DTOs.AutoAssignResultDTO;
 import com.proseed.DTOs.ProcessDTO;
+import com.proseed.DTOs.ProcessDashboardDTO;
+import com.proseed.DTOs.ProcessDeletionJobDTO;
 import com.proseed.entities.ProcessEntity;
+import com.proseed.services.AutoAssignService;
+import com.proseed.services.ExportService;
+import com.proseed.services.ProcessDashboardService;
+import com.proseed.services.ProcessDeletionJobService;
 import com.proseed.services.ProcessService;
 import com.proseed.DTOs.ProcessWithTaskInfoDTO;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,19 +26,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
-@CrossOrigin
+@CrossOrigin(exposedHeaders = {HttpHeaders.ETAG, HttpHeaders.LOCATION})
 @RestController
 @RequestMapping("/api/processes")
 public class ProcessController {
     private final ProcessService processService;
+    private final ExportService exportService;
+    private final ProcessDeletionJobService deletionJobService;
+    private final ProcessDashboardService dashboardService;
+    private final AutoAssignService autoAssignService;
 
-    public ProcessController(ProcessService processService) {
+    public ProcessController(ProcessService processService, ExportService exportService,
+                             ProcessDeletionJobService deletionJobService,
+                             ProcessDashboardService dashboardService, AutoAssignService autoAssignService) {
         this.processService = processService;
+        this.exportService = exportService;
+        this.deletionJobService = deletionJobService;
+        this.dashboardService = dashboardService;
+        this.autoAssignService = autoAssignService;
     }
 
     @GetMapping
@@ -36,19 +62,66 @@ public class ProcessController {
         return ResponseEntity.ok(processService.findAll());
     }
 
+    /**
+     * Returns task, completion and staffing figures of every process.
+     * The ETag is the change version of the figures; a matching If-None-Match is answered with 304.
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<ProcessDashboardDTO> getDashboard(WebRequest request) {
+        ProcessDashboardDTO dashboard = dashboardService.getDashboard();
+        String eTag = ETags.of(dashboard.getVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(dashboard);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProcesses() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(exportService::writeProcesses);
+    }
+
+    /**
+     * Returns the process with its task IDs. Supports If-None-Match, see getProcessWithTaskInfo.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProcessWithTaskIds(@PathVariable Long id) {
+    public ResponseEntity<?> getProcessWithTaskIds(@PathVariable Long id, WebRequest request) {
+        Optional<Long> treeVersion = processService.findTreeVersion(id);
+        if (treeVersion.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Process not found with id: " + id);
+        }
+        String eTag = ETags.of(treeVersion.get());
+        if (request.checkNotModified(eTag)) {
+            // 304 and ETag are already set on the response
+            return null;
+        }
         try {
-            return ResponseEntity.ok(processService.getProcessWithTaskIds(id));
+            return ResponseEntity.ok().eTag(eTag).body(processService.getProcessWithTaskIds(id));
         } catch (ResponseStatusException e) {
             return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
         }
     }
 
+    /**
+     * Returns the process with its complete task tree.
+     * The ETag is the tree version of the process, so a matching If-None-Match is answered with
+     * 304 after reading only the process row. The version is read before the tree: a change
+     * committed in between makes the ETag older than the body, which only costs one extra reload.
+     */
     @GetMapping("/{id}/tasks")
-    public ResponseEntity<?> getProcessWithTaskInfo(@PathVariable Long id) {
+    public ResponseEntity<?> getProcessWithTaskInfo(@PathVariable Long id, WebRequest request) {
+        Optional<Long> treeVersion = processService.findTreeVersion(id);
+        if (treeVersion.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Process not found with id: " + id);
+        }
+        String eTag = ETags.of(treeVersion.get());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         try {
-            return ResponseEntity.ok(processService.getProcessWithTaskInfo(id));
+            return ResponseEntity.ok().eTag(eTag).body(processService.getProcessWithTaskInfo(id));
         } catch (ResponseStatusException e) {
             return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
         }
@@ -64,19 +137,66 @@ public class ProcessController {
         }
     }
 
+    /**
+     * Updates name and description. With If-Match (the ETag of the read endpoints, or the version
+     * of the process, which is the same tree version) the update only succeeds if nobody changed
+     * the process or its tasks since; otherwise it returns 412. A concurrent update that wins the
+     * race returns 409. In both cases the client can reload and retry. The response carries the
+     * new ETag.
+     */
     @PutMapping("/{id}")
     public ResponseEntity<ProcessDTO> updateProcess(@PathVariable Long id,
-                                    @RequestBody ProcessEntity updatedProcess)
+                                    @RequestBody ProcessEntity updatedProcess,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
     {
-        return processService.update(id, updatedProcess)
+        try {
+            return processService.update(id, updatedProcess, ETags.expectedVersion(ifMatch))
+                .map(dto -> ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Proposes an employee for every open leaf task of the process that has nobody assigned,
+     * balancing the load across employees. With apply=true the proposals are assigned as well.
+     */
+    @PostMapping("/{id}/auto-assign")
+    public ResponseEntity<AutoAssignResultDTO> autoAssign(@PathVariable Long id,
+                                                          @RequestParam(defaultValue = "false") boolean apply) {
+        return autoAssignService.autoAssign(id, apply)
             .map(ResponseEntity::ok)
             .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
+    /**
+     * Deletes a process with all of its tasks.
+     * With async=true the deletion runs in the background: the response is 202 Accepted with the
+     * job, whose state can be polled at the URL in the Location header.
+     */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProcess(@PathVariable Long id) {
+    public ResponseEntity<?> deleteProcess(@PathVariable Long id,
+                                           @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return deletionJobService.submit(id)
+                .<ResponseEntity<?>>map(job -> ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/processes/deletions/" + job.getId()))
+                    .body(job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        }
         return processService.delete(id)
             ? ResponseEntity.noContent().build()
             : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
     }
+
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<ProcessDeletionJobDTO> getDeletionJob(@PathVariable String jobId) {
+        return deletionJobService.find(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
 }
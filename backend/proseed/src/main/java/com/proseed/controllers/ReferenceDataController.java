@@ -0,0 +1,60 @@
+package com.proseed.controllers;
+
+import com.proseed.DTOs.CacheStatsDTO;
+import com.proseed.DTOs.ReferenceDataDTO;
+import com.proseed.services.ReferenceDataService;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Departments, roles and skills as served from the in-memory reference data cache.
+ *
+ * Endpoints:
+ *   GET /api/reference-data                - Departments, skills and roles in one response; honors If-None-Match
+ *   GET /api/reference-data?version=...    - The same, cacheable for a year while the version is current
+ *   GET /api/reference-data/cache-stats    - Size, hits, misses and evictions per cached table
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/reference-data")
+public class ReferenceDataController {
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+
+    private final ReferenceDataService referenceDataService;
+
+    public ReferenceDataController(ReferenceDataService referenceDataService) {
+        this.referenceDataService = referenceDataService;
+    }
+
+    /**
+     * Returns all reference data with its version as the ETag; a matching If-None-Match is answered
+     * with 304. Without a version parameter the response must be revalidated on every use, which
+     * costs a 304 without body while nothing has changed. With the current version as parameter the
+     * URL always stands for the same content, so it may be cached for a year without revalidation.
+     */
+    @GetMapping
+    public ResponseEntity<ReferenceDataDTO> getReferenceData(@RequestParam(required = false) String version) {
+        ReferenceDataDTO bundle = referenceDataService.bundle();
+        String eTag = ETags.of(bundle.getVersion());
+        CacheControl cacheControl = bundle.getVersion().equals(version)
+            ? CacheControl.maxAge(IMMUTABLE_MAX_AGE).cachePublic().immutable()
+            : CacheControl.noCache();
+        // A 200 entity with an ETag is turned into a 304 by Spring if If-None-Match matches; unlike
+        // checkNotModified this keeps the Cache-Control header on the 304
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(bundle);
+    }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(referenceDataService.stats());
+    }
+}
@@ -0,0 +1,42 @@
+package com.proseed.controllers;
+
+import com.proseed.DTOs.SyncChangesDTO;
+import com.proseed.services.SyncService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Incremental synchronization for clients that keep a local copy of tasks, processes and employees.
+ *
+ * Endpoints:
+ *   GET /api/sync/version         - Current change version
+ *   GET /api/sync/changes?since=N - Entities changed or deleted after version N
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping("/version")
+    public ResponseEntity<Long> getVersion() {
+        return ResponseEntity.ok(syncService.currentVersion());
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<SyncChangesDTO> getChanges(@RequestParam(defaultValue = "0") long since) {
+        if (since < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(syncService.changesSince(since));
+    }
+}
@@ -4,15 +4,29 @@ import com.proseed.entities.Task;
 import com.proseed.entities.Employee;
 import com.proseed.entities.EmployeeSkill;
 import com.proseed.entities.Department;
+import com.proseed.services.EmployeeMatchingService;
+import com.proseed.services.ExportService;
+import com.proseed.services.ReferenceDataService;
+import com.proseed.services.TaskClaimService;
+import com.proseed.services.TaskHierarchyService;
 import com.proseed.services.TaskService;
+import com.proseed.DTOs.CandidateDTO;
+import com.proseed.DTOs.DepartmentDTO;
+import com.proseed.DTOs.SkillDTO;
+import com.proseed.DTOs.SubtreeUpdateDTO;
+import com.proseed.DTOs.TaskAssigneesDTO;
 import com.proseed.DTOs.TaskWithEmployeesDTO;
 import com.proseed.DTOs.TaskDTO;
+import com.proseed.DTOs.TaskFilterDTO;
+import com.proseed.DTOs.TaskPageDTO;
+import com.proseed.DTOs.TaskNodeDTO;
 import com.proseed.DTOs.TaskRequirementsDTO;
 import com.proseed.DTOs.Mappers.TaskMapper;
 import com.proseed.repos.EmployeeRepository;
-import com.proseed.repos.EmployeeSkillRepository;
-import com.proseed.repos.DepartmentRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,55 +34,132 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * REST controller for managing Task entities and their relationships.
  * Provides endpoints for CRUD operations, employee assignment, and subtask management.
  *
  * Endpoints:
- *   GET    /api/tasks                - List all tasks
+ *   GET    /api/tasks                - List tasks, paged and filtered (next page cursor in X-Next-Cursor)
+ *   GET    /api/tasks/export         - Stream all tasks as one JSON array
  *   GET    /api/tasks/{id}           - Get task by ID
  *   GET    /api/tasks/{id}/employees - Get task with assigned employees
+ *   GET    /api/tasks/{id}/descendants - List all tasks below a task
+ *   GET    /api/tasks/{id}/ancestors - List the path from a task up to its top-level task
+ *   GET    /api/tasks/{id}/candidates - Rank the employees who can work on a task
  *   POST   /api/tasks?processId=...  - Create a new task under a process
- *   PUT    /api/tasks/{id}           - Update a task (including subtasks and employees)
+ *   POST   /api/tasks/claim?employeeId=...&processId=... - Assign the next qualified task to an employee
+ *   PUT    /api/tasks/{id}           - Update a task (including subtasks and employees); honors If-Match
+ *   POST   /api/tasks/{id}/move?parentTaskId=...&processId=... - Move a task and its subtree; honors If-Match
  *   DELETE /api/tasks/{id}           - Delete a task
+ *   DELETE /api/tasks/{id}/subtree   - Delete a task and all of its subtasks
+ *   PUT    /api/tasks/{id}/subtree/completed?completed=... - Set the completion state of a whole subtree
+ *   PUT    /api/tasks/{id}/subtree/assignees - Replace the assignees of a whole subtree
  *
  * Subtask and employee assignment is handled recursively for nested tasks.
  */
-@CrossOrigin
+@CrossOrigin(exposedHeaders = TaskController.NEXT_CURSOR_HEADER)
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_CANDIDATES = 10;
+    private static final int MAX_CANDIDATES = 100;
+
     private final TaskService taskService;
     private final EmployeeRepository employeeRepository;
-    private final EmployeeSkillRepository skillRepository;
-    private final DepartmentRepository departmentRepository;
+    private final ReferenceDataService referenceDataService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final ExportService exportService;
+    private final EmployeeMatchingService employeeMatchingService;
+    private final TaskClaimService taskClaimService;
 
     public TaskController(TaskService taskService, EmployeeRepository employeeRepository,
-                          EmployeeSkillRepository skillRepository, DepartmentRepository departmentRepository) {
+                          ReferenceDataService referenceDataService,
+                          TaskHierarchyService taskHierarchyService, ExportService exportService,
+                          EmployeeMatchingService employeeMatchingService, TaskClaimService taskClaimService) {
         this.taskService = taskService;
         this.employeeRepository = employeeRepository;
-        this.skillRepository = skillRepository;
-        this.departmentRepository = departmentRepository;
+        this.referenceDataService = referenceDataService;
+        this.taskHierarchyService = taskHierarchyService;
+        this.exportService = exportService;
+        this.employeeMatchingService = employeeMatchingService;
+        this.taskClaimService = taskClaimService;
     }
 
     @GetMapping
     /**
-     * Get all tasks in the system.
-     * @return List of TaskDTOs (may be nested if subtasks exist)
+     * List tasks one page at a time, ordered by ID, with optional filters.
+     * Each task lists its direct subtasks as shallow entries; use GET /api/tasks/{id} or
+     * GET /api/processes/{id}/tasks for nested trees.
+     * When more tasks follow, the response carries the cursor of the next page in the
+     * X-Next-Cursor header; pass it back as the cursor parameter.
+     * @param processId Only tasks of this process
+     * @param completed Only completed (true) or open (false) tasks
+     * @param parentTaskId Only direct subtasks of this task
+     * @param rootsOnly Only top-level tasks (cannot be combined with parentTaskId)
+     * @param employeeId Only tasks assigned to this employee
+     * @param skillId Only tasks requiring this skill
+     * @param departmentId Only tasks linked to this department
+     * @param cursor Cursor of the page to return (omit for the first page)
+     * @param limit Page size, 1 to 1000 (default 500)
+     * @return List of TaskDTOs, 400 if the cursor, limit or filter combination is invalid
      */
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
-        List<Task> tasks = taskService.findAll();
-        List<TaskDTO> dtos = tasks.stream().map(TaskMapper::toTaskDTO).toList();
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<TaskDTO>> getAllTasks(
+            @RequestParam(required = false) Long processId,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(required = false) Long parentTaskId,
+            @RequestParam(defaultValue = "false") boolean rootsOnly,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) Long skillId,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        TaskFilterDTO filter = new TaskFilterDTO(processId, completed, parentTaskId, rootsOnly,
+            employeeId, skillId, departmentId);
+        try {
+            TaskPageDTO page = taskService.findPage(filter, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getTasks());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/export")
+    /**
+     * Stream every task as one JSON array, without building the whole list in memory.
+     * @return Streamed array of TaskDTOs (subtasks as shallow entries), ordered by ID
+     */
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(exportService::writeTasks);
     }
 
     @GetMapping("/{id}")
@@ -99,23 +190,69 @@ public class TaskController {
         }
     }
 
+    /**
+     * List all direct and indirect subtasks of a task, ordered by depth.
+     * Served by the task_closure index with a single query.
+     * @param id Task ID
+     * @return List of TaskNodeDTOs (id, parentTaskId, depth below the task), 404 if the task does not exist
+     */
+    @GetMapping("/{id}/descendants")
+    public ResponseEntity<List<TaskNodeDTO>> getDescendants(@PathVariable Long id) {
+        if (taskHierarchyService.depthOf(id) < 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(taskHierarchyService.findDescendants(id));
+    }
+
+    /**
+     * Rank the employees who can work on a task by the task's required skills and departments.
+     * Served from an in-memory index, see EmployeeMatchingService.
+     * @param id Task ID
+     * @param limit Maximum number of candidates (1 to 100, default 10)
+     * @return List of CandidateDTOs, best first; 404 if the task does not exist, 400 for an invalid limit
+     */
+    @GetMapping("/{id}/candidates")
+    public ResponseEntity<List<CandidateDTO>> getCandidates(@PathVariable Long id,
+            @RequestParam(defaultValue = "" + DEFAULT_CANDIDATES) int limit) {
+        if (limit < 1 || limit > MAX_CANDIDATES) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        return employeeMatchingService.findCandidates(id, limit)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * List all ancestors of a task, nearest first.
+     * @param id Task ID
+     * @return List of TaskNodeDTOs (id, parentTaskId, depth above the task), 404 if the task does not exist
+     */
+    @GetMapping("/{id}/ancestors")
+    public ResponseEntity<List<TaskNodeDTO>> getAncestors(@PathVariable Long id) {
+        if (taskHierarchyService.depthOf(id) < 0) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(taskHierarchyService.findAncestors(id));
+    }
+
     @PostMapping
     /**
      * Create a new task under a given process.
      * Accepts a TaskDTO with optional subtasks and employee IDs.
      * @param taskDto Task data (may include subtasks and employeeIds)
      * @param processId ID of the process to attach the task to
-     * @return Created TaskDTO, or 400 if invalid
+     * @return Created TaskDTO, 400 if invalid, or 409 if the parent was changed concurrently
      */
     public ResponseEntity<TaskDTO> createTask(@RequestBody TaskDTO taskDto, @RequestParam Long processId) {
         try {
-            Task task = TaskMapper.fromTaskDTO(taskDto);
-            // Recursively assign employees to this task and all subtasks
-            assignEmployeesRecursively(task, taskDto);
+            Task task = fromTaskDTOWithReferences(taskDto);
             Task saved = taskService.create(processId, task, taskDto.getParentTaskId());
             return ResponseEntity.status(HttpStatus.CREATED).body(TaskMapper.toTaskDTO(saved));
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (OptimisticLockingFailureException ex) {
+            // 409: the parent task was changed concurrently
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -127,18 +264,24 @@ public class TaskController {
      * @param updatedTaskDto Updated task data
      * @return Updated TaskDTO if found, 404 otherwise
      */
-    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO updatedTaskDto) {
+    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @RequestBody TaskDTO updatedTaskDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Task updatedTask = TaskMapper.fromTaskDTO(updatedTaskDto);
-            // Recursively assign employees to this task and all subtasks
-            assignEmployeesRecursively(updatedTask, updatedTaskDto);
-            return taskService.update(id, updatedTask, updatedTaskDto.getParentTaskId(), updatedTaskDto.getProcessId())
+            Task updatedTask = fromTaskDTOWithReferences(updatedTaskDto);
+            return taskService.update(id, updatedTask, updatedTaskDto.getParentTaskId(), updatedTaskDto.getProcessId(),
+                    ETags.expectedVersion(ifMatch))
                 .map(TaskMapper::toTaskDTO)
                 .map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
         } catch (IllegalArgumentException ex) {
             // Use 400 Bad Request for validation errors like circular relationships or missing subtasks
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (ResponseStatusException ex) {
+            // 412: If-Match does not match the current version
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        } catch (OptimisticLockingFailureException ex) {
+            // 409: a concurrent update of the task or one of its subtasks committed first
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -146,7 +289,7 @@ public class TaskController {
     /**
      * Delete a task by its ID.
      * @param id Task ID
-     * @return 204 No Content if deleted, 404 if not found
+     * @return 204 No Content if deleted, 404 if not found, 409 if the task was changed concurrently
      */
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
         try {
@@ -156,6 +299,54 @@ public class TaskController {
         } catch (IllegalArgumentException ex) {
             // Deletion blocked (e.g., task has subtasks) -> 400 Bad Request
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (OptimisticLockingFailureException ex) {
+            // 409: the task was changed concurrently
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Delete a task together with all of its subtasks.
+     * The whole branch is removed with a few set-based statements, whatever its size.
+     * @param id ID of the root of the subtree
+     * @return 204 No Content if deleted, 404 if not found
+     */
+    @DeleteMapping("/{id}/subtree")
+    public ResponseEntity<Void> deleteSubtree(@PathVariable Long id) {
+        return taskService.deleteSubtree(id)
+            .map(deleted -> ResponseEntity.noContent().<Void>build())
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Mark a task and all of its subtasks as completed or not completed.
+     * @param id ID of the root of the subtree
+     * @param completed The completion state to set; defaults to true
+     * @return Subtree size and number of changed tasks, 404 if not found
+     */
+    @PutMapping("/{id}/subtree/completed")
+    public ResponseEntity<SubtreeUpdateDTO> setSubtreeCompleted(@PathVariable Long id,
+            @RequestParam(defaultValue = "true") boolean completed) {
+        return taskService.setSubtreeCompleted(id, completed)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Replace the assignees of a task and all of its subtasks with the given employees.
+     * @param id ID of the root of the subtree
+     * @param assignees DTO containing the employeeIds to assign; an empty list unassigns everyone
+     * @return Subtree size and number of changed tasks, 400 if an employee does not exist, 404 if not found
+     */
+    @PutMapping("/{id}/subtree/assignees")
+    public ResponseEntity<SubtreeUpdateDTO> replaceSubtreeAssignees(@PathVariable Long id,
+            @RequestBody TaskAssigneesDTO assignees) {
+        try {
+            return taskService.replaceSubtreeAssignees(id, assignees.getEmployeeIds())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
@@ -175,6 +366,25 @@ public class TaskController {
         }
     }
 
+    /**
+     * Assign the next open leaf task the employee is qualified for (required skills and
+     * departments) to the employee. Concurrent claimers never get the same task.
+     * @param employeeId ID of the claiming employee
+     * @param processId Only claim tasks of this process; omit for any process
+     * @return Claimed TaskDTO, 204 if there is nothing to claim, 404 if the employee does not exist
+     */
+    @PostMapping("/claim")
+    public ResponseEntity<TaskDTO> claimTask(@RequestParam Long employeeId,
+                                             @RequestParam(required = false) Long processId) {
+        try {
+            return taskClaimService.claim(employeeId, processId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     /**
      * Insert a new task between an existing parent and child task.
      * The new task becomes a child of the parent and the new parent of the child.
@@ -182,7 +392,8 @@ public class TaskController {
      * @param parentTaskId ID of the task that will become the parent of the new task
      * @param childTaskId ID of the task that will become the child of the new task
      * @param taskDto Task data for the new task to insert
-     * @return Created TaskDTO with 201 status, 400 if child is not a child of parent, 404 if tasks not found
+     * @return Created TaskDTO with 201 status, 400 if child is not a child of parent, 404 if tasks not found,
+     *         409 if the child was changed concurrently
      */
     @PostMapping("/insert-between")
     public ResponseEntity<TaskDTO> insertTaskBetween(
@@ -190,18 +401,46 @@ public class TaskController {
             @RequestParam Long childTaskId,
             @RequestBody TaskDTO taskDto) {
         try {
-            Task newTask = TaskMapper.fromTaskDTO(taskDto);
-            // Assign employees if provided
-            if (taskDto.getEmployeeIds() != null && !taskDto.getEmployeeIds().isEmpty()) {
-                List<Employee> employees = employeeRepository.findAllById(taskDto.getEmployeeIds());
-                newTask.setEmployees(new java.util.HashSet<>(employees));
-            }
+            Task newTask = fromTaskDTOWithReferences(taskDto);
             Task savedTask = taskService.insertTaskBetween(parentTaskId, childTaskId, newTask);
             return ResponseEntity.status(HttpStatus.CREATED).body(TaskMapper.toTaskDTO(savedTask));
         } catch (jakarta.persistence.EntityNotFoundException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (OptimisticLockingFailureException ex) {
+            // 409: the child task was changed concurrently
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Move a task with all of its subtasks below another task, or make it a top-level task.
+     * Cycles are rejected using the hierarchy index, and the subtree is relinked with a few
+     * set-based statements, so the cost does not depend on the size of the subtree.
+     *
+     * @param id ID of the task to move
+     * @param parentTaskId New parent; omit to make the task a top-level task
+     * @param processId Target process; defaults to the parent's (or the current) process
+     * @param ifMatch Optional version the move is based on
+     * @return Moved TaskDTO (direct subtasks as shallow entries), 400 for cycles or unknown
+     *         parent/process, 404 if the task does not exist, 412/409 for stale or concurrent writes
+     */
+    @PostMapping("/{id}/move")
+    public ResponseEntity<TaskDTO> moveTask(@PathVariable Long id,
+            @RequestParam(required = false) Long parentTaskId,
+            @RequestParam(required = false) Long processId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return taskService.move(id, parentTaskId, processId, ETags.expectedVersion(ifMatch))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (ResponseStatusException ex) {
+            return ResponseEntity.status(ex.getStatusCode()).build();
+        } catch (OptimisticLockingFailureException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -219,11 +458,11 @@ public class TaskController {
         return taskService.findById(id)
             .map(task -> {
                 if (requirements.getSkillIds() != null) {
-                    List<EmployeeSkill> skills = skillRepository.findAllById(requirements.getSkillIds());
+                    List<EmployeeSkill> skills = referenceDataService.findSkillsByIds(requirements.getSkillIds());
                     task.setSkills(new HashSet<>(skills));
                 }
                 if (requirements.getDepartmentIds() != null) {
-                    List<Department> departments = departmentRepository.findAllById(requirements.getDepartmentIds());
+                    List<Department> departments = referenceDataService.findDepartmentsByIds(requirements.getDepartmentIds());
                     task.setDepartments(new HashSet<>(departments));
                 }
                 Task saved = taskService.save(task);
@@ -233,26 +472,50 @@ public class TaskController {
     }
 
     /**
-     * Recursively assigns employees to a Task and its subtasks based on the DTO's employeeIds.
-     * This ensures that nested subtasks receive their correct employee assignments.
+     * Builds the Task tree of a payload with the employees, skills and departments of all its nodes.
+     * The IDs are collected in one pass over the tree and resolved with one lookup per type (skills
+     * and departments from the reference data cache), so the cost does not grow with the number
+     * of nodes. Unknown IDs are ignored.
      *
-     * @param task The Task entity to assign employees to
-     * @param dto  The corresponding TaskDTO containing employeeIds and subTasks
+     * @param dto The TaskDTO, with employeeIds, skills, departments and subTasks on any level
+     * @return The Task tree, each node bound to its own references
      */
-    private void assignEmployeesRecursively(Task task, TaskDTO dto) {
-        // Assign employees to this task if employeeIds are provided
-        if (dto.getEmployeeIds() != null && !dto.getEmployeeIds().isEmpty()) {
-            List<Employee> employees = employeeRepository.findAllById(dto.getEmployeeIds());
-            task.setEmployees(new java.util.HashSet<>(employees));
-        }
-        // Recursively assign employees to subtasks
-        if (dto.getSubTasks() != null && task.getSubTasks() != null) {
-            // Match by order/position: map each DTO subtask to corresponding Task entity in set
-            // Since Task.subTasks is a Set, rely on sizes and iterate in insertion order by converting to list
-            List<Task> subEntities = task.getSubTasks().stream().toList();
-            for (int i = 0; i < Math.min(subEntities.size(), dto.getSubTasks().size()); i++) {
-                assignEmployeesRecursively(subEntities.get(i), dto.getSubTasks().get(i));
+    private Task fromTaskDTOWithReferences(TaskDTO dto) {
+        Set<Long> employeeIds = new HashSet<>();
+        Set<Long> skillIds = new HashSet<>();
+        Set<Long> departmentIds = new HashSet<>();
+        Deque<TaskDTO> pending = new ArrayDeque<>();
+        pending.push(dto);
+        while (!pending.isEmpty()) {
+            TaskDTO node = pending.pop();
+            if (node.getEmployeeIds() != null) {
+                node.getEmployeeIds().stream().filter(Objects::nonNull).forEach(employeeIds::add);
+            }
+            if (node.getSkills() != null) {
+                node.getSkills().stream().map(SkillDTO::getId).filter(Objects::nonNull).forEach(skillIds::add);
+            }
+            if (node.getDepartments() != null) {
+                node.getDepartments().stream().map(DepartmentDTO::getId).filter(Objects::nonNull)
+                    .forEach(departmentIds::add);
             }
+            if (node.getSubTasks() != null) {
+                node.getSubTasks().forEach(pending::push);
+            }
+        }
+
+        Map<Long, Employee> employees = new HashMap<>();
+        if (!employeeIds.isEmpty()) {
+            employeeRepository.findAllById(employeeIds).forEach(employee -> employees.put(employee.getEmployeeId(), employee));
+        }
+        Map<Long, EmployeeSkill> skills = new HashMap<>();
+        if (!skillIds.isEmpty()) {
+            referenceDataService.findSkillsByIds(skillIds).forEach(skill -> skills.put(skill.getId(), skill));
+        }
+        Map<Long, Department> departments = new HashMap<>();
+        if (!departmentIds.isEmpty()) {
+            referenceDataService.findDepartmentsByIds(departmentIds)
+                .forEach(department -> departments.put(department.getId(), department));
         }
+        return TaskMapper.fromTaskDTO(dto, new TaskMapper.References(employees, skills, departments));
     }
 }
@@ -0,0 +1,25 @@
+package com.proseed.entities;
+
+/**
+ * An entity whose changes are stamped with a change version by ChangeVersionListener.
+ */
+public interface ChangeTracked {
+    long getChangeVersion();
+
+    void setChangeVersion(long changeVersion);
+
+    /**
+     * Type under which deletions of this entity are recorded.
+     */
+    SyncEntityType syncType();
+
+    /**
+     * Primary key under which changes and deletions of this entity are recorded.
+     */
+    Long syncId();
+
+    /**
+     * Process the entity belongs to, used to route change events (null if none).
+     */
+    Long syncProcessId();
+}
@@ -0,0 +1,43 @@
+package com.proseed.entities;
+
+import com.proseed.services.impl.ChangeTracker;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Stamps inserted and updated entities with the change version of the current transaction
+ * and records a tombstone for every removed entity (including cascaded and orphan removals).
+ * Every change is also reported to the tracker, which publishes it once the transaction commits.
+ * Created by Hibernate through Spring, so the tracker is injected.
+ */
+public class ChangeVersionListener {
+    private final ChangeTracker changeTracker;
+
+    public ChangeVersionListener(ChangeTracker changeTracker) {
+        this.changeTracker = changeTracker;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void stamp(Object entity) {
+        ((ChangeTracked) entity).setChangeVersion(changeTracker.currentVersion());
+    }
+
+    // Post callbacks, because generated IDs are not assigned yet in @PrePersist
+    @PostPersist
+    @PostUpdate
+    void recordChange(Object entity) {
+        ChangeTracked tracked = (ChangeTracked) entity;
+        changeTracker.recordChange(tracked.syncType(), tracked.syncId(), tracked.syncProcessId());
+    }
+
+    @PreRemove
+    void recordDeletion(Object entity) {
+        ChangeTracked tracked = (ChangeTracked) entity;
+        changeTracker.recordDeletion(tracked.syncType(), tracked.syncId(), tracked.syncProcessId());
+    }
+}
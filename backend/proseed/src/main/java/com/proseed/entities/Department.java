@@ -10,7 +10,8 @@ import lombok.NoArgsConstructor;
 @Data
 public class Department {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "department_seq")
+    @SequenceGenerator(name = "department_seq", sequenceName = "department_seq", allocationSize = 50)
     @Column(name = "department_id", nullable = false, unique = true)
     private Long id;
 
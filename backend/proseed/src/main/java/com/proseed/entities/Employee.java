@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Set;
 import lombok.ToString;
@@ -12,9 +13,12 @@ import lombok.ToString;
 @Entity
 @Data
 @NoArgsConstructor
-public class Employee {
+@Table(indexes = @Index(name = "IDX_EMPLOYEE_CHANGE_VERSION", columnList = "change_version"))
+@EntityListeners(ChangeVersionListener.class)
+public class Employee implements ChangeTracked {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     @Column(name = "employee_id", nullable = false, unique = true)
     private Long employeeId;
 
@@ -24,6 +28,24 @@ public class Employee {
     @Column(nullable = false)
     private String lastName;
 
+    // Change version of the last insert or update, set by ChangeVersionListener
+    @Column(name = "change_version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long changeVersion;
+
+    // Optimistic locking, see Task.version
+    @Version
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    // Assigned tasks that are not completed, maintained by EmployeeWorkloadService.
+    // Written by Hibernate on insert only, like the rollups of Task, and never read from a request body.
+    @Column(name = "open_task_count", nullable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @EqualsAndHashCode.Exclude
+    private int openTaskCount;
+
     @ManyToMany(mappedBy = "employees")
     @JsonIgnore // Prevent recursion
     @ToString.Exclude
@@ -42,7 +64,8 @@ public class Employee {
     @JoinTable(
         name = "employee_skills_mapping",
         joinColumns = @JoinColumn(name = "employee_id", referencedColumnName = "employee_id"),
-        inverseJoinColumns = @JoinColumn(name = "skill_id", referencedColumnName = "skill_id")
+        inverseJoinColumns = @JoinColumn(name = "skill_id", referencedColumnName = "skill_id"),
+        indexes = @Index(name = "IDX_EMPLOYEE_SKILLS_SKILL", columnList = "skill_id, employee_id")
     )
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -59,4 +82,19 @@ public class Employee {
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     private Department department;
+
+    @Override
+    public SyncEntityType syncType() {
+        return SyncEntityType.EMPLOYEE;
+    }
+
+    @Override
+    public Long syncId() {
+        return employeeId;
+    }
+
+    @Override
+    public Long syncProcessId() {
+        return null;
+    }
 }
@@ -13,7 +13,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @NoArgsConstructor
 public class EmployeeProfile {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_profile_seq")
+    @SequenceGenerator(name = "employee_profile_seq", sequenceName = "employee_profile_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 2000)
@@ -14,7 +14,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @NoArgsConstructor
 public class EmployeeSkill {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_skill_seq")
+    @SequenceGenerator(name = "employee_skill_seq", sequenceName = "employee_skill_seq", allocationSize = 50)
     @Column(name = "skill_id", nullable = false, unique = true)
     private Long id;
 
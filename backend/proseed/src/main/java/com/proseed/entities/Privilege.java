@@ -11,7 +11,8 @@ import lombok.ToString;
 @NoArgsConstructor
 public class Privilege {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "privilege_seq")
+    @SequenceGenerator(name = "privilege_seq", sequenceName = "privilege_seq", allocationSize = 50)
     @Column(name = "privilege_id", nullable = false, unique = true)
     @EqualsAndHashCode.Include
     @ToString.Include
@@ -12,9 +12,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Entity
 @Data
 @NoArgsConstructor
-public class ProcessEntity {
+@Table(indexes = @Index(name = "IDX_PROCESS_CHANGE_VERSION", columnList = "change_version"))
+@EntityListeners(ChangeVersionListener.class)
+public class ProcessEntity implements ChangeTracked {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "process_entity_seq")
+    @SequenceGenerator(name = "process_entity_seq", sequenceName = "process_entity_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -23,6 +26,22 @@ public class ProcessEntity {
     @Column(nullable = true, length = 1000)
     private String description;
 
+    // Change version of the last insert or update, set by ChangeVersionListener
+    @Column(name = "change_version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long changeVersion;
+
+    // Optimistic locking, see Task.version
+    @Version
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    // Change version of the last change of the process or any of its tasks, used as ETag of the process
+    // read endpoints. Set by ChangeTracker with plain SQL, so Hibernate only writes it on insert.
+    @Column(name = "tree_version", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private long treeVersion;
 
     @JsonIgnore
     @OneToMany(mappedBy = "process", fetch = FetchType.LAZY,
@@ -31,10 +50,31 @@ public class ProcessEntity {
     @EqualsAndHashCode.Exclude
     private Set<Task> tasks;
 
+    @PrePersist
+    private void prePersist() {
+        // Runs after ChangeVersionListener has stamped the change version
+        treeVersion = changeVersion;
+    }
+
     @PreRemove
     private void preRemove() {
         if (tasks != null) {
             tasks.clear();
         }
     }
+
+    @Override
+    public SyncEntityType syncType() {
+        return SyncEntityType.PROCESS;
+    }
+
+    @Override
+    public Long syncId() {
+        return id;
+    }
+
+    @Override
+    public Long syncProcessId() {
+        return id;
+    }
 }
@@ -0,0 +1,10 @@
+package com.proseed.entities;
+
+/**
+ * Entity types that carry a change version and are reported by the delta sync endpoint.
+ */
+public enum SyncEntityType {
+    TASK,
+    PROCESS,
+    EMPLOYEE
+}
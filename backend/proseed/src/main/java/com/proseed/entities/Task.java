@@ -12,9 +12,19 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 @Entity
 @Data
 @NoArgsConstructor
-public class Task {
+// Composite indexes end with the id so filtered listings can page by id without sorting
+@Table(indexes = {
+    @Index(name = "IDX_TASK_PROCESS", columnList = "process_id, id"),
+    @Index(name = "IDX_TASK_PARENT", columnList = "parent_task_id, id"),
+    @Index(name = "IDX_TASK_COMPLETED", columnList = "is_completed, id"),
+    @Index(name = "IDX_TASK_CHANGE_VERSION", columnList = "change_version")
+})
+@EntityListeners(ChangeVersionListener.class)
+public class Task implements ChangeTracked {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY, so inserts of whole task trees can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -32,12 +42,40 @@ public class Task {
     @Column(nullable = false)
     private boolean isCompleted; // This can be changed later for more states
 
+    // Change version of the last insert or update, set by ChangeVersionListener
+    @Column(name = "change_version", nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long changeVersion;
+
+    // Optimistic locking: an update fails if the row was changed since it was loaded.
+    // Primitive, so Spring Data keeps deciding by the ID whether an entity is new.
+    @Version
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    private long version;
+
+    // Progress rollups over all tasks below this one, maintained along the ancestor path by
+    // TaskRollupService. Written by Hibernate on insert only, like ProcessEntity.treeVersion.
+    @Column(name = "descendant_count", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private int descendantCount;
+
+    @Column(name = "completed_descendant_count", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private int completedDescendantCount;
+
+    // Employee assignments of the tasks below; an employee assigned to two of them counts twice
+    @Column(name = "descendant_assignment_count", nullable = false, updatable = false)
+    @EqualsAndHashCode.Exclude
+    private int descendantAssignmentCount;
+
     @ManyToMany
     @JsonIgnore // Prevent recursion
     @JoinTable(
         name = "task_assignees",
         joinColumns = @JoinColumn(name = "task_id"),
-        inverseJoinColumns = @JoinColumn(name = "employee_id")
+        inverseJoinColumns = @JoinColumn(name = "employee_id"),
+        indexes = @Index(name = "IDX_TASK_ASSIGNEES_EMPLOYEE", columnList = "employee_id, task_id")
     )
     private Set<Employee> employees;
 
@@ -60,7 +98,8 @@ public class Task {
     @JoinTable(
         name = "task_skills_mapping",
         joinColumns = @JoinColumn(name = "task_id", referencedColumnName = "id"),
-        inverseJoinColumns = @JoinColumn(name = "skill_id", referencedColumnName = "skill_id")
+        inverseJoinColumns = @JoinColumn(name = "skill_id", referencedColumnName = "skill_id"),
+        indexes = @Index(name = "IDX_TASK_SKILLS_SKILL", columnList = "skill_id, task_id")
     )
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -71,9 +110,25 @@ public class Task {
     @JoinTable(
         name = "task_departments_mapping",
         joinColumns = @JoinColumn(name = "task_id", referencedColumnName = "id"),
-        inverseJoinColumns = @JoinColumn(name = "department_id", referencedColumnName = "department_id")
+        inverseJoinColumns = @JoinColumn(name = "department_id", referencedColumnName = "department_id"),
+        indexes = @Index(name = "IDX_TASK_DEPARTMENTS_DEPARTMENT", columnList = "department_id, task_id")
     )
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private Set<Department> departments;
+
+    @Override
+    public SyncEntityType syncType() {
+        return SyncEntityType.TASK;
+    }
+
+    @Override
+    public Long syncId() {
+        return id;
+    }
+
+    @Override
+    public Long syncProcessId() {
+        return process != null ? process.getId() : null;
+    }
 }
@@ -0,0 +1,35 @@
+package com.proseed.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Closure table of the Task hierarchy.
+ * Holds one row for every (ancestor, descendant) pair, including the (task, task, 0) self row,
+ * so ancestor checks, subtree listings and depth lookups are single indexed queries.
+ * Rows are maintained by TaskHierarchyService; plain ID columns (no associations) are used
+ * so the table can be rewritten with set-based statements.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(TaskClosureId.class)
+@Table(name = "task_closure", indexes = {
+    @Index(name = "IDX_TASK_CLOSURE_DESCENDANT", columnList = "descendant_id, depth")
+})
+public class TaskClosure {
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    // Number of edges between ancestor and descendant (0 for the self row)
+    @Column(nullable = false)
+    private int depth;
+}
@@ -0,0 +1,18 @@
+package com.proseed.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite key of TaskClosure (ancestor, descendant).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskClosureId implements Serializable {
+    private Long ancestorId;
+    private Long descendantId;
+}
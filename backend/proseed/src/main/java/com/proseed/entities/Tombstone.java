@@ -0,0 +1,33 @@
+package com.proseed.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marker left behind by a deleted Task, ProcessEntity or Employee, so delta sync clients
+ * learn about deletions. IDs come from sequences and are never reused, so one row per
+ * entity is enough. Rows are written by ChangeTracker with plain SQL.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(TombstoneId.class)
+@Table(name = "change_tombstone", indexes = {
+    @Index(name = "IDX_CHANGE_TOMBSTONE_VERSION", columnList = "change_version")
+})
+public class Tombstone {
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private SyncEntityType entityType;
+
+    @Id
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+}
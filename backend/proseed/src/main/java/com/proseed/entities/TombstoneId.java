@@ -0,0 +1,18 @@
+package com.proseed.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite key of Tombstone (entity type, entity ID).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TombstoneId implements Serializable {
+    private SyncEntityType entityType;
+    private Long entityId;
+}
@@ -0,0 +1,45 @@
+package com.proseed.repos;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.proseed.entities.Employee;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Flat reads of the employee data the matching index needs, without loading entities.
+ */
+public interface EmployeeMatchingRepository extends Repository<Employee, Long> {
+
+    interface EmployeeRow {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        Long getDepartmentId();
+        int getOpenTaskCount();
+    }
+
+    interface SkillLink {
+        Long getEmployeeId();
+        Long getSkillId();
+    }
+
+    @Query("select e.employeeId as id, e.firstName as firstName, e.lastName as lastName, d.id as departmentId, " +
+           "e.openTaskCount as openTaskCount from Employee e left join e.department d")
+    List<EmployeeRow> findAllRows();
+
+    @Query("select e.employeeId as id, e.firstName as firstName, e.lastName as lastName, d.id as departmentId, " +
+           "e.openTaskCount as openTaskCount from Employee e left join e.department d where e.employeeId in :ids")
+    List<EmployeeRow> findRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT employee_id AS employeeId, skill_id AS skillId FROM employee_skills_mapping",
+           nativeQuery = true)
+    List<SkillLink> findAllSkillLinks();
+
+    @Query(value = "SELECT employee_id AS employeeId, skill_id AS skillId FROM employee_skills_mapping " +
+                   "WHERE employee_id IN (:ids)", nativeQuery = true)
+    List<SkillLink> findSkillLinksByEmployeeIds(@Param("ids") Collection<Long> ids);
+}
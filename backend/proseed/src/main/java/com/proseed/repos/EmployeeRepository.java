@@ -1,7 +1,84 @@
 package com.proseed.repos;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.proseed.entities.Employee;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeSearchRepository {
+
+    @Query("select e.employeeId from Employee e where e.employeeId > :afterId order by e.employeeId")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select count(e) from Employee e where e.employeeId in :ids")
+    long countByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.employeeId from Employee e where e.employeeId in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Loads the given employees with department, role and skills in one query. The profile is
+     * fetched as well: as the inverse side of a one-to-one it would otherwise be read with one
+     * extra query per employee.
+     */
+    @Query("select distinct e from Employee e left join fetch e.department left join fetch e.role " +
+           "left join fetch e.employeeSkills left join fetch e.profile " +
+           "where e.employeeId in :ids order by e.employeeId")
+    List<Employee> findWithDetailsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select e.employeeId from Employee e where e.changeVersion > :since and e.changeVersion <= :upTo " +
+           "order by e.employeeId")
+    List<Long> findIdsChangedBetween(@Param("since") long since, @Param("upTo") long upTo);
+
+    /**
+     * Marks employees as changed, e.g. after their skill links were written with plain SQL.
+     * Must not be used for employees loaded in the same transaction, whose version would then be stale.
+     */
+    @Modifying
+    @Query(value = "UPDATE employee SET change_version = :changeVersion, version = version + 1 " +
+                   "WHERE employee_id IN (:ids)", nativeQuery = true)
+    int touchAll(@Param("ids") Collection<Long> ids, @Param("changeVersion") long changeVersion);
+
+    // Bulk reassignment: only the foreign key on employee is written, Role.employees is never loaded.
+
+    @Query(value = "SELECT employee_id FROM employee WHERE employee_id IN (:ids) " +
+                   "AND (role_id IS NULL OR role_id <> :roleId)", nativeQuery = true)
+    List<Long> findIdsNotInRole(@Param("ids") Collection<Long> ids, @Param("roleId") Long roleId);
+
+    @Query(value = "SELECT employee_id FROM employee WHERE employee_id IN (:ids) " +
+                   "AND (department_id IS NULL OR department_id <> :departmentId)", nativeQuery = true)
+    List<Long> findIdsNotInDepartment(@Param("ids") Collection<Long> ids, @Param("departmentId") Long departmentId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE employee SET role_id = :roleId, change_version = :changeVersion, version = version + 1 " +
+                   "WHERE employee_id IN (:ids)", nativeQuery = true)
+    int moveToRole(@Param("ids") Collection<Long> ids, @Param("roleId") Long roleId,
+                   @Param("changeVersion") long changeVersion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE employee SET department_id = :departmentId, change_version = :changeVersion, " +
+                   "version = version + 1 WHERE employee_id IN (:ids)", nativeQuery = true)
+    int moveToDepartment(@Param("ids") Collection<Long> ids, @Param("departmentId") Long departmentId,
+                         @Param("changeVersion") long changeVersion);
+
+    /**
+     * Marks every employee holding the skill as changed, e.g. before the skill is removed from them.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE employee SET change_version = :changeVersion, version = version + 1 " +
+                   "WHERE employee_id IN (SELECT m.employee_id FROM employee_skills_mapping m " +
+                   "WHERE m.skill_id = :skillId)", nativeQuery = true)
+    int touchHoldersOfSkill(@Param("skillId") Long skillId, @Param("changeVersion") long changeVersion);
+
+    /**
+     * Removes all skills of the employee, without loading them.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM employee_skills_mapping WHERE employee_id = :employeeId", nativeQuery = true)
+    int deleteSkillLinks(@Param("employeeId") Long employeeId);
 }
@@ -0,0 +1,20 @@
+package com.proseed.repos;
+
+import com.proseed.DTOs.EmployeeFilterDTO;
+
+import java.util.List;
+
+/**
+ * Filtered keyset search over employees, mixed into EmployeeRepository.
+ */
+public interface EmployeeSearchRepository {
+
+    /**
+     * Returns the IDs of the employees matching the filter with an ID greater than afterId, in ascending order.
+     * @param filter Filters to apply; null fields are ignored.
+     * @param afterId Last ID of the previous page, or null for the first page.
+     * @param limit Maximum number of IDs to return.
+     * @return Matching employee IDs.
+     */
+    List<Long> findIdPage(EmployeeFilterDTO filter, Long afterId, int limit);
+}
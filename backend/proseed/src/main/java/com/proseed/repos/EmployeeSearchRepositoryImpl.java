@@ -0,0 +1,58 @@
+package com.proseed.repos;
+
+import com.proseed.DTOs.EmployeeFilterDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the query from the filters that are set only, like TaskSearchRepositoryImpl.
+ * Department and role are foreign keys on employee, so they need no join; the skill join
+ * filters on a single skill and the join table is keyed by (employee, skill), so no employee
+ * is returned twice.
+ */
+public class EmployeeSearchRepositoryImpl implements EmployeeSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdPage(EmployeeFilterDTO filter, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select e.employeeId from Employee e");
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (filter.getSkillId() != null) {
+            jpql.append(" join e.employeeSkills s");
+            where.add("s.id = :skillId");
+            params.put("skillId", filter.getSkillId());
+        }
+        if (filter.getDepartmentId() != null) {
+            where.add("e.department.id = :departmentId");
+            params.put("departmentId", filter.getDepartmentId());
+        }
+        if (filter.getRoleId() != null) {
+            where.add("e.role.id = :roleId");
+            params.put("roleId", filter.getRoleId());
+        }
+        if (afterId != null) {
+            where.add("e.employeeId > :afterId");
+            params.put("afterId", afterId);
+        }
+
+        if (!where.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", where));
+        }
+        jpql.append(" order by e.employeeId");
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
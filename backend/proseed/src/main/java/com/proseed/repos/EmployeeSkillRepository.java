@@ -1,7 +1,22 @@
 package com.proseed.repos;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.proseed.entities.EmployeeSkill;
 
+import java.util.List;
+
 public interface EmployeeSkillRepository extends JpaRepository<EmployeeSkill, Long> {
+
+    @Query(value = "SELECT m.employee_id FROM employee_skills_mapping m WHERE m.skill_id = :skillId", nativeQuery = true)
+    List<Long> findHolderIds(@Param("skillId") Long skillId);
+
+    /**
+     * Removes the skill from every employee, without loading them.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM employee_skills_mapping WHERE skill_id = :skillId", nativeQuery = true)
+    int deleteEmployeeLinks(@Param("skillId") Long skillId);
 }
@@ -0,0 +1,68 @@
+package com.proseed.repos;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.proseed.entities.Employee;
+
+import java.util.Collection;
+
+/**
+ * Set-based access to the open task count of the employee table.
+ * Like TaskRollupRepository, the statements do not clear the persistence context: Hibernate
+ * never writes the column on update. They stamp the change version, so the employee matching
+ * index picks up the new counts, but leave the optimistic locking version alone.
+ */
+public interface EmployeeWorkloadRepository extends Repository<Employee, Long> {
+
+    /**
+     * Adds delta to the count of every employee once per assignment to a task of the subtree
+     * rooted at taskId (per task_closure) whose completion is :completed.
+     */
+    @Modifying
+    @Query(value = "UPDATE employee SET open_task_count = open_task_count + :delta * (" +
+                   "SELECT COUNT(*) FROM task_closure c JOIN task_assignees a ON a.task_id = c.descendant_id " +
+                   "JOIN task t ON t.id = c.descendant_id WHERE c.ancestor_id = :taskId " +
+                   "AND t.is_completed = :completed AND a.employee_id = employee.employee_id), " +
+                   "change_version = :changeVersion " +
+                   "WHERE employee_id IN (SELECT a.employee_id FROM task_closure c " +
+                   "JOIN task_assignees a ON a.task_id = c.descendant_id JOIN task t ON t.id = c.descendant_id " +
+                   "WHERE c.ancestor_id = :taskId AND t.is_completed = :completed)", nativeQuery = true)
+    int adjustForSubtree(@Param("taskId") Long taskId, @Param("completed") boolean completed,
+                         @Param("delta") int delta, @Param("changeVersion") long changeVersion);
+
+    /**
+     * Adds delta to the count of every employee once per assignment to an open task of the process.
+     */
+    @Modifying
+    @Query(value = "UPDATE employee SET open_task_count = open_task_count + :delta * (" +
+                   "SELECT COUNT(*) FROM task_assignees a JOIN task t ON t.id = a.task_id " +
+                   "WHERE t.process_id = :processId AND t.is_completed = FALSE " +
+                   "AND a.employee_id = employee.employee_id), change_version = :changeVersion " +
+                   "WHERE employee_id IN (SELECT a.employee_id FROM task_assignees a JOIN task t ON t.id = a.task_id " +
+                   "WHERE t.process_id = :processId AND t.is_completed = FALSE)", nativeQuery = true)
+    int adjustForProcess(@Param("processId") Long processId, @Param("delta") int delta,
+                         @Param("changeVersion") long changeVersion);
+
+    @Modifying
+    @Query(value = "UPDATE employee SET open_task_count = open_task_count + :delta, change_version = :changeVersion " +
+                   "WHERE employee_id IN (:employeeIds)", nativeQuery = true)
+    int adjust(@Param("employeeIds") Collection<Long> employeeIds, @Param("delta") int delta,
+               @Param("changeVersion") long changeVersion);
+
+    // Full rebuild from task_assignees, used at startup when the counts do not match.
+
+    @Query(value = "SELECT CASE WHEN EXISTS (SELECT 1 FROM employee e WHERE e.open_task_count <> (" +
+                   "SELECT COUNT(*) FROM task_assignees a JOIN task t ON t.id = a.task_id " +
+                   "WHERE a.employee_id = e.employee_id AND t.is_completed = FALSE)) THEN 0 ELSE 1 END",
+           nativeQuery = true)
+    int isConsistent();
+
+    @Modifying
+    @Query(value = "UPDATE employee SET open_task_count = (SELECT COUNT(*) FROM task_assignees a " +
+                   "JOIN task t ON t.id = a.task_id WHERE a.employee_id = employee.employee_id " +
+                   "AND t.is_completed = FALSE)", nativeQuery = true)
+    int rebuildAll();
+}
@@ -1,7 +1,49 @@
 package com.proseed.repos;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.proseed.entities.ProcessEntity;
+import jakarta.persistence.LockModeType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ProcessRepository extends JpaRepository<ProcessEntity, Long> {
+
+    @Query("select p from ProcessEntity p where p.id > :afterId order by p.id")
+    List<ProcessEntity> findAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select p.treeVersion from ProcessEntity p where p.id = :id")
+    Optional<Long> findTreeVersionById(@Param("id") Long id);
+
+    /**
+     * Reads the process and locks its row until the transaction ends, so changes of its tasks
+     * (which set the tree version) wait until then.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from ProcessEntity p where p.id = :id")
+    Optional<ProcessEntity> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select p from ProcessEntity p where p.changeVersion > :since and p.changeVersion <= :upTo order by p.id")
+    List<ProcessEntity> findChangedBetween(@Param("since") long since, @Param("upTo") long upTo);
+
+    /**
+     * Marks processes as changed without loading them, e.g. when tasks moved in or out.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE process_entity SET change_version = :changeVersion, version = version + 1 " +
+                   "WHERE id IN (:processIds)", nativeQuery = true)
+    int touchAll(@Param("processIds") Collection<Long> processIds, @Param("changeVersion") long changeVersion);
+
+    /**
+     * Deletes the process row only; its tasks must be deleted first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM process_entity WHERE id = :id", nativeQuery = true)
+    int deleteRow(@Param("id") Long id);
 }
@@ -0,0 +1,63 @@
+package com.proseed.repos;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.proseed.entities.ProcessEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-process task statistics, aggregated by the database in one grouped query.
+ * Tasks and assignments are aggregated in separate derived tables, so neither multiplies the
+ * rows of the other.
+ */
+public interface ProcessStatsRepository extends Repository<ProcessEntity, Long> {
+
+    interface ProcessStats {
+        Long getId();
+        String getName();
+        long getTasks();
+        long getCompleted();
+        long getRoots();
+        long getAssignees();
+        long getUnstaffedSkilled();
+    }
+
+    String STATS_SELECT = "SELECT p.id AS id, p.name AS name, " +
+        "COALESCE(t.tasks, 0) AS tasks, COALESCE(t.completed, 0) AS completed, COALESCE(t.roots, 0) AS roots, " +
+        "COALESCE(a.assignees, 0) AS assignees, COALESCE(t.unstaffed_skilled, 0) AS unstaffedSkilled " +
+        "FROM process_entity p ";
+
+    String TASK_TOTALS = "SELECT k.process_id, COUNT(*) AS tasks, " +
+        "SUM(CASE WHEN k.is_completed THEN 1 ELSE 0 END) AS completed, " +
+        "SUM(CASE WHEN k.parent_task_id IS NULL THEN 1 ELSE 0 END) AS roots, " +
+        "SUM(CASE WHEN EXISTS (SELECT 1 FROM task_skills_mapping s WHERE s.task_id = k.id) " +
+        "AND NOT EXISTS (SELECT 1 FROM task_assignees ta WHERE ta.task_id = k.id) THEN 1 ELSE 0 END) AS unstaffed_skilled " +
+        "FROM task k ";
+
+    String ASSIGNEE_TOTALS = "SELECT k.process_id, COUNT(DISTINCT ta.employee_id) AS assignees " +
+        "FROM task_assignees ta JOIN task k ON k.id = ta.task_id ";
+
+    @Query(value = STATS_SELECT +
+                   "LEFT JOIN (" + TASK_TOTALS + "GROUP BY k.process_id) t ON t.process_id = p.id " +
+                   "LEFT JOIN (" + ASSIGNEE_TOTALS + "GROUP BY k.process_id) a ON a.process_id = p.id " +
+                   "ORDER BY p.id", nativeQuery = true)
+    List<ProcessStats> findAllStats();
+
+    /**
+     * Same as findAllStats, restricted to some processes; only their tasks are aggregated.
+     */
+    @Query(value = STATS_SELECT +
+                   "LEFT JOIN (" + TASK_TOTALS + "WHERE k.process_id IN (:processIds) GROUP BY k.process_id) t " +
+                   "ON t.process_id = p.id " +
+                   "LEFT JOIN (" + ASSIGNEE_TOTALS + "WHERE k.process_id IN (:processIds) GROUP BY k.process_id) a " +
+                   "ON a.process_id = p.id " +
+                   "WHERE p.id IN (:processIds) ORDER BY p.id", nativeQuery = true)
+    List<ProcessStats> findStatsByIds(@Param("processIds") Collection<Long> processIds);
+
+    @Query("select p.id from ProcessEntity p where p.treeVersion > :since")
+    List<Long> findIdsWithTreeVersionAfter(@Param("since") long since);
+}
@@ -0,0 +1,140 @@
+package com.proseed.repos;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.proseed.DTOs.TaskNodeDTO;
+import com.proseed.entities.TaskClosure;
+import com.proseed.entities.TaskClosureId;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based access to the task_closure table.
+ * Statements that read task_closure while modifying it wrap the subquery in a derived table,
+ * which MariaDB requires (error 1093) and H2 accepts.
+ */
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosureId> {
+
+    boolean existsByAncestorIdAndDescendantIdAndDepthGreaterThan(Long ancestorId, Long descendantId, int depth);
+
+    @Query("select coalesce(max(c.depth), -1) from TaskClosure c where c.descendantId = :taskId")
+    int findDepth(@Param("taskId") Long taskId);
+
+    @Query("select new com.proseed.DTOs.TaskNodeDTO(c.descendantId, p.id, c.depth) " +
+           "from TaskClosure c join Task t on t.id = c.descendantId left join t.parentTask p " +
+           "where c.ancestorId = :taskId and c.depth > 0 order by c.depth, c.descendantId")
+    List<TaskNodeDTO> findDescendants(@Param("taskId") Long taskId);
+
+    @Query("select new com.proseed.DTOs.TaskNodeDTO(c.ancestorId, p.id, c.depth) " +
+           "from TaskClosure c join Task t on t.id = c.ancestorId left join t.parentTask p " +
+           "where c.descendantId = :taskId and c.depth > 0 order by c.depth")
+    List<TaskNodeDTO> findAncestors(@Param("taskId") Long taskId);
+
+    @Query("select c.descendantId from TaskClosure c where c.ancestorId = :taskId and c.depth > 0")
+    List<Long> findDescendantIds(@Param("taskId") Long taskId);
+
+    @Query("select count(c) from TaskClosure c where c.ancestorId = :taskId")
+    long countSubtree(@Param("taskId") Long taskId);
+
+    @Query("select count(c) from TaskClosure c where c.depth = 0")
+    long countSelfRows();
+
+    @Query("select count(c) from TaskClosure c join Task t on t.id = c.descendantId where c.depth = 0")
+    long countIndexedTasks();
+
+    @Query("select count(t) from Task t where t.parentTask is not null")
+    long countTasksWithParent();
+
+    @Query("select count(c) from TaskClosure c where c.depth = 1")
+    long countParentRows();
+
+    /**
+     * Counts the tasks whose parent (task.parent_task_id) has no (parent, task, 1) row, e.g. after
+     * parent_task_id was changed outside the application.
+     */
+    @Query("select count(t) from Task t where t.parentTask is not null and not exists (" +
+           "select 1 from TaskClosure c where c.ancestorId = t.parentTask.id " +
+           "and c.descendantId = t.id and c.depth = 1)")
+    long countTasksWithoutParentRow();
+
+    /**
+     * Adds the (task, task, 0) row for each given task.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT t.id, t.id, 0 FROM task t WHERE t.id IN (:taskIds)", nativeQuery = true)
+    int insertSelfRows(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Copies the ancestor rows of each task's parent (from task.parent_task_id) down to the task.
+     * The parents must already have their closure rows.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT c.ancestor_id, t.id, c.depth + 1 FROM task t " +
+                   "JOIN task_closure c ON c.descendant_id = t.parent_task_id " +
+                   "WHERE t.id IN (:taskIds)", nativeQuery = true)
+    int insertParentPaths(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Removes every link from an ancestor outside the subtree of taskId to a node inside it.
+     * Afterwards the subtree is detached (its internal rows are kept).
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_closure " +
+                   "WHERE descendant_id IN (SELECT s.descendant_id FROM " +
+                   "(SELECT descendant_id FROM task_closure WHERE ancestor_id = :taskId) s) " +
+                   "AND ancestor_id NOT IN (SELECT s2.descendant_id FROM " +
+                   "(SELECT descendant_id FROM task_closure WHERE ancestor_id = :taskId) s2)", nativeQuery = true)
+    int detachSubtree(@Param("taskId") Long taskId);
+
+    /**
+     * Links a detached subtree rooted at taskId below parentId (cross product of the parent's
+     * ancestors and the subtree's nodes).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1 " +
+                   "FROM task_closure a, task_closure d " +
+                   "WHERE a.descendant_id = :parentId AND d.ancestor_id = :taskId", nativeQuery = true)
+    int attachSubtree(@Param("taskId") Long taskId, @Param("parentId") Long parentId);
+
+    /**
+     * Removes all rows that touch a node of the subtree rooted at taskId.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM task_closure " +
+                   "WHERE descendant_id IN (SELECT s.descendant_id FROM " +
+                   "(SELECT descendant_id FROM task_closure WHERE ancestor_id = :taskId) s)", nativeQuery = true)
+    int deleteSubtree(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_closure " +
+                   "WHERE descendant_id IN (SELECT t.id FROM task t WHERE t.process_id = :processId)", nativeQuery = true)
+    int deleteByProcessId(@Param("processId") Long processId);
+
+    // Full rebuild, used at startup when the table is out of sync with the task table.
+
+    @Modifying
+    @Query(value = "DELETE FROM task_closure", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO task_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT t.id, t.id, 0 FROM task t", nativeQuery = true)
+    int insertAllSelfRows();
+
+    /**
+     * Derives the rows of distance depth + 1 from the rows of distance depth.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT c.ancestor_id, t.id, c.depth + 1 FROM task_closure c " +
+                   "JOIN task t ON t.parent_task_id = c.descendant_id " +
+                   "WHERE c.depth = :depth", nativeQuery = true)
+    int insertNextLevel(@Param("depth") int depth);
+}
@@ -1,7 +1,253 @@
 package com.proseed.repos;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.proseed.DTOs.TaskLinkDTO;
+import com.proseed.DTOs.TaskRowDTO;
 import com.proseed.entities.Task;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskSearchRepository {
+
+    // Flat projections used to load a whole process tree in a fixed number of queries.
+
+    @Query("select new com.proseed.DTOs.TaskRowDTO(t.id, t.name, t.description, t.isCompleted, p.id, t.process.id, t.version, " +
+           "t.descendantCount, t.completedDescendantCount, t.descendantAssignmentCount) " +
+           "from Task t left join t.parentTask p where t.process.id = :processId order by t.id")
+    List<TaskRowDTO> findRowsByProcessId(@Param("processId") Long processId);
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, e.employeeId) " +
+           "from Task t join t.employees e where t.process.id = :processId")
+    List<TaskLinkDTO> findAssigneeLinksByProcessId(@Param("processId") Long processId);
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, s.id, s.name) " +
+           "from Task t join t.skills s where t.process.id = :processId")
+    List<TaskLinkDTO> findSkillLinksByProcessId(@Param("processId") Long processId);
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, d.id, d.name) " +
+           "from Task t join t.departments d where t.process.id = :processId")
+    List<TaskLinkDTO> findDepartmentLinksByProcessId(@Param("processId") Long processId);
+
+    /**
+     * (taskId, top-level task ID) of the open tasks of a process that have neither subtasks nor
+     * assignees, i.e. the tasks the auto-assignment solver staffs.
+     */
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, r.id) " +
+           "from Task t join TaskClosure c on c.descendantId = t.id join Task r on r.id = c.ancestorId " +
+           "where t.process.id = :processId and t.isCompleted = false and r.parentTask is null " +
+           "and t.employees is empty and not exists (select s.id from Task s where s.parentTask = t) " +
+           "order by t.id")
+    List<TaskLinkDTO> findUnstaffedLeafLinks(@Param("processId") Long processId);
+
+    // The same projections for an explicit set of tasks, used for paged listings.
+
+    @Query("select new com.proseed.DTOs.TaskRowDTO(t.id, t.name, t.description, t.isCompleted, p.id, t.process.id, t.version, " +
+           "t.descendantCount, t.completedDescendantCount, t.descendantAssignmentCount) " +
+           "from Task t left join t.parentTask p where t.id in :taskIds order by t.id")
+    List<TaskRowDTO> findRowsByIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("select new com.proseed.DTOs.TaskRowDTO(t.id, t.name, t.description, t.isCompleted, t.parentTask.id, t.process.id, t.version, " +
+           "t.descendantCount, t.completedDescendantCount, t.descendantAssignmentCount) " +
+           "from Task t where t.parentTask.id in :parentIds order by t.id")
+    List<TaskRowDTO> findChildRowsByParentIds(@Param("parentIds") Collection<Long> parentIds);
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, e.employeeId) " +
+           "from Task t join t.employees e where t.id in :taskIds")
+    List<TaskLinkDTO> findAssigneeLinksByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, s.id, s.name) " +
+           "from Task t join t.skills s where t.id in :taskIds")
+    List<TaskLinkDTO> findSkillLinksByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, d.id, d.name) " +
+           "from Task t join t.departments d where t.id in :taskIds")
+    List<TaskLinkDTO> findDepartmentLinksByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    // (taskId, processId) rows, used to list the task IDs of several processes at once
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, t.process.id) " +
+           "from Task t where t.process.id in :processIds order by t.id")
+    List<TaskLinkDTO> findProcessLinksByProcessIds(@Param("processIds") Collection<Long> processIds);
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, t.process.id) from Task t order by t.id")
+    List<TaskLinkDTO> findAllProcessLinks();
+
+    @Query("select t.id from Task t where t.changeVersion > :since and t.changeVersion <= :upTo order by t.id")
+    List<Long> findIdsChangedBetween(@Param("since") long since, @Param("upTo") long upTo);
+
+    // Set-based hierarchy changes. They bypass the persistence context, which is flushed
+    // before and cleared after each statement, and stamp the rows like ChangeVersionListener.
+
+    /**
+     * Moves a task below parentId and into processId, if the task still has the given version.
+     * @return 0 if the task was changed or deleted concurrently
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET parent_task_id = :parentId, process_id = :processId, " +
+                   "change_version = :changeVersion, version = version + 1 " +
+                   "WHERE id = :taskId AND version = :version", nativeQuery = true)
+    int relinkToParent(@Param("taskId") Long taskId, @Param("version") long version, @Param("parentId") Long parentId,
+                       @Param("processId") Long processId, @Param("changeVersion") long changeVersion);
+
+    /**
+     * Makes a task a top-level task of processId, if the task still has the given version.
+     * @return 0 if the task was changed or deleted concurrently
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET parent_task_id = NULL, process_id = :processId, " +
+                   "change_version = :changeVersion, version = version + 1 " +
+                   "WHERE id = :taskId AND version = :version", nativeQuery = true)
+    int relinkAsRoot(@Param("taskId") Long taskId, @Param("version") long version,
+                     @Param("processId") Long processId, @Param("changeVersion") long changeVersion);
+
+    /**
+     * Moves every task below taskId (per task_closure) into processId, in one statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET process_id = :processId, change_version = :changeVersion, version = version + 1 " +
+                   "WHERE id IN (SELECT c.descendant_id FROM task_closure c " +
+                   "WHERE c.ancestor_id = :taskId AND c.depth > 0)", nativeQuery = true)
+    int moveDescendantsToProcess(@Param("taskId") Long taskId, @Param("processId") Long processId,
+                                 @Param("changeVersion") long changeVersion);
+
+    /**
+     * Marks tasks as changed, e.g. parents that gained or lost a subtask.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET change_version = :changeVersion, version = version + 1 " +
+                   "WHERE id IN (:taskIds)", nativeQuery = true)
+    int touchAll(@Param("taskIds") Collection<Long> taskIds, @Param("changeVersion") long changeVersion);
+
+    // Set-based operations on a whole subtree: the task and every task below it, per task_closure.
+    // Each is one statement, whatever the size of the subtree.
+
+    @Query("select c.descendantId from TaskClosure c join Task t on t.id = c.descendantId " +
+           "where c.ancestorId = :taskId and t.isCompleted <> :completed")
+    List<Long> findSubtreeIdsNotCompleted(@Param("taskId") Long taskId, @Param("completed") boolean completed);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_assignees WHERE task_id IN (" +
+                   "SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int deleteSubtreeAssignees(@Param("taskId") Long taskId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_skills_mapping WHERE task_id IN (" +
+                   "SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int deleteSubtreeSkills(@Param("taskId") Long taskId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_departments_mapping WHERE task_id IN (" +
+                   "SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int deleteSubtreeDepartments(@Param("taskId") Long taskId);
+
+    /**
+     * Clears the parent links of the subtree, so its rows can be deleted in one statement on
+     * databases that check the self-referencing foreign key row by row (InnoDB).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET parent_task_id = NULL WHERE id IN (" +
+                   "SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int unlinkSubtree(@Param("taskId") Long taskId);
+
+    /**
+     * Deletes the tasks of the subtree. Their join table rows and parent links must be removed first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task WHERE id IN (" +
+                   "SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int deleteSubtree(@Param("taskId") Long taskId);
+
+    /**
+     * Sets the completion state of every task in the subtree that does not have it yet.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET is_completed = :completed, change_version = :changeVersion, version = version + 1 " +
+                   "WHERE is_completed <> :completed AND id IN (" +
+                   "SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int setSubtreeCompleted(@Param("taskId") Long taskId, @Param("completed") boolean completed,
+                            @Param("changeVersion") long changeVersion);
+
+    /**
+     * Assigns every given employee to every task of the subtree. The subtree's previous
+     * assignments must be removed first (see deleteSubtreeAssignees).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO task_assignees (task_id, employee_id) " +
+                   "SELECT c.descendant_id, e.employee_id FROM task_closure c, employee e " +
+                   "WHERE c.ancestor_id = :taskId AND e.employee_id IN (:employeeIds)", nativeQuery = true)
+    int insertSubtreeAssignees(@Param("taskId") Long taskId, @Param("employeeIds") Collection<Long> employeeIds);
+
+    /**
+     * Marks every task of the subtree as changed, e.g. after its join table rows were replaced.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET change_version = :changeVersion, version = version + 1 WHERE id IN (" +
+                   "SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int touchSubtree(@Param("taskId") Long taskId, @Param("changeVersion") long changeVersion);
+
+    // Set-based removal of one employee or skill from every task, without loading the tasks.
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, t.process.id) from Task t join t.employees e " +
+           "where e.employeeId = :employeeId")
+    List<TaskLinkDTO> findProcessLinksByAssignee(@Param("employeeId") Long employeeId);
+
+    @Query("select new com.proseed.DTOs.TaskLinkDTO(t.id, t.process.id) from Task t join t.skills s " +
+           "where s.id = :skillId")
+    List<TaskLinkDTO> findProcessLinksBySkill(@Param("skillId") Long skillId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET change_version = :changeVersion, version = version + 1 WHERE id IN (" +
+                   "SELECT a.task_id FROM task_assignees a WHERE a.employee_id = :employeeId)", nativeQuery = true)
+    int touchAssignedTo(@Param("employeeId") Long employeeId, @Param("changeVersion") long changeVersion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET change_version = :changeVersion, version = version + 1 WHERE id IN (" +
+                   "SELECT m.task_id FROM task_skills_mapping m WHERE m.skill_id = :skillId)", nativeQuery = true)
+    int touchRequiringSkill(@Param("skillId") Long skillId, @Param("changeVersion") long changeVersion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_assignees WHERE employee_id = :employeeId", nativeQuery = true)
+    int deleteEmployeeAssignments(@Param("employeeId") Long employeeId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_skills_mapping WHERE skill_id = :skillId", nativeQuery = true)
+    int deleteSkillRequirements(@Param("skillId") Long skillId);
+
+    // Set-based deletion of all tasks of a process, without loading them.
+
+    @Query("select t.id from Task t where t.process.id = :processId")
+    List<Long> findIdsByProcessId(@Param("processId") Long processId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_assignees WHERE task_id IN (" +
+                   "SELECT t.id FROM task t WHERE t.process_id = :processId)", nativeQuery = true)
+    int deleteProcessAssignees(@Param("processId") Long processId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_skills_mapping WHERE task_id IN (" +
+                   "SELECT t.id FROM task t WHERE t.process_id = :processId)", nativeQuery = true)
+    int deleteProcessSkills(@Param("processId") Long processId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_departments_mapping WHERE task_id IN (" +
+                   "SELECT t.id FROM task t WHERE t.process_id = :processId)", nativeQuery = true)
+    int deleteProcessDepartments(@Param("processId") Long processId);
+
+    /**
+     * Clears the parent links of the process's tasks, see unlinkSubtree.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task SET parent_task_id = NULL WHERE process_id = :processId", nativeQuery = true)
+    int unlinkProcessTasks(@Param("processId") Long processId);
+
+    /**
+     * Deletes the tasks of a process. Their join table rows and parent links must be removed first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task WHERE process_id = :processId", nativeQuery = true)
+    int deleteProcessTasks(@Param("processId") Long processId);
 }
@@ -0,0 +1,136 @@
+package com.proseed.repos;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.proseed.entities.Task;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Set-based access to the progress rollup columns of the task table.
+ * The statements do not clear the persistence context: Hibernate never writes these columns
+ * on update, so managed tasks cannot overwrite them.
+ */
+public interface TaskRollupRepository extends Repository<Task, Long> {
+
+    /**
+     * Totals of a subtree (tasks, completed tasks, assignments), counting its root as well.
+     */
+    interface SubtreeTotals {
+        int getTasks();
+        int getCompleted();
+        int getAssignments();
+    }
+
+    @Query(value = "SELECT t.descendant_count + 1 AS tasks, " +
+                   "t.completed_descendant_count + CASE WHEN t.is_completed THEN 1 ELSE 0 END AS completed, " +
+                   "t.descendant_assignment_count + (SELECT COUNT(*) FROM task_assignees a WHERE a.task_id = t.id) AS assignments " +
+                   "FROM task t WHERE t.id = :taskId", nativeQuery = true)
+    Optional<SubtreeTotals> findSubtreeTotals(@Param("taskId") Long taskId);
+
+    /**
+     * Sums of the subtree totals of the direct subtasks of a task, i.e. the task's own rollups.
+     */
+    @Query(value = "SELECT COALESCE(SUM(t.descendant_count + 1), 0) AS tasks, " +
+                   "COALESCE(SUM(t.completed_descendant_count + CASE WHEN t.is_completed THEN 1 ELSE 0 END), 0) AS completed, " +
+                   "COALESCE(SUM(t.descendant_assignment_count), 0) + (SELECT COUNT(*) FROM task_assignees a " +
+                   "JOIN task c ON c.id = a.task_id WHERE c.parent_task_id = :taskId) AS assignments " +
+                   "FROM task t WHERE t.parent_task_id = :taskId", nativeQuery = true)
+    SubtreeTotals sumChildTotals(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query(value = "UPDATE task SET descendant_count = :tasks, completed_descendant_count = :completed, " +
+                   "descendant_assignment_count = :assignments WHERE id = :taskId", nativeQuery = true)
+    int setRollups(@Param("taskId") Long taskId, @Param("tasks") int tasks,
+                   @Param("completed") int completed, @Param("assignments") int assignments);
+
+    /**
+     * Adds the deltas to every strict ancestor of taskId (per task_closure) and stamps them with
+     * the change version, so delta sync clients see the new progress. The optimistic locking
+     * version is left alone: a change below a task does not conflict with edits of the task.
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET descendant_count = descendant_count + :tasks, " +
+                   "completed_descendant_count = completed_descendant_count + :completed, " +
+                   "descendant_assignment_count = descendant_assignment_count + :assignments, " +
+                   "change_version = :changeVersion " +
+                   "WHERE id IN (SELECT c.ancestor_id FROM task_closure c " +
+                   "WHERE c.descendant_id = :taskId AND c.depth > 0)", nativeQuery = true)
+    int adjustAncestors(@Param("taskId") Long taskId, @Param("tasks") int tasks, @Param("completed") int completed,
+                        @Param("assignments") int assignments, @Param("changeVersion") long changeVersion);
+
+    /**
+     * After a whole subtree was marked completed (or not), every task in it has all (or none) of its descendants completed.
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET completed_descendant_count = CASE WHEN :completed THEN descendant_count ELSE 0 END " +
+                   "WHERE id IN (SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int setSubtreeCompleted(@Param("taskId") Long taskId, @Param("completed") boolean completed);
+
+    /**
+     * After every task of a subtree got the same employeeCount assignees.
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET descendant_assignment_count = descendant_count * :employeeCount " +
+                   "WHERE id IN (SELECT c.descendant_id FROM task_closure c WHERE c.ancestor_id = :taskId)", nativeQuery = true)
+    int setSubtreeAssignments(@Param("taskId") Long taskId, @Param("employeeCount") int employeeCount);
+
+    /**
+     * After one assignment was added to each of the given tasks: adds to every strict ancestor the
+     * number of those tasks below it.
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET descendant_assignment_count = descendant_assignment_count + " +
+                   "(SELECT COUNT(*) FROM task_closure c WHERE c.ancestor_id = task.id AND c.depth > 0 " +
+                   "AND c.descendant_id IN (:taskIds)), change_version = :changeVersion " +
+                   "WHERE id IN (SELECT c.ancestor_id FROM task_closure c " +
+                   "WHERE c.descendant_id IN (:taskIds) AND c.depth > 0)", nativeQuery = true)
+    int addAssignmentsToAncestors(@Param("taskIds") Collection<Long> taskIds, @Param("changeVersion") long changeVersion);
+
+    /**
+     * Before every assignment of the employee is removed: subtracts from every strict ancestor of
+     * the employee's tasks the number of those tasks below it.
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET descendant_assignment_count = descendant_assignment_count - " +
+                   "(SELECT COUNT(*) FROM task_closure c JOIN task_assignees a ON a.task_id = c.descendant_id " +
+                   "WHERE c.ancestor_id = task.id AND c.depth > 0 AND a.employee_id = :employeeId), " +
+                   "change_version = :changeVersion " +
+                   "WHERE id IN (SELECT c.ancestor_id FROM task_closure c " +
+                   "JOIN task_assignees a ON a.task_id = c.descendant_id " +
+                   "WHERE a.employee_id = :employeeId AND c.depth > 0)", nativeQuery = true)
+    int removeEmployeeFromAncestors(@Param("employeeId") Long employeeId, @Param("changeVersion") long changeVersion);
+
+    // Full rebuild from task_closure, used at startup when the rollups do not match the index.
+
+    @Query(value = "SELECT CASE WHEN " +
+                   "(SELECT COALESCE(SUM(descendant_count), 0) FROM task) = " +
+                   "(SELECT COUNT(*) FROM task_closure WHERE depth > 0) AND " +
+                   "(SELECT COALESCE(SUM(completed_descendant_count), 0) FROM task) = " +
+                   "(SELECT COUNT(*) FROM task_closure c JOIN task d ON d.id = c.descendant_id " +
+                   "WHERE c.depth > 0 AND d.is_completed = TRUE) AND " +
+                   "(SELECT COALESCE(SUM(descendant_assignment_count), 0) FROM task) = " +
+                   "(SELECT COUNT(*) FROM task_closure c JOIN task_assignees a ON a.task_id = c.descendant_id " +
+                   "WHERE c.depth > 0) THEN 1 ELSE 0 END", nativeQuery = true)
+    int isConsistent();
+
+    /**
+     * Recomputes all rollups. The completed tasks are read through a derived table, which
+     * MariaDB requires when the updated table appears in a subquery (error 1093).
+     */
+    @Modifying
+    @Query(value = "UPDATE task SET " +
+                   "descendant_count = (SELECT COUNT(*) FROM task_closure c " +
+                   "WHERE c.ancestor_id = task.id AND c.depth > 0), " +
+                   "completed_descendant_count = (SELECT COUNT(*) FROM task_closure c " +
+                   "WHERE c.ancestor_id = task.id AND c.depth > 0 AND c.descendant_id IN " +
+                   "(SELECT d.id FROM (SELECT id FROM task WHERE is_completed = TRUE) d)), " +
+                   "descendant_assignment_count = (SELECT COUNT(*) FROM task_closure c " +
+                   "JOIN task_assignees a ON a.task_id = c.descendant_id " +
+                   "WHERE c.ancestor_id = task.id AND c.depth > 0)", nativeQuery = true)
+    int rebuildAll();
+}
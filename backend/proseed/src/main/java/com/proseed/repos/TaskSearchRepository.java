@@ -0,0 +1,20 @@
+package com.proseed.repos;
+
+import com.proseed.DTOs.TaskFilterDTO;
+
+import java.util.List;
+
+/**
+ * Filtered keyset search over tasks, mixed into TaskRepository.
+ */
+public interface TaskSearchRepository {
+
+    /**
+     * Returns the IDs of the tasks matching the filter with an ID greater than afterId, in ascending order.
+     * @param filter Filters to apply; null fields are ignored.
+     * @param afterId Last ID of the previous page, or null for the first page.
+     * @param limit Maximum number of IDs to return.
+     * @return Matching task IDs.
+     */
+    List<Long> findIdPage(TaskFilterDTO filter, Long afterId, int limit);
+}
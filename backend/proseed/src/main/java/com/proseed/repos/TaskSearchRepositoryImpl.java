@@ -0,0 +1,74 @@
+package com.proseed.repos;
+
+import com.proseed.DTOs.TaskFilterDTO;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the query from the filters that are set only, so every filter can use its index
+ * instead of a catch-all "(:param is null or ...)" predicate.
+ * Each join filters on a single ID and the join tables are keyed by (task, ref), so no task
+ * is returned twice.
+ */
+public class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdPage(TaskFilterDTO filter, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select t.id from Task t");
+        List<String> where = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (filter.getEmployeeId() != null) {
+            jpql.append(" join t.employees e");
+            where.add("e.employeeId = :employeeId");
+            params.put("employeeId", filter.getEmployeeId());
+        }
+        if (filter.getSkillId() != null) {
+            jpql.append(" join t.skills s");
+            where.add("s.id = :skillId");
+            params.put("skillId", filter.getSkillId());
+        }
+        if (filter.getDepartmentId() != null) {
+            jpql.append(" join t.departments d");
+            where.add("d.id = :departmentId");
+            params.put("departmentId", filter.getDepartmentId());
+        }
+        if (filter.getProcessId() != null) {
+            where.add("t.process.id = :processId");
+            params.put("processId", filter.getProcessId());
+        }
+        if (filter.getCompleted() != null) {
+            where.add("t.isCompleted = :completed");
+            params.put("completed", filter.getCompleted());
+        }
+        if (filter.isRootsOnly()) {
+            where.add("t.parentTask is null");
+        } else if (filter.getParentTaskId() != null) {
+            where.add("t.parentTask.id = :parentTaskId");
+            params.put("parentTaskId", filter.getParentTaskId());
+        }
+        if (afterId != null) {
+            where.add("t.id > :afterId");
+            params.put("afterId", afterId);
+        }
+
+        if (!where.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", where));
+        }
+        jpql.append(" order by t.id");
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,19 @@
+package com.proseed.repos;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.proseed.entities.SyncEntityType;
+import com.proseed.entities.Tombstone;
+import com.proseed.entities.TombstoneId;
+
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, TombstoneId> {
+
+    List<Tombstone> findByChangeVersionGreaterThanAndChangeVersionLessThanEqualOrderByChangeVersion(
+        long since, long upTo);
+
+    @Query("select t.entityId from Tombstone t where t.entityType = :type and t.changeVersion > :since")
+    List<Long> findIdsDeletedAfter(@Param("type") SyncEntityType type, @Param("since") long since);
+}
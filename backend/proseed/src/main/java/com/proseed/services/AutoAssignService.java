@@ -0,0 +1,19 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.AutoAssignResultDTO;
+
+import java.util.Optional;
+
+public interface AutoAssignService {
+    /**
+     * Proposes one employee for every open task of a process that has no subtasks and nobody
+     * assigned. An employee qualifies if they have every required skill of the task and, if the
+     * task requires departments, belong to one of them. Among those, the employee with the fewest
+     * open tasks (counting the ones proposed so far) is chosen.
+     *
+     * @param processId The ID of the process
+     * @param apply Also assign the proposed employees, in one transaction
+     * @return The result, or empty if the process does not exist
+     */
+    Optional<AutoAssignResultDTO> autoAssign(Long processId, boolean apply);
+}
@@ -0,0 +1,33 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.CandidateDTO;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface EmployeeMatchingService {
+    /**
+     * Employees who can work on a task, best first: most required skills covered, then fewest
+     * open tasks. If the task requires departments, only employees of one of them qualify; if it
+     * requires skills, only employees with at least one of them.
+     *
+     * @param taskId The ID of the task
+     * @param limit Maximum number of candidates to return
+     * @return The candidates, or empty if the task does not exist
+     */
+    Optional<List<CandidateDTO>> findCandidates(Long taskId, int limit);
+
+    /**
+     * Copy of the index for matching many tasks at once. Bit i of every BitSet stands for
+     * employeeIds[i]; slots that hold no employee are null and not in employees.
+     * Only the skills and departments asked for are copied, and the copy does not follow later changes.
+     */
+    record Snapshot(Long[] employeeIds, int[] openTasks, BitSet employees,
+                    Map<Long, BitSet> employeesBySkill, Map<Long, BitSet> employeesByDepartment) {
+    }
+
+    Snapshot snapshot(Collection<Long> skillIds, Collection<Long> departmentIds);
+}
@@ -1,22 +1,62 @@
 package com.proseed.services;
 
 import com.proseed.DTOs.EmployeeDTO;
+import com.proseed.DTOs.EmployeeFilterDTO;
+import com.proseed.DTOs.EmployeePageDTO;
 import com.proseed.DTOs.EmployeePatchDTO;
+import com.proseed.DTOs.ReassignmentResultDTO;
+import com.proseed.DTOs.SkillReplacementDTO;
+import com.proseed.DTOs.TaskPageDTO;
 import com.proseed.entities.Employee;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface EmployeeService {
-    List<EmployeeDTO> findAll();
+    /**
+     * One page of employees matching the filter, ordered by ID, with department, role and skills
+     * loaded by a fixed number of queries regardless of the page size.
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    EmployeePageDTO findPage(EmployeeFilterDTO filter, String cursor, int limit);
     Optional<EmployeeDTO> findById(Long id);
+    /**
+     * One page of the tasks assigned to an employee, ordered by ID (see TaskService.findPage).
+     * @param processId Only tasks of this process, or null
+     * @param completed Only completed (true) or open (false) tasks, or null
+     * @return empty if the employee does not exist
+     * @throws IllegalArgumentException if the cursor is invalid
+     */
+    Optional<TaskPageDTO> findTasks(Long employeeId, Long processId, Boolean completed, String cursor, int limit);
     Employee create(Employee employee);
-    Optional<Employee> update(Long id, Employee employee);
+    /**
+     * @param expectedVersion Version the client last read (If-Match), or null to skip the check
+     * @throws org.springframework.web.server.ResponseStatusException with 412 if the version differs
+     */
+    Optional<Employee> update(Long id, Employee employee, Long expectedVersion);
     /**
      * Partially update an employee with fields present in the DTO (e.g., firstName/lastName).
+     * @param expectedVersion Version the client last read (If-Match), or null to skip the check
      */
-    Optional<EmployeeDTO> updatePartial(Long id, EmployeePatchDTO patch);
+    Optional<EmployeeDTO> updatePartial(Long id, EmployeePatchDTO patch, Long expectedVersion);
     boolean delete(Long id);
     com.proseed.entities.Department addDepartmentToEmployee(Employee employee, Long departmentId);
     com.proseed.entities.Role addRoleToEmployee(Employee employee, Long roleId);
+    /**
+     * Moves employees to a role and/or department, writing only the foreign keys of those that change.
+     * @param roleId The new role, or null to keep it
+     * @param departmentId The new department, or null to keep it
+     * @throws jakarta.persistence.EntityNotFoundException if the role or department does not exist
+     * @throws IllegalArgumentException if neither is given
+     */
+    ReassignmentResultDTO reassign(Collection<Long> employeeIds, Long roleId, Long departmentId);
     void setSkillsToEmployee(Long employeeId, List<Long> skillIds);
+    /**
+     * Replaces the skills of many employees in one transaction, writing only the links that change.
+     * @param skillIdsByEmployee The complete list of skill IDs per employee ID
+     * @throws jakarta.persistence.EntityNotFoundException if an employee or a skill does not exist
+     */
+    SkillReplacementDTO setSkillsToEmployees(Map<Long, List<Long>> skillIdsByEmployee);
 }
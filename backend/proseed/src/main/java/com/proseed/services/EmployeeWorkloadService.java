@@ -0,0 +1,47 @@
+package com.proseed.services;
+
+import java.util.Collection;
+
+/**
+ * Maintains the open task count stored on every employee: the number of assigned tasks that are
+ * not completed. Like the task rollups it is updated by deltas in the transaction that changes
+ * the assignments or the completion, so reading it never counts rows.
+ *
+ * The methods must be called inside that transaction, before or after the change as documented
+ * per method.
+ */
+public interface EmployeeWorkloadService {
+    /**
+     * Adds the open assignments of the subtree rooted at taskId.
+     * Call once the subtree and its assignments are stored and in the index (after create or assign).
+     */
+    void addSubtree(Long taskId);
+
+    /**
+     * Removes the open assignments of the subtree rooted at taskId.
+     * Call while the subtree and its assignments are still stored (before delete or unassign).
+     */
+    void removeSubtree(Long taskId);
+
+    /**
+     * Removes the open assignments of every task of a process. Call before the tasks are deleted.
+     */
+    void removeProcess(Long processId);
+
+    /**
+     * Call before every task of the subtree rooted at taskId is marked completed (or not):
+     * the assignments of the tasks that change leave (or join) the counts.
+     */
+    void subtreeCompleting(Long taskId, boolean completed);
+
+    /**
+     * Adds delta to the count of each employee, e.g. +1 when one open task is assigned to them.
+     */
+    void adjust(Collection<Long> employeeIds, int delta);
+
+    /**
+     * Recomputes all counts from task_assignees if any of them is off.
+     * @return true if a rebuild was necessary
+     */
+    boolean rebuildIfInconsistent();
+}
@@ -0,0 +1,21 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.ChangeEventDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+public interface EventStreamService {
+    /**
+     * Open a Server-Sent Events stream of committed changes.
+     *
+     * @param processId Only changes of this process, or null for all changes
+     * @return The emitter to return from the controller
+     */
+    SseEmitter subscribe(Long processId);
+
+    /**
+     * Queue committed changes for delivery. Called after the transaction has committed.
+     */
+    void publish(Collection<ChangeEventDTO> events);
+}
@@ -0,0 +1,27 @@
+package com.proseed.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes complete tables as a JSON array straight to an output stream.
+ * Rows are read and written in fixed-size chunks, so memory use does not depend on the
+ * table size and the first chunk is sent before the later ones are read.
+ * The output stream is flushed after every chunk but not closed.
+ */
+public interface ExportService {
+    /**
+     * Write all tasks as TaskDTOs (subtasks as shallow entries), ordered by ID.
+     */
+    void writeTasks(OutputStream out) throws IOException;
+
+    /**
+     * Write all employees as EmployeeDTOs, ordered by ID.
+     */
+    void writeEmployees(OutputStream out) throws IOException;
+
+    /**
+     * Write all processes as ProcessDTOs, ordered by ID.
+     */
+    void writeProcesses(OutputStream out) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.ProcessDashboardDTO;
+
+public interface ProcessDashboardService {
+    /**
+     * Task, completion and staffing figures of every process, ordered by process ID.
+     * The figures are cached and only recomputed for processes changed since the last call.
+     */
+    ProcessDashboardDTO getDashboard();
+}
@@ -0,0 +1,21 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.ProcessDeletionJobDTO;
+
+import java.util.Optional;
+
+public interface ProcessDeletionJobService {
+    /**
+     * Start deleting a process in the background.
+     *
+     * @param processId The ID of the process to delete
+     * @return The queued job, or empty if the process does not exist
+     */
+    Optional<ProcessDeletionJobDTO> submit(Long processId);
+
+    /**
+     * @param jobId The ID returned by submit
+     * @return The current state of the job, or empty if it is unknown or has expired
+     */
+    Optional<ProcessDeletionJobDTO> find(String jobId);
+}
@@ -10,8 +10,22 @@ public interface ProcessService {
     List<ProcessDTO> findAll();
     Optional<ProcessEntity> findById(Long id);
     ProcessEntity create(ProcessEntity process);
-    Optional<ProcessDTO> update(Long id, ProcessEntity updatedProcess);
+    /**
+     * @param expectedVersion Tree version the client last read (If-Match with the ETag or the version
+     *                        of the process), or null to skip the check
+     * @return The updated process; its version is the new tree version
+     * @throws org.springframework.web.server.ResponseStatusException with 412 if the tree version differs
+     */
+    Optional<ProcessDTO> update(Long id, ProcessEntity updatedProcess, Long expectedVersion);
     boolean delete(Long id);
     ProcessDTO getProcessWithTaskIds(Long id);
     ProcessWithTaskInfoDTO getProcessWithTaskInfo(Long id);
+
+    /**
+     * Version of the process and its task tree, changed by every change to either.
+     * Reads only the process row.
+     * @param id The ID of the process.
+     * @return The version, or empty if the process does not exist.
+     */
+    Optional<Long> findTreeVersion(Long id);
 }
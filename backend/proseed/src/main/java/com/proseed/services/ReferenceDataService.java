@@ -0,0 +1,52 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.CacheStatsDTO;
+import com.proseed.DTOs.ReferenceDataDTO;
+import com.proseed.entities.Department;
+import com.proseed.entities.EmployeeSkill;
+import com.proseed.entities.Role;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Departments, roles and skills served from memory. The tables are small and rarely change,
+ * so each is loaded whole on first use and kept until a write through its service evicts it.
+ *
+ * The returned entities are detached copies with only ID and name set. They can be linked to
+ * managed entities (e.g. as a task's skills), but must not be changed or saved; writes go through
+ * DepartmentService, RoleService and SkillService.
+ */
+public interface ReferenceDataService {
+    List<Department> findAllDepartments();
+    Optional<Department> findDepartmentById(Long id);
+    /**
+     * @return the departments with the given IDs, in ID order; unknown IDs are left out
+     */
+    List<Department> findDepartmentsByIds(Collection<Long> ids);
+
+    List<Role> findAllRoles();
+    Optional<Role> findRoleById(Long id);
+
+    List<EmployeeSkill> findAllSkills();
+    Optional<EmployeeSkill> findSkillById(Long id);
+    /**
+     * @return the skills with the given IDs, in ID order; unknown IDs are left out
+     */
+    List<EmployeeSkill> findSkillsByIds(Collection<Long> ids);
+
+    /**
+     * @return all departments, skills and roles with a version derived from their IDs and names
+     */
+    ReferenceDataDTO bundle();
+
+    // Call from the transaction that writes the table: evicts now and again once it has completed,
+    // so neither its own uncommitted rows nor rows read before its commit stay cached.
+
+    void evictDepartments();
+    void evictRoles();
+    void evictSkills();
+
+    List<CacheStatsDTO> stats();
+}
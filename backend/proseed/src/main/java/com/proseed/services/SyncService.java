@@ -0,0 +1,20 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.SyncChangesDTO;
+
+public interface SyncService {
+    /**
+     * Current change version. Every change up to this version is committed and visible.
+     */
+    long currentVersion();
+
+    /**
+     * Tasks, processes and employees changed after the given version, and tombstones of the
+     * ones deleted after it. Entities are returned in their current state, as the list
+     * endpoints return them.
+     *
+     * @param since Version the client is in sync with (0 for everything)
+     * @return The changes and the version to pass as "since" next time
+     */
+    SyncChangesDTO changesSince(long since);
+}
@@ -0,0 +1,20 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.TaskDTO;
+
+import java.util.Optional;
+
+public interface TaskClaimService {
+    /**
+     * Assigns the next task the employee is qualified for to the employee: an open task without
+     * subtasks and without assignees, whose required skills the employee all has and whose
+     * required departments (if any) include the employee's. Concurrent claims never return the
+     * same task.
+     *
+     * @param employeeId The ID of the claiming employee
+     * @param processId Only claim tasks of this process, or null for any process
+     * @return The claimed task, or empty if there is none to claim right now
+     * @throws IllegalArgumentException if the employee does not exist
+     */
+    Optional<TaskDTO> claim(Long employeeId, Long processId);
+}
@@ -0,0 +1,65 @@
+package com.proseed.services;
+
+import com.proseed.DTOs.TaskNodeDTO;
+import com.proseed.entities.Task;
+
+import java.util.List;
+
+/**
+ * Maintains and queries the persisted ancestor/descendant index (task_closure) of the Task hierarchy.
+ * The maintenance methods must be called inside the transaction that changes the hierarchy.
+ */
+public interface TaskHierarchyService {
+    /**
+     * Indexes a newly persisted task and all of its (new) subtasks.
+     * The tasks must already be flushed so their IDs and parent links are in the database.
+     */
+    void registerSubtree(Task root);
+
+    /**
+     * Relinks the subtree rooted at taskId below newParentId (null = make it a top-level task).
+     */
+    void moveSubtree(Long taskId, Long newParentId);
+
+    /**
+     * Removes all index rows of the subtree rooted at taskId.
+     * Call before the tasks themselves are deleted.
+     */
+    void removeSubtree(Long taskId);
+
+    /**
+     * Removes all index rows of the tasks of a process.
+     */
+    void removeProcess(Long processId);
+
+    /**
+     * @return true if ancestorId is a strict ancestor of descendantId
+     */
+    boolean isAncestor(Long ancestorId, Long descendantId);
+
+    /**
+     * @return number of ancestors of the task (0 for top-level tasks), or -1 if the task is unknown
+     */
+    int depthOf(Long taskId);
+
+    List<TaskNodeDTO> findDescendants(Long taskId);
+
+    /**
+     * @return IDs of all tasks below the task, without loading them
+     */
+    List<Long> findDescendantIds(Long taskId);
+
+    /**
+     * @return number of tasks in the subtree rooted at taskId, including the task itself (0 if unknown)
+     */
+    int subtreeSize(Long taskId);
+
+    List<TaskNodeDTO> findAncestors(Long taskId);
+
+    /**
+     * Rebuilds the whole index from task.parent_task_id if it does not cover every task, or if its
+     * direct parent links (depth 1) differ from task.parent_task_id.
+     * @return true if a rebuild was necessary
+     */
+    boolean rebuildIfInconsistent();
+}
@@ -0,0 +1,76 @@
+package com.proseed.services;
+
+import com.proseed.entities.Task;
+
+import java.util.Collection;
+
+/**
+ * Maintains the progress rollups stored on every task: the number of tasks below it, how many
+ * of those are completed, and their employee assignments. Changes are applied as deltas to the
+ * ancestor path found through task_closure, so a subtree is never walked to update them.
+ *
+ * The methods must be called inside the transaction that changes the tree, at the point where
+ * task_closure still (or already) describes the ancestors to update, as documented per method.
+ */
+public interface TaskRollupService {
+    /**
+     * Sets the rollups of a new task and all of its (new) subtasks from the in-memory tree.
+     * Call before the tasks are persisted; their employees must already be assigned.
+     */
+    void initialize(Task root);
+
+    /**
+     * Adds the subtree rooted at taskId to the rollups of its ancestors.
+     * Call once the subtree is in the index below its new parent (after create or attach).
+     */
+    void addToAncestors(Long taskId);
+
+    /**
+     * Removes the subtree rooted at taskId from the rollups of its ancestors.
+     * Call while the subtree is still in the index below its old parent (before delete or detach).
+     */
+    void removeFromAncestors(Long taskId);
+
+    /**
+     * Adds the given deltas to the rollups of the ancestors of taskId, e.g. +1 completed when the
+     * task itself is completed or -1 assignments when one of its employees is unassigned.
+     */
+    void adjustAncestors(Long taskId, int tasks, int completed, int assignments);
+
+    /**
+     * Recomputes the rollups of a task from its direct subtasks and copies them to the entity.
+     * Call when the set of subtasks was replaced; the subtasks' own rollups must be correct.
+     */
+    void recomputeFromSubtasks(Task task);
+
+    /**
+     * After every task of the subtree rooted at taskId was marked completed (or not):
+     * updates the rollups inside the subtree and, by changedTasks, those of its ancestors.
+     */
+    void subtreeCompleted(Long taskId, boolean completed, int changedTasks);
+
+    /**
+     * After every task of the subtree rooted at taskId got the same employeeCount assignees:
+     * updates the rollups inside the subtree and, by assignmentDelta, those of its ancestors.
+     */
+    void subtreeAssigned(Long taskId, int employeeCount, int assignmentDelta);
+
+    /**
+     * After one employee was added to each of the given tasks (each task listed once):
+     * adds the assignments to the rollups of their ancestors, with one statement per chunk of tasks.
+     */
+    void assignmentsAdded(Collection<Long> taskIds);
+
+    /**
+     * Before an employee is removed from every task they are assigned to: subtracts their
+     * assignments from the rollups of the ancestors of those tasks, with one statement.
+     */
+    void employeeUnassigned(Long employeeId);
+
+    /**
+     * Recomputes all rollups from task_closure if they do not add up.
+     * Call once the index itself is consistent.
+     * @return true if a rebuild was necessary
+     */
+    boolean rebuildIfInconsistent();
+}
@@ -1,5 +1,9 @@
 package com.proseed.services;
 
+import com.proseed.DTOs.SubtreeUpdateDTO;
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.DTOs.TaskFilterDTO;
+import com.proseed.DTOs.TaskPageDTO;
 import com.proseed.DTOs.TaskWithEmployeesDTO;
 import com.proseed.entities.Task;
 import java.util.List;
@@ -7,9 +11,26 @@ import java.util.Optional;
 
 public interface TaskService {
     List<Task> findAll();
+
+    /**
+     * List tasks matching the filter, ordered by ID, one page at a time (keyset pagination).
+     *
+     * @param filter Optional filters
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of tasks in the page
+     * @return The page and the cursor of the next page (null when there are no more tasks)
+     * @throws IllegalArgumentException if the cursor is malformed or the filters contradict each other
+     */
+    TaskPageDTO findPage(TaskFilterDTO filter, String cursor, int limit);
     Optional<Task> findById(Long id);
     Task create(Long processId, Task task, Long parentId);
-    Optional<Task> update(Long id, Task task, Long parentId, Long processId);
+    /**
+     * Update a task, its subtasks and its parent and process.
+     * @param expectedVersion Version the client last read (If-Match), or null to skip the check
+     * @throws org.springframework.web.server.ResponseStatusException with 412 if the task's version is not expectedVersion
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the task is changed concurrently
+     */
+    Optional<Task> update(Long id, Task task, Long parentId, Long processId, Long expectedVersion);
     boolean delete(Long id);
     TaskWithEmployeesDTO getTaskWithEmployees(Long id);
     /**
@@ -31,6 +52,51 @@ public interface TaskService {
      */
     Task insertTaskBetween(Long parentTaskId, Long childTaskId, Task newTask);
 
+    /**
+     * Move a task with its whole subtree below another task, or make it a top-level task.
+     * The subtree is relinked with set-based statements; no task is loaded as an entity.
+     *
+     * @param taskId ID of the task to move
+     * @param parentTaskId ID of the new parent, or null to make the task a top-level task
+     * @param processId ID of the target process; may be null, then it is the parent's process
+     *                  (or the current process for a top-level task)
+     * @param expectedVersion Version the client last read (If-Match), or null to skip the check
+     * @return The moved task, or empty if it does not exist
+     * @throws IllegalArgumentException if the parent or process does not exist, the parent is the task
+     *                                  itself or one of its descendants, or processId is not the parent's process
+     * @throws org.springframework.web.server.ResponseStatusException with 412 if the version differs
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the task is changed concurrently
+     */
+    Optional<TaskDTO> move(Long taskId, Long parentTaskId, Long processId, Long expectedVersion);
+
+    /**
+     * Delete a task together with all of its subtasks, using a fixed number of set-based
+     * statements driven by the hierarchy index; no task is loaded as an entity.
+     *
+     * @param taskId ID of the root of the subtree
+     * @return Number of deleted tasks, or empty if the task does not exist
+     */
+    Optional<Integer> deleteSubtree(Long taskId);
+
+    /**
+     * Mark a task and all of its subtasks as completed or not completed, in one statement.
+     *
+     * @param taskId ID of the root of the subtree
+     * @param completed The completion state to set
+     * @return Size of the subtree and number of tasks that changed state, or empty if the task does not exist
+     */
+    Optional<SubtreeUpdateDTO> setSubtreeCompleted(Long taskId, boolean completed);
+
+    /**
+     * Replace the assignees of a task and all of its subtasks with the given employees.
+     *
+     * @param taskId ID of the root of the subtree
+     * @param employeeIds Employees to assign; an empty list removes all assignees
+     * @return Size of the subtree and number of changed tasks, or empty if the task does not exist
+     * @throws IllegalArgumentException if an employee does not exist
+     */
+    Optional<SubtreeUpdateDTO> replaceSubtreeAssignees(Long taskId, List<Long> employeeIds);
+
     /**
      * Save a task entity directly.
      * Used for updating task fields like skills and departments.
@@ -0,0 +1,274 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.AutoAssignResultDTO;
+import com.proseed.DTOs.AutoAssignmentDTO;
+import com.proseed.DTOs.TaskLinkDTO;
+import com.proseed.entities.SyncEntityType;
+import com.proseed.repos.ProcessRepository;
+import com.proseed.repos.TaskRepository;
+import com.proseed.services.AutoAssignService;
+import com.proseed.services.EmployeeMatchingService;
+import com.proseed.services.EmployeeMatchingService.Snapshot;
+import com.proseed.services.EmployeeWorkloadService;
+import com.proseed.services.TaskRollupService;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Staffs the open leaf tasks of a process from a snapshot of the employee matching index.
+ *
+ * The tasks are ordered by their top-level task and solved in parallel on the common ForkJoin
+ * pool, so a fork mostly gets whole branches. The tasks are independent except for the load of
+ * each employee, kept in an AtomicIntegerArray: two threads may occasionally pick the same least
+ * loaded employee, which only costs a little balance.
+ *
+ * Applying writes all assignments as one JDBC batch. Each insert only succeeds if the task is
+ * still an open leaf with nobody assigned, so a task staffed or given subtasks concurrently is
+ * skipped. Only the assignments actually stored reach the rollups and open task counts; if the
+ * driver does not report row counts they are read back.
+ */
+@Service
+public class AutoAssignServiceImpl implements AutoAssignService {
+    // Up to this many tasks are solved by one thread
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_IF_UNSTAFFED =
+        "INSERT INTO task_assignees (task_id, employee_id) SELECT t.id, ? FROM task t WHERE t.id = ? " +
+        "AND t.is_completed = FALSE " +
+        "AND NOT EXISTS (SELECT 1 FROM task s WHERE s.parent_task_id = t.id) " +
+        "AND NOT EXISTS (SELECT 1 FROM task_assignees a WHERE a.task_id = t.id)";
+
+    private final ProcessRepository processRepository;
+    private final TaskRepository taskRepository;
+    private final EmployeeMatchingService matchingService;
+    private final TaskRollupService taskRollupService;
+    private final EmployeeWorkloadService employeeWorkloadService;
+    private final ChangeTracker changeTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    public AutoAssignServiceImpl(ProcessRepository processRepository, TaskRepository taskRepository,
+                                 EmployeeMatchingService matchingService, TaskRollupService taskRollupService,
+                                 EmployeeWorkloadService employeeWorkloadService, ChangeTracker changeTracker,
+                                 JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.processRepository = processRepository;
+        this.taskRepository = taskRepository;
+        this.matchingService = matchingService;
+        this.taskRollupService = taskRollupService;
+        this.employeeWorkloadService = employeeWorkloadService;
+        this.changeTracker = changeTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Optional<AutoAssignResultDTO> autoAssign(Long processId, boolean apply) {
+        if (processId == null || !processRepository.existsById(processId)) {
+            return Optional.empty();
+        }
+        List<TaskLinkDTO> leaves = new ArrayList<>(taskRepository.findUnstaffedLeafLinks(processId));
+        leaves.sort(Comparator.comparing(TaskLinkDTO::getRefId).thenComparing(TaskLinkDTO::getTaskId));
+
+        Set<Long> leafIds = new LinkedHashSet<>();
+        leaves.forEach(leaf -> leafIds.add(leaf.getTaskId()));
+        Map<Long, List<Long>> skillsByTask = refIdsByTask(taskRepository.findSkillLinksByProcessId(processId), leafIds);
+        Map<Long, List<Long>> departmentsByTask =
+            refIdsByTask(taskRepository.findDepartmentLinksByProcessId(processId), leafIds);
+        Set<Long> skillIds = new LinkedHashSet<>();
+        skillsByTask.values().forEach(skillIds::addAll);
+        Set<Long> departmentIds = new LinkedHashSet<>();
+        departmentsByTask.values().forEach(departmentIds::addAll);
+
+        Solver solver = new Solver(matchingService.snapshot(skillIds, departmentIds), leaves.size());
+        for (int i = 0; i < leaves.size(); i++) {
+            Long taskId = leaves.get(i).getTaskId();
+            solver.skills[i] = skillsByTask.getOrDefault(taskId, List.of());
+            solver.departments[i] = departmentsByTask.getOrDefault(taskId, List.of());
+        }
+        ForkJoinPool.commonPool().invoke(solver.new Range(0, leaves.size()));
+
+        List<AutoAssignmentDTO> assignments = new ArrayList<>();
+        List<Long> unmatched = new ArrayList<>();
+        for (int i = 0; i < leaves.size(); i++) {
+            Long taskId = leaves.get(i).getTaskId();
+            if (solver.chosen[i] < 0) {
+                unmatched.add(taskId);
+            } else {
+                assignments.add(new AutoAssignmentDTO(taskId, solver.snapshot.employeeIds()[solver.chosen[i]]));
+            }
+        }
+        assignments.sort(Comparator.comparing(AutoAssignmentDTO::getTaskId));
+        unmatched.sort(Comparator.naturalOrder());
+
+        List<AutoAssignmentDTO> result = apply && !assignments.isEmpty()
+            ? tx.execute(status -> applyAssignments(processId, assignments))
+            : assignments;
+        return Optional.of(new AutoAssignResultDTO(processId, apply, leaves.size(), result, unmatched));
+    }
+
+    private List<AutoAssignmentDTO> applyAssignments(Long processId, List<AutoAssignmentDTO> proposed) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_UNSTAFFED, proposed, BATCH_SIZE, (ps, assignment) -> {
+            ps.setLong(1, assignment.getEmployeeId());
+            ps.setLong(2, assignment.getTaskId());
+        });
+        List<AutoAssignmentDTO> applied = new ArrayList<>();
+        boolean countsKnown = true;
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 1) {
+                    applied.add(proposed.get(i));
+                } else if (count != 0) {
+                    countsKnown = false;
+                }
+                i++;
+            }
+        }
+        if (!countsKnown) {
+            // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count: read back which
+            // of the proposed assignments exist
+            applied = findStored(proposed);
+        }
+
+        List<Long> taskIds = applied.stream().map(AutoAssignmentDTO::getTaskId).toList();
+        long version = changeTracker.currentVersion();
+        for (int from = 0; from < taskIds.size(); from += BATCH_SIZE) {
+            taskRepository.touchAll(taskIds.subList(from, Math.min(from + BATCH_SIZE, taskIds.size())), version);
+        }
+        taskRollupService.assignmentsAdded(taskIds);
+        // The inserts only staff open tasks, so each applied assignment is one more open task of its employee
+        Map<Long, Integer> addedByEmployee = new HashMap<>();
+        applied.forEach(assignment -> addedByEmployee.merge(assignment.getEmployeeId(), 1, Integer::sum));
+        Map<Integer, List<Long>> employeesByAdded = new HashMap<>();
+        addedByEmployee.forEach((employeeId, added) ->
+            employeesByAdded.computeIfAbsent(added, n -> new ArrayList<>()).add(employeeId));
+        employeesByAdded.forEach((added, employeeIds) -> employeeWorkloadService.adjust(employeeIds, added));
+        for (Long taskId : taskIds) {
+            changeTracker.recordChange(SyncEntityType.TASK, taskId, processId);
+        }
+        return applied;
+    }
+
+    /**
+     * The proposed assignments that are stored, with one select per chunk of tasks.
+     */
+    private List<AutoAssignmentDTO> findStored(List<AutoAssignmentDTO> proposed) {
+        Set<String> stored = new HashSet<>();
+        for (int from = 0; from < proposed.size(); from += BATCH_SIZE) {
+            List<Long> chunk = proposed.subList(from, Math.min(from + BATCH_SIZE, proposed.size())).stream()
+                .map(AutoAssignmentDTO::getTaskId).toList();
+            taskRepository.findAssigneeLinksByTaskIds(chunk)
+                .forEach(link -> stored.add(link.getTaskId() + ":" + link.getRefId()));
+        }
+        return proposed.stream()
+            .filter(assignment -> stored.contains(assignment.getTaskId() + ":" + assignment.getEmployeeId()))
+            .toList();
+    }
+
+    private static Map<Long, List<Long>> refIdsByTask(List<TaskLinkDTO> links, Set<Long> taskIds) {
+        Map<Long, List<Long>> byTask = new HashMap<>();
+        for (TaskLinkDTO link : links) {
+            if (taskIds.contains(link.getTaskId())) {
+                byTask.computeIfAbsent(link.getTaskId(), id -> new ArrayList<>()).add(link.getRefId());
+            }
+        }
+        return byTask;
+    }
+
+    /**
+     * Matching state of one run. Each task index is written by exactly one thread.
+     */
+    private static final class Solver {
+        private final Snapshot snapshot;
+        private final AtomicIntegerArray load;
+        private final List<Long>[] skills;
+        private final List<Long>[] departments;
+        // Chosen slot per task, -1 if nobody qualifies
+        private final int[] chosen;
+
+        @SuppressWarnings("unchecked")
+        private Solver(Snapshot snapshot, int tasks) {
+            this.snapshot = snapshot;
+            this.load = new AtomicIntegerArray(snapshot.openTasks());
+            this.skills = new List[tasks];
+            this.departments = new List[tasks];
+            this.chosen = new int[tasks];
+        }
+
+        private void solve(int task) {
+            BitSet qualified;
+            if (departments[task].isEmpty()) {
+                qualified = (BitSet) snapshot.employees().clone();
+            } else {
+                qualified = new BitSet();
+                for (Long departmentId : departments[task]) {
+                    BitSet members = snapshot.employeesByDepartment().get(departmentId);
+                    if (members != null) {
+                        qualified.or(members);
+                    }
+                }
+            }
+            for (Long skillId : skills[task]) {
+                BitSet holders = snapshot.employeesBySkill().get(skillId);
+                if (holders == null) {
+                    qualified.clear();
+                    break;
+                }
+                qualified.and(holders);
+            }
+
+            int best = -1;
+            int bestLoad = Integer.MAX_VALUE;
+            for (int slot = qualified.nextSetBit(0); slot >= 0; slot = qualified.nextSetBit(slot + 1)) {
+                int slotLoad = load.get(slot);
+                if (slotLoad < bestLoad) {
+                    best = slot;
+                    bestLoad = slotLoad;
+                }
+            }
+            if (best >= 0) {
+                load.incrementAndGet(best);
+            }
+            chosen[task] = best;
+        }
+
+        private final class Range extends RecursiveAction {
+            private final int from;
+            private final int to;
+
+            private Range(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= SEQUENTIAL_THRESHOLD) {
+                    for (int task = from; task < to; task++) {
+                        solve(task);
+                    }
+                    return;
+                }
+                int mid = (from + to) >>> 1;
+                invokeAll(new Range(from, mid), new Range(mid, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.ChangeEventDTO;
+import com.proseed.entities.ChangeTracked;
+import com.proseed.entities.SyncEntityType;
+import com.proseed.services.EventStreamService;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Hands out change versions for the delta sync endpoint.
+ *
+ * Every writing transaction gets one version, allocated on its first change and shared by all
+ * rows it stamps. Versions come from an in-memory counter seeded from the highest stored version
+ * on first use, so allocation never touches the database (this assumes a single application
+ * instance per database).
+ *
+ * Transactions do not commit in version order, so a client must not be told about version N
+ * while a transaction holding a lower version can still commit. {@link #safeVersion()} is
+ * therefore the highest version below every version still in flight.
+ *
+ * The entities changed by a transaction are collected as well and handed to the
+ * EventStreamService once the transaction has committed.
+ *
+ * Every change of a process or of one of its tasks also sets the tree version of the process
+ * (process_entity.tree_version) to the change version, which the process read endpoints use as
+ * their ETag. A transaction writes its version to a process at most once and versions are never
+ * reused, so a tree version never returns to an earlier value.
+ */
+@Component
+public class ChangeTracker {
+    private static final int MAX_IN_LIST = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventStreamService eventStreamService;
+
+    // Guarded by this
+    private long lastVersion = -1;
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+
+    public ChangeTracker(JdbcTemplate jdbcTemplate, EventStreamService eventStreamService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventStreamService = eventStreamService;
+    }
+
+    /**
+     * Change version of the current transaction, allocated on the first call within it.
+     * Bulk statements that bypass the entity listener set change_version to this value.
+     */
+    public long currentVersion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return allocate(false);
+        }
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes != null) {
+            return changes.version;
+        }
+        TransactionChanges created = new TransactionChanges(allocate(true));
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTracker.this);
+                release(created.version);
+                if (status == STATUS_COMMITTED && !created.events.isEmpty()) {
+                    eventStreamService.publish(created.events.values());
+                }
+            }
+        });
+        return created.version;
+    }
+
+    /**
+     * Marks an entity as changed in the current transaction, for changes Hibernate does not see
+     * as an update of the entity's own row (e.g. a join table or the children of a task).
+     */
+    public void touch(ChangeTracked entity) {
+        if (entity != null) {
+            entity.setChangeVersion(currentVersion());
+        }
+    }
+
+    /**
+     * Records that an entity was created or updated in the current transaction, for the event stream.
+     * Bulk statements that bypass the entity listener call this for the rows they change.
+     */
+    public void recordChange(SyncEntityType type, Long id, Long processId) {
+        touchProcessTree(processId);
+        long version = currentVersion();
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes != null) {
+            // Within one transaction a deletion wins over earlier or later updates
+            changes.events.merge(type + ":" + id, new ChangeEventDTO(type, id, processId, false, version),
+                (previous, next) -> previous.isDeleted() ? previous : next);
+        }
+    }
+
+    /**
+     * Records a tombstone for a deleted entity, in the current transaction.
+     */
+    public void recordDeletion(SyncEntityType type, Long id, Long processId) {
+        recordDeletions(type, List.of(id), processId);
+    }
+
+    /**
+     * Records tombstones for entities of one process removed together, e.g. by a bulk delete.
+     * The tombstones are written as one JDBC batch.
+     */
+    public void recordDeletions(SyncEntityType type, Collection<Long> ids, Long processId) {
+        touchProcessTree(processId);
+        long version = currentVersion();
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        List<Object[]> tombstones = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            if (changes != null) {
+                ChangeEventDTO previous = changes.events.put(type + ":" + id,
+                    new ChangeEventDTO(type, id, processId, true, version));
+                // Cascaded and orphan removals can report the same entity twice
+                if (previous != null && previous.isDeleted()) {
+                    continue;
+                }
+            }
+            tombstones.add(new Object[] {type.name(), id, version});
+        }
+        if (!tombstones.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO change_tombstone (entity_type, entity_id, change_version) VALUES (?, ?, ?)",
+                tombstones);
+        }
+    }
+
+    /**
+     * Sets the tree version of a process to the current change version, once per transaction.
+     * Written with plain SQL, so it can run while Hibernate flushes. For a process inserted in the
+     * same flush the update may find no row yet; the insert then sets the version itself.
+     */
+    public void touchProcessTree(Long processId) {
+        if (processId == null) {
+            return;
+        }
+        long version = currentVersion();
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes != null && !changes.touchedTrees.add(processId)) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE process_entity SET tree_version = ? WHERE id = ?", version, processId);
+    }
+
+    /**
+     * Sets the tree version of the given processes, with one statement per chunk for those not yet
+     * touched in this transaction. Later calls of recordChange for tasks of these processes then
+     * need no statement of their own.
+     */
+    public void touchProcessTrees(Collection<Long> processIds) {
+        long version = currentVersion();
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        List<Long> untouched = new ArrayList<>();
+        for (Long processId : new HashSet<>(processIds)) {
+            if (processId != null && (changes == null || changes.touchedTrees.add(processId))) {
+                untouched.add(processId);
+            }
+        }
+        for (int from = 0; from < untouched.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = untouched.subList(from, Math.min(from + MAX_IN_LIST, untouched.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(version);
+            args.addAll(chunk);
+            jdbcTemplate.update("UPDATE process_entity SET tree_version = ? WHERE id IN (" + placeholders + ")",
+                args.toArray());
+        }
+    }
+
+    /**
+     * Sets the tree version of every process with a task requiring the skill, e.g. after a rename.
+     */
+    public void touchProcessTreesUsingSkill(Long skillId) {
+        jdbcTemplate.update(
+            "UPDATE process_entity SET tree_version = ? WHERE id IN ("
+                + "SELECT t.process_id FROM task t JOIN task_skills_mapping m ON m.task_id = t.id WHERE m.skill_id = ?)",
+            currentVersion(), skillId);
+    }
+
+    /**
+     * Sets the tree version of every process with a task linked to the department, e.g. after a rename.
+     */
+    public void touchProcessTreesUsingDepartment(Long departmentId) {
+        jdbcTemplate.update(
+            "UPDATE process_entity SET tree_version = ? WHERE id IN ("
+                + "SELECT t.process_id FROM task t JOIN task_departments_mapping m ON m.task_id = t.id WHERE m.department_id = ?)",
+            currentVersion(), departmentId);
+    }
+
+    /**
+     * Highest version up to which every change is committed and visible.
+     */
+    public synchronized long safeVersion() {
+        seedIfNeeded();
+        return inFlight.isEmpty() ? lastVersion : inFlight.first() - 1;
+    }
+
+    private synchronized long allocate(boolean track) {
+        seedIfNeeded();
+        long version = ++lastVersion;
+        if (track) {
+            inFlight.add(version);
+        }
+        return version;
+    }
+
+    private synchronized void release(long version) {
+        inFlight.remove(version);
+    }
+
+    private void seedIfNeeded() {
+        if (lastVersion >= 0) {
+            return;
+        }
+        long max = 0;
+        for (String table : new String[] {"task", "process_entity", "employee", "change_tombstone"}) {
+            Long tableMax = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(change_version), 0) FROM " + table, Long.class);
+            max = Math.max(max, tableMax != null ? tableMax : 0);
+        }
+        lastVersion = max;
+    }
+
+    private static class TransactionChanges {
+        private final long version;
+        // Changed entities keyed by "TYPE:id", in the order of their first change
+        private final Map<String, ChangeEventDTO> events = new LinkedHashMap<>();
+        // Processes whose tree version has been set in this transaction
+        private final Set<Long> touchedTrees = new HashSet<>();
+
+        private TransactionChanges(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.proseed.services.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Page cursors of the keyset-paged listings (tasks, employees).
+ * A cursor is the last ID of a page, kept opaque so the paging key can change later.
+ */
+final class Cursors {
+    private Cursors() {
+    }
+
+    /**
+     * Encodes the last ID of a page as the cursor of the next page.
+     */
+    static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The last ID of the previous page, or null for the first page (no cursor)
+     * @throws IllegalArgumentException if the cursor was not made by {@link #encode(Long)}
+     */
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.proseed.services.impl;
 import com.proseed.entities.Department;
 import com.proseed.repos.DepartmentRepository;
 import com.proseed.services.DepartmentService;
+import com.proseed.services.ReferenceDataService;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -16,24 +17,30 @@ import java.util.Optional;
 @Service
 public class DepartmentServiceImpl implements DepartmentService {
     private final DepartmentRepository repository;
+    private final ChangeTracker changeTracker;
+    private final ReferenceDataService referenceDataService;
 
-    public DepartmentServiceImpl(DepartmentRepository repository) {
+    public DepartmentServiceImpl(DepartmentRepository repository, ChangeTracker changeTracker,
+                                 ReferenceDataService referenceDataService) {
         this.repository = repository;
+        this.changeTracker = changeTracker;
+        this.referenceDataService = referenceDataService;
     }
 
     @Override
     public List<Department> findAll() {
-        return repository.findAll();
+        return referenceDataService.findAllDepartments();
     }
 
     @Override
     public Optional<Department> findById(Long id) {
-        return repository.findById(id);
+        return referenceDataService.findDepartmentById(id);
     }
 
     @Override
     @Transactional
     public Department create(Department department) {
+        referenceDataService.evictDepartments();
         return repository.save(department);
     }
 
@@ -52,6 +59,9 @@ public class DepartmentServiceImpl implements DepartmentService {
         }
         return repository.findById(id).map(existing -> {
             existing.setName(updated.getName());
+            referenceDataService.evictDepartments();
+            // Task trees include department names
+            changeTracker.touchProcessTreesUsingDepartment(id);
             return repository.save(existing);
         });
     }
@@ -71,6 +81,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         Department department = repository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Department not found with id: " + id));
 
+        referenceDataService.evictDepartments();
         repository.delete(department);
         try {
             repository.flush();
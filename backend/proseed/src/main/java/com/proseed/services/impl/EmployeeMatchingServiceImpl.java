@@ -0,0 +1,267 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.CandidateDTO;
+import com.proseed.DTOs.TaskLinkDTO;
+import com.proseed.entities.SyncEntityType;
+import com.proseed.repos.EmployeeMatchingRepository;
+import com.proseed.repos.EmployeeMatchingRepository.EmployeeRow;
+import com.proseed.repos.EmployeeMatchingRepository.SkillLink;
+import com.proseed.repos.EmployeeRepository;
+import com.proseed.repos.TaskRepository;
+import com.proseed.repos.TombstoneRepository;
+import com.proseed.services.EmployeeMatchingService;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Matches employees to tasks with an in-memory index.
+ *
+ * Every employee gets a slot number; for each skill and each department the index holds a
+ * BitSet of the slots of its employees, so the candidates of a task are found with a few bitwise
+ * operations instead of a query over the mapping tables. Slots of deleted employees are reused.
+ *
+ * The index is stamped with the change version it was built at and brought up to date on use,
+ * like the process dashboard: employees whose change version is newer are indexed again and
+ * employees with a newer tombstone are dropped. Every change to an employee's skills or
+ * department stamps the employee (including skill deletion), and so does every change of their
+ * open task count (EmployeeWorkloadService), so nothing else needs to notify the index.
+ */
+@Service
+public class EmployeeMatchingServiceImpl implements EmployeeMatchingService {
+    // Above this many changed employees a full rebuild is cheaper than a long IN list
+    private static final int MAX_PARTIAL_REFRESH = 1000;
+
+    private final ChangeTracker changeTracker;
+    private final EmployeeMatchingRepository matchingRepository;
+    private final EmployeeRepository employeeRepository;
+    private final TaskRepository taskRepository;
+    private final TombstoneRepository tombstoneRepository;
+
+    // Guarded by this
+    private long indexVersion = -1;
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    // Indexed employee per slot, null for a free slot
+    private final List<IndexedEmployee> slots = new ArrayList<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet occupied = new BitSet();
+    private final Map<Long, BitSet> slotsBySkill = new HashMap<>();
+    private final Map<Long, BitSet> slotsByDepartment = new HashMap<>();
+
+    public EmployeeMatchingServiceImpl(ChangeTracker changeTracker, EmployeeMatchingRepository matchingRepository,
+                                       EmployeeRepository employeeRepository, TaskRepository taskRepository,
+                                       TombstoneRepository tombstoneRepository) {
+        this.changeTracker = changeTracker;
+        this.matchingRepository = matchingRepository;
+        this.employeeRepository = employeeRepository;
+        this.taskRepository = taskRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    @Override
+    public Optional<List<CandidateDTO>> findCandidates(Long taskId, int limit) {
+        if (taskId == null || !taskRepository.existsById(taskId)) {
+            return Optional.empty();
+        }
+        List<Long> taskIds = List.of(taskId);
+        Set<Long> skillIds = refIds(taskRepository.findSkillLinksByTaskIds(taskIds));
+        Set<Long> departmentIds = refIds(taskRepository.findDepartmentLinksByTaskIds(taskIds));
+        return Optional.of(rank(skillIds, departmentIds, limit));
+    }
+
+    @Override
+    public synchronized Snapshot snapshot(Collection<Long> skillIds, Collection<Long> departmentIds) {
+        refresh();
+        Long[] employeeIds = new Long[slots.size()];
+        int[] openTasks = new int[slots.size()];
+        for (int slot = occupied.nextSetBit(0); slot >= 0; slot = occupied.nextSetBit(slot + 1)) {
+            employeeIds[slot] = slots.get(slot).id();
+            openTasks[slot] = slots.get(slot).openTasks();
+        }
+        return new Snapshot(employeeIds, openTasks, (BitSet) occupied.clone(),
+            copy(slotsBySkill, skillIds), copy(slotsByDepartment, departmentIds));
+    }
+
+    private static Map<Long, BitSet> copy(Map<Long, BitSet> index, Collection<Long> keys) {
+        Map<Long, BitSet> copy = new HashMap<>();
+        for (Long key : keys) {
+            BitSet bits = index.get(key);
+            if (bits != null) {
+                copy.put(key, (BitSet) bits.clone());
+            }
+        }
+        return copy;
+    }
+
+    private synchronized List<CandidateDTO> rank(Set<Long> skillIds, Set<Long> departmentIds, int limit) {
+        refresh();
+
+        BitSet eligible;
+        if (departmentIds.isEmpty()) {
+            eligible = (BitSet) occupied.clone();
+        } else {
+            eligible = new BitSet();
+            for (Long departmentId : departmentIds) {
+                BitSet members = slotsByDepartment.get(departmentId);
+                if (members != null) {
+                    eligible.or(members);
+                }
+            }
+        }
+
+        int[] matched = new int[slots.size()];
+        BitSet candidates;
+        if (skillIds.isEmpty()) {
+            candidates = eligible;
+        } else {
+            candidates = new BitSet();
+            for (Long skillId : skillIds) {
+                BitSet holders = slotsBySkill.get(skillId);
+                if (holders == null) {
+                    continue;
+                }
+                BitSet eligibleHolders = (BitSet) holders.clone();
+                eligibleHolders.and(eligible);
+                for (int slot = eligibleHolders.nextSetBit(0); slot >= 0; slot = eligibleHolders.nextSetBit(slot + 1)) {
+                    matched[slot]++;
+                }
+                candidates.or(eligibleHolders);
+            }
+        }
+
+        // Best first: more matched skills, then fewer open tasks, then lower ID
+        Comparator<Integer> ranking = Comparator
+            .<Integer>comparingInt(slot -> -matched[slot])
+            .thenComparingInt(slot -> slots.get(slot).openTasks())
+            .thenComparing(slot -> slots.get(slot).id());
+        // Keeps the best `limit` candidates; the head is the worst of them
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            best.add(slot);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+
+        int required = skillIds.size();
+        List<CandidateDTO> result = new ArrayList<>(ranked.size());
+        for (int slot : ranked) {
+            IndexedEmployee employee = slots.get(slot);
+            int matchedSkills = required == 0 ? 0 : matched[slot];
+            double coverage = required == 0 ? 1.0 : (double) matchedSkills / required;
+            result.add(new CandidateDTO(employee.id(), employee.firstName(), employee.lastName(),
+                employee.departmentId(), matchedSkills, required, coverage, employee.openTasks()));
+        }
+        return result;
+    }
+
+    /**
+     * Brings the index up to the safe version. Not transactional: every query reads the latest
+     * committed state, and changes newer than the safe version are read again next time.
+     */
+    private void refresh() {
+        long version = changeTracker.safeVersion();
+        if (version == indexVersion) {
+            return;
+        }
+        List<Long> changed = indexVersion < 0 ? null : employeeRepository.findIdsChangedBetween(indexVersion, version);
+        if (changed == null || changed.size() > MAX_PARTIAL_REFRESH) {
+            clear();
+            index(matchingRepository.findAllRows(), matchingRepository.findAllSkillLinks());
+        } else {
+            tombstoneRepository.findIdsDeletedAfter(SyncEntityType.EMPLOYEE, indexVersion).forEach(this::remove);
+            if (!changed.isEmpty()) {
+                changed.forEach(this::remove);
+                index(matchingRepository.findRowsByIds(changed), matchingRepository.findSkillLinksByEmployeeIds(changed));
+            }
+        }
+        indexVersion = version;
+    }
+
+    private void index(List<EmployeeRow> rows, List<SkillLink> skillLinks) {
+        Map<Long, List<Long>> skillsByEmployee = new HashMap<>();
+        for (SkillLink link : skillLinks) {
+            skillsByEmployee.computeIfAbsent(link.getEmployeeId(), id -> new ArrayList<>()).add(link.getSkillId());
+        }
+        for (EmployeeRow row : rows) {
+            IndexedEmployee employee = new IndexedEmployee(row.getId(), row.getFirstName(), row.getLastName(),
+                row.getDepartmentId(), row.getOpenTaskCount(), skillsByEmployee.getOrDefault(row.getId(), List.of()));
+            int slot;
+            if (freeSlots.isEmpty()) {
+                slot = slots.size();
+                slots.add(employee);
+            } else {
+                slot = freeSlots.pop();
+                slots.set(slot, employee);
+            }
+            slotsById.put(employee.id(), slot);
+            occupied.set(slot);
+            for (Long skillId : employee.skillIds()) {
+                slotsBySkill.computeIfAbsent(skillId, id -> new BitSet()).set(slot);
+            }
+            if (employee.departmentId() != null) {
+                slotsByDepartment.computeIfAbsent(employee.departmentId(), id -> new BitSet()).set(slot);
+            }
+        }
+    }
+
+    private void remove(Long employeeId) {
+        Integer slot = slotsById.remove(employeeId);
+        if (slot == null) {
+            return;
+        }
+        IndexedEmployee employee = slots.set(slot, null);
+        occupied.clear(slot);
+        freeSlots.push(slot);
+        for (Long skillId : employee.skillIds()) {
+            clearBit(slotsBySkill, skillId, slot);
+        }
+        if (employee.departmentId() != null) {
+            clearBit(slotsByDepartment, employee.departmentId(), slot);
+        }
+    }
+
+    private static void clearBit(Map<Long, BitSet> index, Long key, int slot) {
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(slot);
+            // Drops the entries of deleted skills and departments
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void clear() {
+        slotsById.clear();
+        slots.clear();
+        freeSlots.clear();
+        occupied.clear();
+        slotsBySkill.clear();
+        slotsByDepartment.clear();
+    }
+
+    private static Set<Long> refIds(Collection<TaskLinkDTO> links) {
+        Set<Long> ids = new LinkedHashSet<>();
+        links.forEach(link -> ids.add(link.getRefId()));
+        return ids;
+    }
+
+    private record IndexedEmployee(Long id, String firstName, String lastName, Long departmentId,
+                                   int openTasks, List<Long> skillIds) {
+    }
+}
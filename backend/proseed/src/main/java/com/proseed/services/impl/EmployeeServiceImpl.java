@@ -1,62 +1,116 @@
 package com.proseed.services.impl;
 
 import com.proseed.DTOs.EmployeeDTO;
+import com.proseed.DTOs.EmployeeFilterDTO;
+import com.proseed.DTOs.EmployeePageDTO;
 import com.proseed.DTOs.EmployeePatchDTO;
 import com.proseed.DTOs.Mappers.EmployeeMapper;
+import com.proseed.DTOs.ReassignmentResultDTO;
+import com.proseed.DTOs.SkillReplacementDTO;
+import com.proseed.DTOs.TaskFilterDTO;
+import com.proseed.DTOs.TaskLinkDTO;
+import com.proseed.DTOs.TaskPageDTO;
 import com.proseed.entities.Employee;
-import com.proseed.entities.EmployeeSkill;
-import com.proseed.repos.DepartmentRepository;
+import com.proseed.entities.SyncEntityType;
+import com.proseed.repos.EmployeeMatchingRepository;
+import com.proseed.repos.EmployeeMatchingRepository.SkillLink;
 import com.proseed.repos.EmployeeRepository;
-import com.proseed.repos.EmployeeSkillRepository;
 import com.proseed.entities.Role;
-import com.proseed.repos.RoleRepository;
 import com.proseed.services.EmployeeService;
-import com.proseed.entities.Task;
+import com.proseed.services.ReferenceDataService;
+import com.proseed.services.TaskRollupService;
+import com.proseed.services.TaskService;
 import com.proseed.repos.TaskRepository;
 import com.proseed.entities.Department;
 
 import jakarta.persistence.EntityNotFoundException;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
+    private static final int CHUNK_SIZE = 1000;
+    private static final String INSERT_SKILL_LINK =
+        "INSERT INTO employee_skills_mapping (employee_id, skill_id) VALUES (?, ?)";
+    private static final String DELETE_SKILL_LINK =
+        "DELETE FROM employee_skills_mapping WHERE employee_id = ? AND skill_id = ?";
+
     private final EmployeeRepository repository;
     private final TaskRepository taskRepository;
-    private final EmployeeSkillRepository employeeSkillRepository;
-    private final DepartmentRepository departmentRepository;
-    private final RoleRepository roleRepository;
+    private final ReferenceDataService referenceDataService;
+    private final ChangeTracker changeTracker;
+    private final TaskRollupService taskRollupService;
+    private final TaskService taskService;
+    private final EmployeeMatchingRepository matchingRepository;
+    private final JdbcTemplate jdbcTemplate;
 
     public EmployeeServiceImpl(EmployeeRepository repository,
                                 TaskRepository taskRepository,
-                                EmployeeSkillRepository employeeSkillRepository,
-                                DepartmentRepository departmentRepository,
-                                RoleRepository roleRepository) {
+                                ReferenceDataService referenceDataService,
+                                ChangeTracker changeTracker,
+                                TaskRollupService taskRollupService,
+                                TaskService taskService,
+                                EmployeeMatchingRepository matchingRepository,
+                                JdbcTemplate jdbcTemplate) {
         this.repository = repository;
         this.taskRepository = taskRepository;
-        this.employeeSkillRepository = employeeSkillRepository;
-        this.departmentRepository = departmentRepository;
-        this.roleRepository = roleRepository;
+        this.referenceDataService = referenceDataService;
+        this.changeTracker = changeTracker;
+        this.taskRollupService = taskRollupService;
+        this.taskService = taskService;
+        this.matchingRepository = matchingRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
-    public List<EmployeeDTO> findAll() {
-        return repository.findAll().stream()
+    @Transactional(readOnly = true)
+    public EmployeePageDTO findPage(EmployeeFilterDTO filter, String cursor, int limit) {
+        // Fetch one extra ID to know whether another page follows
+        List<Long> ids = repository.findIdPage(filter, Cursors.decode(cursor), limit + 1);
+        String nextCursor = null;
+        if (ids.size() > limit) {
+            ids = ids.subList(0, limit);
+            nextCursor = Cursors.encode(ids.get(limit - 1));
+        }
+        // Department, role and skills come with the same query, so nothing is loaded lazily per employee
+        List<EmployeeDTO> employees = ids.isEmpty() ? List.of() : repository.findWithDetailsByIds(ids).stream()
             .map(EmployeeMapper::toEmployeeDTO)
-            .collect(java.util.stream.Collectors.toList());
+            .toList();
+        return new EmployeePageDTO(employees, nextCursor);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<EmployeeDTO> findById(Long id) {
-        return repository.findById(id)
+        return repository.findWithDetailsByIds(List.of(id)).stream()
+            .findFirst()
             .map(EmployeeMapper::toEmployeeDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TaskPageDTO> findTasks(Long employeeId, Long processId, Boolean completed, String cursor, int limit) {
+        if (!repository.existsById(employeeId)) {
+            return Optional.empty();
+        }
+        TaskFilterDTO filter = new TaskFilterDTO(processId, completed, null, false, employeeId, null, null);
+        return Optional.of(taskService.findPage(filter, cursor, limit));
+    }
+
     @Override
     @Transactional
     public Employee create(Employee employee) {
@@ -65,11 +119,13 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     @Override
     @Transactional
-    public Optional<Employee> update(Long id, Employee employee) {
+    public Optional<Employee> update(Long id, Employee employee, Long expectedVersion) {
         return repository.findById(id).map(existing -> {
+            checkVersion(existing, expectedVersion);
             existing.setFirstName(employee.getFirstName());
             existing.setLastName(employee.getLastName());
-            return repository.save(existing);
+            // Flushed, so the returned version is the new one
+            return repository.saveAndFlush(existing);
         });
     }
 
@@ -78,30 +134,44 @@ public class EmployeeServiceImpl implements EmployeeService {
      * Only non-null fields in the provided EmployeeDTO will be updated.
      * @param id The ID of the employee to update.
      * @param patch An EmployeeDTO containing the fields to update.
+     * @param expectedVersion Version the client last read (If-Match), or null to skip the check.
      * @return An Optional containing the updated EmployeeDTO, or empty if not found.
      * @throws EntityNotFoundException if a field cannot be found in the database.
      */
     @Override
     @Transactional
-    public Optional<EmployeeDTO> updatePartial(Long id, EmployeePatchDTO patch) {
+    public Optional<EmployeeDTO> updatePartial(Long id, EmployeePatchDTO patch, Long expectedVersion) {
         if (id == null || patch == null) {
             throw new IllegalArgumentException("ID and patch data must not be null");
         }
         return repository.findById(id).map(existing -> {
+            checkVersion(existing, expectedVersion);
             if (patch.getFirstName() != null) existing.setFirstName(patch.getFirstName());
             if (patch.getLastName() != null) existing.setLastName(patch.getLastName());
             if (patch.getDepartmentId() != null) addDepartmentToEmployee(existing, patch.getDepartmentId());
             if (patch.getRoleId() != null) addRoleToEmployee(existing, patch.getRoleId());
-            if (patch.getSkillIds() != null) {
-                setSkillsToEmployee(existing.getEmployeeId(), patch.getSkillIds());
+            if (patch.getSkillIds() != null
+                    && !replaceSkillLinks(Map.of(existing.getEmployeeId(), patch.getSkillIds())).changed().isEmpty()) {
+                // The links are written with plain SQL; the flush below bumps the version of the touched entity
+                changeTracker.touch(existing);
             }
-            Employee saved = repository.save(existing);
+            Employee saved = repository.saveAndFlush(existing);
             return EmployeeMapper.toEmployeeDTO(saved);
         });
     }
 
+    private void checkVersion(Employee employee, Long expectedVersion) {
+        if (expectedVersion != null && employee.getVersion() != expectedVersion) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "Employee " + employee.getEmployeeId() + " has version " + employee.getVersion()
+                    + ", not " + expectedVersion);
+        }
+    }
+
     /**
      * Deletes an employee and removes all associations to tasks and skills.
+     * The join table rows are removed with set-based statements, so the number of statements does
+     * not depend on how many tasks or skills the employee has.
      * @param id The ID of the employee to delete.
      * @return true if deletion was successful.
      * @throws EntityNotFoundException if the employee does not exist.
@@ -109,29 +179,30 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     public boolean delete(Long id) {
-        Employee employee = repository.findById(id)
-                                .orElseThrow(() -> new EntityNotFoundException(
-                                    "Employee not found with id " + id));
-        // Remove employee from tasks (Task is the owning side)
-        if (employee.getTasks() != null) {
-            for(Task t : new HashSet<>(employee.getTasks())) {
-                t.getEmployees().remove(employee);
-                taskRepository.save(t);
-            }
+        if (id == null || !repository.existsById(id)) {
+            throw new EntityNotFoundException("Employee not found with id " + id);
         }
-        // Remove skills from employee
-        if (employee.getEmployeeSkills() != null) {
-            for (EmployeeSkill skill : new HashSet<> (employee.getEmployeeSkills())) {
-                skill.getEmployees().remove(employee);
-                employeeSkillRepository.save(skill);
-            }
-            employee.getEmployeeSkills().clear();
-            repository.save(employee);
+        // Remove employee from tasks (Task is the owning side); the tasks are marked as changed
+        List<TaskLinkDTO> assigned = taskRepository.findProcessLinksByAssignee(id);
+        if (!assigned.isEmpty()) {
+            taskRollupService.employeeUnassigned(id);
+            taskRepository.touchAssignedTo(id, changeTracker.currentVersion());
+            recordTaskChanges(assigned);
+            taskRepository.deleteEmployeeAssignments(id);
         }
-        repository.delete(employee);
+        repository.deleteSkillLinks(id);
+        // The statements above cleared the persistence context, so the employee is loaded afterwards
+        repository.deleteById(id);
         return true;
     }
 
+    private void recordTaskChanges(List<TaskLinkDTO> tasks) {
+        changeTracker.touchProcessTrees(tasks.stream().map(TaskLinkDTO::getRefId).toList());
+        for (TaskLinkDTO task : tasks) {
+            changeTracker.recordChange(SyncEntityType.TASK, task.getTaskId(), task.getRefId());
+        }
+    }
+
     @Override
     @Transactional
     /**
@@ -142,7 +213,7 @@ public class EmployeeServiceImpl implements EmployeeService {
      * @throws EntityNotFoundException if the department does not exist.
      */
     public Department addDepartmentToEmployee(Employee employee, Long departmentId) {
-        Department department = departmentRepository.findById(departmentId).orElseThrow(() ->
+        Department department = referenceDataService.findDepartmentById(departmentId).orElseThrow(() ->
             new EntityNotFoundException("Department not found with id " + departmentId));
 
         employee.setDepartment(department);
@@ -153,56 +224,183 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     @Transactional
     /**
-     * Assigns a role to an employee.
+     * Assigns a role to an employee. Only the employee's role_id is written; the employees of the
+     * old and new role (Role.employees) are not loaded.
      * @param employee The employee to whom the role will be assigned.
      * @param roleId The ID of the role to assign.
      * @return The assigned Role entity.
      * @throws EntityNotFoundException if the role does not exist.
      */
     public Role addRoleToEmployee(Employee employee, Long roleId) {
-        Role role = roleRepository.findById(roleId).orElseThrow(() ->
+        Role role = referenceDataService.findRoleById(roleId).orElseThrow(() ->
             new EntityNotFoundException("Role not found with id " + roleId));
-        Role oldRole = employee.getRole();
-        if (oldRole != null) {
-            oldRole.getEmployees().remove(employee);
-            roleRepository.save(oldRole);
-        }
+
         employee.setRole(role);
-        role.getEmployees().add(employee);
-        roleRepository.save(role);
         repository.save(employee);
         return role;
     }
 
+    @Override
+    @Transactional
+    /**
+     * Moves employees to a role and/or department with one UPDATE per attribute (and chunk of IDs).
+     * Employees that already have the role or department are left unchanged; unknown IDs are ignored.
+     * @param employeeIds The IDs of the employees to move.
+     * @param roleId The new role, or null to keep the roles.
+     * @param departmentId The new department, or null to keep the departments.
+     * @return How many employees were found and how many changed.
+     * @throws EntityNotFoundException if the role or department does not exist.
+     */
+    public ReassignmentResultDTO reassign(Collection<Long> employeeIds, Long roleId, Long departmentId) {
+        if (employeeIds == null || employeeIds.contains(null)) {
+            throw new IllegalArgumentException("Employee IDs must not be null");
+        }
+        if (roleId == null && departmentId == null) {
+            throw new IllegalArgumentException("A role or a department is required");
+        }
+        if (roleId != null && referenceDataService.findRoleById(roleId).isEmpty()) {
+            throw new EntityNotFoundException("Role not found with id " + roleId);
+        }
+        if (departmentId != null && referenceDataService.findDepartmentById(departmentId).isEmpty()) {
+            throw new EntityNotFoundException("Department not found with id " + departmentId);
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(employeeIds));
+        long version = changeTracker.currentVersion();
+        int found = 0;
+        Set<Long> changed = new LinkedHashSet<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            found += repository.findExistingIds(chunk).size();
+            if (roleId != null) {
+                List<Long> moving = repository.findIdsNotInRole(chunk, roleId);
+                if (!moving.isEmpty()) {
+                    repository.moveToRole(moving, roleId, version);
+                    changed.addAll(moving);
+                }
+            }
+            if (departmentId != null) {
+                List<Long> moving = repository.findIdsNotInDepartment(chunk, departmentId);
+                if (!moving.isEmpty()) {
+                    repository.moveToDepartment(moving, departmentId, version);
+                    changed.addAll(moving);
+                }
+            }
+        }
+        for (Long employeeId : changed) {
+            changeTracker.recordChange(SyncEntityType.EMPLOYEE, employeeId, null);
+        }
+        return new ReassignmentResultDTO(found, changed.size());
+    }
+
     @Override
     @Transactional
     /**
      * Replaces the skills of an employee with the provided list of skill IDs.
-     * @param employee The employee to whom the skill will be assigned.
+     * @param employeeId The ID of the employee whose skills are replaced.
      * @param skillIds The IDs of the skills to assign.
-     * @throws EntityNotFoundException if the skill does not exist.
+     * @throws EntityNotFoundException if the employee or a skill does not exist.
      */
     public void setSkillsToEmployee(Long employeeId, List<Long> skillIds) {
-        Employee employee = repository.findById(employeeId).orElseThrow(() ->
-            new EntityNotFoundException("Employee not found with id " + employeeId));
-        // Clear existing skills
-        if (employee.getEmployeeSkills() != null) {
-            for (EmployeeSkill skill : new HashSet<> (employee.getEmployeeSkills())) {
-                skill.getEmployees().remove(employee);
-                employeeSkillRepository.save(skill);
+        if (employeeId == null || skillIds == null) {
+            throw new IllegalArgumentException("Employee ID and skill IDs must not be null");
+        }
+        setSkillsToEmployees(Map.of(employeeId, skillIds));
+    }
+
+    @Override
+    @Transactional
+    /**
+     * Replaces the skills of several employees, each with their own list of skill IDs.
+     * @param skillIdsByEmployee The skill IDs to assign, per employee ID.
+     * @return How many employees and links changed.
+     * @throws EntityNotFoundException if an employee or a skill does not exist; nothing is changed then.
+     */
+    public SkillReplacementDTO setSkillsToEmployees(Map<Long, List<Long>> skillIdsByEmployee) {
+        SkillReplacement replacement = replaceSkillLinks(skillIdsByEmployee);
+        List<Long> changed = new ArrayList<>(replacement.changed());
+        long version = changeTracker.currentVersion();
+        for (int from = 0; from < changed.size(); from += CHUNK_SIZE) {
+            repository.touchAll(changed.subList(from, Math.min(from + CHUNK_SIZE, changed.size())), version);
+        }
+        for (Long employeeId : changed) {
+            changeTracker.recordChange(SyncEntityType.EMPLOYEE, employeeId, null);
+        }
+        return new SkillReplacementDTO(skillIdsByEmployee.size(), changed.size(),
+            replacement.added(), replacement.removed());
+    }
+
+    /**
+     * Brings the skill links of the given employees to the given sets. The current links are read
+     * from employee_skills_mapping and only the difference is written, as one batched delete and
+     * one batched insert; neither the employees nor the skills (with their employee sets) are
+     * loaded. Does not mark the employees as changed.
+     */
+    private SkillReplacement replaceSkillLinks(Map<Long, List<Long>> skillIdsByEmployee) {
+        if (skillIdsByEmployee.isEmpty()) {
+            return new SkillReplacement(Set.of(), 0, 0);
+        }
+        List<Long> employeeIds = new ArrayList<>(skillIdsByEmployee.keySet());
+        Set<Long> skillIds = new HashSet<>();
+        for (List<Long> ids : skillIdsByEmployee.values()) {
+            if (ids == null || ids.contains(null)) {
+                throw new IllegalArgumentException("Skill IDs must not be null");
+            }
+            skillIds.addAll(ids);
+        }
+        Set<Long> existingEmployees = new HashSet<>();
+        for (int from = 0; from < employeeIds.size(); from += CHUNK_SIZE) {
+            existingEmployees.addAll(
+                repository.findExistingIds(employeeIds.subList(from, Math.min(from + CHUNK_SIZE, employeeIds.size()))));
+        }
+        for (Long employeeId : employeeIds) {
+            if (!existingEmployees.contains(employeeId)) {
+                throw new EntityNotFoundException("Employee not found with id " + employeeId);
             }
-            employee.getEmployeeSkills().clear();
-            repository.save(employee);
         }
-        // Add new skills
+        Set<Long> existingSkills = new HashSet<>();
+        referenceDataService.findSkillsByIds(skillIds).forEach(skill -> existingSkills.add(skill.getId()));
         for (Long skillId : skillIds) {
-            EmployeeSkill skill = employeeSkillRepository.findById(skillId).orElseThrow(() ->
-                new EntityNotFoundException("EmployeeSkill not found with id " + skillId));
-            employee.getEmployeeSkills().add(skill);
-            skill.getEmployees().add(employee);
-            employeeSkillRepository.save(skill);
-            repository.save(employee);
+            if (!existingSkills.contains(skillId)) {
+                throw new EntityNotFoundException("EmployeeSkill not found with id " + skillId);
+            }
+        }
+
+        Map<Long, Set<Long>> current = new HashMap<>();
+        for (int from = 0; from < employeeIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = employeeIds.subList(from, Math.min(from + CHUNK_SIZE, employeeIds.size()));
+            for (SkillLink link : matchingRepository.findSkillLinksByEmployeeIds(chunk)) {
+                current.computeIfAbsent(link.getEmployeeId(), id -> new HashSet<>()).add(link.getSkillId());
+            }
+        }
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        Set<Long> changed = new LinkedHashSet<>();
+        for (Map.Entry<Long, List<Long>> entry : skillIdsByEmployee.entrySet()) {
+            Long employeeId = entry.getKey();
+            Set<Long> wanted = new LinkedHashSet<>(entry.getValue());
+            Set<Long> linked = current.getOrDefault(employeeId, Set.of());
+            for (Long skillId : linked) {
+                if (!wanted.contains(skillId)) {
+                    deletes.add(new Object[] {employeeId, skillId});
+                    changed.add(employeeId);
+                }
+            }
+            for (Long skillId : wanted) {
+                if (!linked.contains(skillId)) {
+                    inserts.add(new Object[] {employeeId, skillId});
+                    changed.add(employeeId);
+                }
+            }
         }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SKILL_LINK, deletes);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SKILL_LINK, inserts);
+        }
+        return new SkillReplacement(changed, inserts.size(), deletes.size());
     }
 
+    private record SkillReplacement(Set<Long> changed, int added, int removed) {
+    }
 }
@@ -0,0 +1,63 @@
+package com.proseed.services.impl;
+
+import com.proseed.repos.EmployeeWorkloadRepository;
+import com.proseed.services.EmployeeWorkloadService;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+@Service
+public class EmployeeWorkloadServiceImpl implements EmployeeWorkloadService {
+    private final EmployeeWorkloadRepository workloadRepository;
+    private final ChangeTracker changeTracker;
+
+    public EmployeeWorkloadServiceImpl(EmployeeWorkloadRepository workloadRepository, ChangeTracker changeTracker) {
+        this.workloadRepository = workloadRepository;
+        this.changeTracker = changeTracker;
+    }
+
+    @Override
+    @Transactional
+    public void addSubtree(Long taskId) {
+        workloadRepository.adjustForSubtree(taskId, false, 1, changeTracker.currentVersion());
+    }
+
+    @Override
+    @Transactional
+    public void removeSubtree(Long taskId) {
+        workloadRepository.adjustForSubtree(taskId, false, -1, changeTracker.currentVersion());
+    }
+
+    @Override
+    @Transactional
+    public void removeProcess(Long processId) {
+        workloadRepository.adjustForProcess(processId, -1, changeTracker.currentVersion());
+    }
+
+    @Override
+    @Transactional
+    public void subtreeCompleting(Long taskId, boolean completed) {
+        // Completing drops the open assignments, reopening adds the completed ones
+        workloadRepository.adjustForSubtree(taskId, !completed, completed ? -1 : 1, changeTracker.currentVersion());
+    }
+
+    @Override
+    @Transactional
+    public void adjust(Collection<Long> employeeIds, int delta) {
+        if (delta != 0 && !employeeIds.isEmpty()) {
+            workloadRepository.adjust(employeeIds, delta, changeTracker.currentVersion());
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuildIfInconsistent() {
+        if (workloadRepository.isConsistent() == 1) {
+            return false;
+        }
+        workloadRepository.rebuildAll();
+        return true;
+    }
+}
@@ -0,0 +1,201 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.ChangeBatchDTO;
+import com.proseed.DTOs.ChangeEventDTO;
+import com.proseed.services.EventStreamService;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed changes to Server-Sent Events subscribers.
+ *
+ * Published changes are collected for a short window and coalesced per entity, so a burst of
+ * updates to one task becomes one event. Each window is sent as one "changes" message per
+ * subscriber, containing only the changes the subscriber asked for.
+ *
+ * An idle subscriber holds no thread. Messages are queued per subscriber in a bounded queue and
+ * written by a short-lived virtual thread, so one slow client never delays the others. A client
+ * that falls behind by more than QUEUE_CAPACITY messages is disconnected; browsers reconnect
+ * on their own and can catch up through GET /api/sync/changes.
+ */
+@Service
+public class EventStreamServiceImpl implements EventStreamService {
+    // Streams are closed after this time; EventSource clients reconnect automatically
+    private static final long STREAM_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int QUEUE_CAPACITY = 64;
+    // Larger bursts are sent as an overflow message instead of a list of changes
+    private static final int MAX_CHANGES_PER_MESSAGE = 200;
+    private static final Object HEARTBEAT = new Object();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by this; changes of the current window keyed by "TYPE:id"
+    private Map<String, ChangeEventDTO> pending = new LinkedHashMap<>();
+
+    @Override
+    public SseEmitter subscribe(Long processId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, processId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Sends the response headers right away, so the client knows the stream is open
+        enqueue(subscriber, HEARTBEAT);
+        return emitter;
+    }
+
+    @Override
+    public synchronized void publish(Collection<ChangeEventDTO> events) {
+        for (ChangeEventDTO event : events) {
+            pending.merge(event.getType() + ":" + event.getId(), event,
+                (previous, next) -> previous.isDeleted() && !next.isDeleted() ? previous : next);
+        }
+    }
+
+    /**
+     * Closes the current coalescing window and sends it to every subscriber.
+     */
+    @Scheduled(fixedDelay = 250)
+    public void flush() {
+        Map<String, ChangeEventDTO> window;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            window = pending;
+            pending = new LinkedHashMap<>();
+        }
+        List<ChangeEventDTO> all = new ArrayList<>(window.values());
+        Map<Long, List<ChangeEventDTO>> byProcess = new LinkedHashMap<>();
+        for (ChangeEventDTO event : all) {
+            if (event.getProcessId() != null) {
+                byProcess.computeIfAbsent(event.getProcessId(), id -> new ArrayList<>()).add(event);
+            }
+        }
+
+        Map<Long, ChangeBatchDTO> messages = new LinkedHashMap<>();
+        ChangeBatchDTO global = toMessage(all);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.processId == null) {
+                enqueue(subscriber, global);
+                continue;
+            }
+            List<ChangeEventDTO> relevant = byProcess.get(subscriber.processId);
+            if (relevant != null) {
+                enqueue(subscriber, messages.computeIfAbsent(subscriber.processId, id -> toMessage(relevant)));
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects clients that went away.
+     */
+    @Scheduled(fixedRate = 30_000)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, HEARTBEAT);
+        }
+    }
+
+    private static ChangeBatchDTO toMessage(List<ChangeEventDTO> changes) {
+        long version = changes.stream().mapToLong(ChangeEventDTO::getVersion).max().orElse(0);
+        return changes.size() > MAX_CHANGES_PER_MESSAGE
+            ? new ChangeBatchDTO(version, List.of(), true)
+            : new ChangeBatchDTO(version, changes, false);
+    }
+
+    private void enqueue(Subscriber subscriber, Object message) {
+        if (!subscriber.queue.offer(message)) {
+            // Slow consumer: drop it rather than buffer without bound
+            disconnect(subscriber);
+            return;
+        }
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Object message;
+            while ((message = subscriber.queue.poll()) != null) {
+                try {
+                    if (message == HEARTBEAT) {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        subscriber.emitter.send(SseEmitter.event()
+                            .name("changes")
+                            .id(String.valueOf(((ChangeBatchDTO) message).getVersion()))
+                            .data(message, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    disconnect(subscriber);
+                    return;
+                }
+            }
+            subscriber.sending.set(false);
+            // A message may have been queued after the last poll but before the flag was cleared
+        } while (!subscriber.queue.isEmpty() && subscriber.sending.compareAndSet(false, true));
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(this::disconnect);
+        senders.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long processId;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Long processId) {
+            this.emitter = emitter;
+            this.processId = processId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(emitter);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.proseed.services.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proseed.DTOs.EmployeeDTO;
+import com.proseed.DTOs.Mappers.EmployeeMapper;
+import com.proseed.DTOs.Mappers.ProcessMapper;
+import com.proseed.DTOs.ProcessDTO;
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.DTOs.TaskFilterDTO;
+import com.proseed.entities.ProcessEntity;
+import com.proseed.repos.EmployeeRepository;
+import com.proseed.repos.ProcessRepository;
+import com.proseed.repos.TaskRepository;
+import com.proseed.services.ExportService;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Each chunk is read by ID range (keyset) in its own short read-only transaction, instead of
+ * holding one database cursor open for the whole export. A slow client therefore never pins a
+ * connection, and the persistence context is dropped after every chunk.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+    private static final int CHUNK_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ProcessRepository processRepository;
+    private final TaskTreeLoader taskTreeLoader;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public ExportServiceImpl(TaskRepository taskRepository, EmployeeRepository employeeRepository,
+                             ProcessRepository processRepository, TaskTreeLoader taskTreeLoader,
+                             ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.employeeRepository = employeeRepository;
+        this.processRepository = processRepository;
+        this.taskTreeLoader = taskTreeLoader;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @Override
+    public void writeTasks(OutputStream out) throws IOException {
+        TaskFilterDTO all = new TaskFilterDTO();
+        writeChunks(out, afterId -> taskTreeLoader.loadTasks(
+            taskRepository.findIdPage(all, afterId, CHUNK_SIZE)), TaskDTO::getId);
+    }
+
+    @Override
+    public void writeEmployees(OutputStream out) throws IOException {
+        writeChunks(out, afterId -> employeeRepository.findWithDetailsByIds(
+                employeeRepository.findIdsAfter(afterId, Limit.of(CHUNK_SIZE)))
+            .stream().map(EmployeeMapper::toEmployeeDTO).toList(), EmployeeDTO::getId);
+    }
+
+    @Override
+    public void writeProcesses(OutputStream out) throws IOException {
+        writeChunks(out, this::loadProcessChunk, ProcessDTO::getId);
+    }
+
+    private List<ProcessDTO> loadProcessChunk(Long afterId) {
+        List<ProcessEntity> processes = processRepository.findAfter(afterId, Limit.of(CHUNK_SIZE));
+        if (processes.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = processes.stream().map(ProcessEntity::getId).toList();
+        return ProcessMapper.toDTOs(processes, taskRepository.findProcessLinksByProcessIds(ids));
+    }
+
+    /**
+     * Writes one JSON array, loading chunks until an empty one is returned.
+     * @param loadChunk Loads the next chunk after the given ID (0 for the first chunk)
+     * @param idOf ID of an element, used as the key of the next chunk
+     */
+    private <T> void writeChunks(OutputStream out, Function<Long, List<T>> loadChunk,
+                                 Function<T, Long> idOf) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // The servlet container owns the response stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        Long afterId = 0L;
+        while (true) {
+            Long from = afterId;
+            List<T> chunk = readOnlyTx.execute(status -> loadChunk.apply(from));
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            for (T item : chunk) {
+                generator.writeObject(item);
+            }
+            generator.flush();
+            afterId = idOf.apply(chunk.get(chunk.size() - 1));
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+}
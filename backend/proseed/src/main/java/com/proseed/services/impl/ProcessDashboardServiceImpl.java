@@ -0,0 +1,77 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.ProcessDashboardDTO;
+import com.proseed.DTOs.ProcessSummaryDTO;
+import com.proseed.entities.SyncEntityType;
+import com.proseed.repos.ProcessStatsRepository;
+import com.proseed.repos.ProcessStatsRepository.ProcessStats;
+import com.proseed.repos.TombstoneRepository;
+import com.proseed.services.ProcessDashboardService;
+
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Keeps the dashboard in memory, stamped with the change version it was computed at.
+ *
+ * Every change to a process or its tasks raises the tree version of the process above the
+ * versions seen before (see ChangeTracker), so a call first compares the cached version with
+ * the safe version and returns the cached figures if nothing was committed since. Otherwise only
+ * the processes with a newer tree version are aggregated again, and processes with a newer
+ * tombstone are dropped. Figures read in between may already include later changes; those
+ * processes are simply aggregated once more on the next call.
+ */
+@Service
+public class ProcessDashboardServiceImpl implements ProcessDashboardService {
+    // Above this many changed processes one full aggregation is cheaper than a long IN list
+    private static final int MAX_PARTIAL_REFRESH = 500;
+
+    private final ChangeTracker changeTracker;
+    private final ProcessStatsRepository statsRepository;
+    private final TombstoneRepository tombstoneRepository;
+
+    // Guarded by this
+    private long cachedVersion = -1;
+    private final TreeMap<Long, ProcessSummaryDTO> cached = new TreeMap<>();
+    private ProcessDashboardDTO dashboard;
+
+    public ProcessDashboardServiceImpl(ChangeTracker changeTracker, ProcessStatsRepository statsRepository,
+                                       TombstoneRepository tombstoneRepository) {
+        this.changeTracker = changeTracker;
+        this.statsRepository = statsRepository;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    /**
+     * Not transactional: callers waiting for the lock hold no connection, and each query reads
+     * the latest committed state anyway.
+     */
+    @Override
+    public synchronized ProcessDashboardDTO getDashboard() {
+        long version = changeTracker.safeVersion();
+        if (dashboard != null && version == cachedVersion) {
+            return dashboard;
+        }
+        List<Long> changed = dashboard == null ? null : statsRepository.findIdsWithTreeVersionAfter(cachedVersion);
+        if (changed == null || changed.size() > MAX_PARTIAL_REFRESH) {
+            cached.clear();
+            statsRepository.findAllStats().forEach(stats -> cached.put(stats.getId(), toDTO(stats)));
+        } else {
+            tombstoneRepository.findIdsDeletedAfter(SyncEntityType.PROCESS, cachedVersion).forEach(cached::remove);
+            if (!changed.isEmpty()) {
+                statsRepository.findStatsByIds(changed).forEach(stats -> cached.put(stats.getId(), toDTO(stats)));
+            }
+        }
+        cachedVersion = version;
+        dashboard = new ProcessDashboardDTO(version, List.copyOf(cached.values()));
+        return dashboard;
+    }
+
+    private static ProcessSummaryDTO toDTO(ProcessStats stats) {
+        int percent = stats.getTasks() == 0 ? 0 : (int) (stats.getCompleted() * 100 / stats.getTasks());
+        return new ProcessSummaryDTO(stats.getId(), stats.getName(), stats.getTasks(), stats.getCompleted(),
+            percent, stats.getRoots(), stats.getAssignees(), stats.getUnstaffedSkilled());
+    }
+}
@@ -0,0 +1,91 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.ProcessDeletionJobDTO;
+import com.proseed.DTOs.ProcessDeletionJobDTO.Status;
+import com.proseed.repos.ProcessRepository;
+import com.proseed.services.ProcessDeletionJobService;
+import com.proseed.services.ProcessService;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs process deletions in the background, so deleting a process with a very large task tree
+ * does not hold the request open. Each deletion is still one transaction (ProcessService.delete).
+ *
+ * Jobs are kept in memory only: a restart forgets them, and a deletion interrupted by a
+ * shutdown is rolled back as a whole. Finished jobs can be polled for JOB_RETENTION.
+ */
+@Service
+public class ProcessDeletionJobServiceImpl implements ProcessDeletionJobService {
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private final ProcessService processService;
+    private final ProcessRepository processRepository;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ProcessDeletionJobDTO> jobs = new ConcurrentHashMap<>();
+
+    public ProcessDeletionJobServiceImpl(ProcessService processService, ProcessRepository processRepository) {
+        this.processService = processService;
+        this.processRepository = processRepository;
+    }
+
+    @Override
+    public Optional<ProcessDeletionJobDTO> submit(Long processId) {
+        if (!processRepository.existsById(processId)) {
+            return Optional.empty();
+        }
+        String jobId = UUID.randomUUID().toString();
+        jobs.put(jobId, new ProcessDeletionJobDTO(jobId, processId, Status.QUEUED, Instant.now(), null, null));
+        workers.execute(() -> run(jobId, processId));
+        return find(jobId);
+    }
+
+    @Override
+    public Optional<ProcessDeletionJobDTO> find(String jobId) {
+        // A copy, so callers cannot change the stored job
+        return Optional.ofNullable(jobs.get(jobId)).map(job -> new ProcessDeletionJobDTO(
+            job.getId(), job.getProcessId(), job.getStatus(), job.getSubmittedAt(), job.getFinishedAt(), job.getError()));
+    }
+
+    private void run(String jobId, Long processId) {
+        update(jobId, Status.RUNNING, null);
+        try {
+            // A process deleted in the meantime is gone either way
+            processService.delete(processId);
+            update(jobId, Status.COMPLETED, null);
+        } catch (RuntimeException e) {
+            update(jobId, Status.FAILED, e.getMessage());
+        }
+    }
+
+    private void update(String jobId, Status status, String error) {
+        jobs.computeIfPresent(jobId, (id, job) -> new ProcessDeletionJobDTO(id, job.getProcessId(), status,
+            job.getSubmittedAt(), status == Status.RUNNING ? null : Instant.now(), error));
+    }
+
+    /**
+     * Forgets finished jobs after JOB_RETENTION.
+     */
+    @Scheduled(fixedRate = 10 * 60 * 1000)
+    public void expireJobs() {
+        Instant cutoff = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
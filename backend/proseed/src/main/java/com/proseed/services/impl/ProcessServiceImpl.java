@@ -1,9 +1,14 @@
 package com.proseed.services.impl;
 
 import com.proseed.entities.ProcessEntity;
+import com.proseed.entities.SyncEntityType;
 import com.proseed.repos.ProcessRepository;
+import com.proseed.repos.TaskRepository;
+import com.proseed.services.EmployeeWorkloadService;
 import com.proseed.services.ProcessService;
+import com.proseed.services.TaskHierarchyService;
 
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -15,14 +20,25 @@ import org.springframework.web.server.ResponseStatusException;
 import com.proseed.DTOs.Mappers.ProcessMapper;
 import com.proseed.DTOs.ProcessDTO;
 import com.proseed.DTOs.ProcessWithTaskInfoDTO;
-import java.util.stream.Collectors;
 
 @Service
 public class ProcessServiceImpl implements ProcessService {
     private final ProcessRepository repository;
+    private final TaskTreeLoader taskTreeLoader;
+    private final TaskHierarchyService taskHierarchyService;
+    private final TaskRepository taskRepository;
+    private final ChangeTracker changeTracker;
+    private final EmployeeWorkloadService employeeWorkloadService;
 
-    public ProcessServiceImpl(ProcessRepository repository) {
+    public ProcessServiceImpl(ProcessRepository repository, TaskTreeLoader taskTreeLoader,
+                              TaskHierarchyService taskHierarchyService, TaskRepository taskRepository,
+                              ChangeTracker changeTracker, EmployeeWorkloadService employeeWorkloadService) {
         this.repository = repository;
+        this.taskTreeLoader = taskTreeLoader;
+        this.taskHierarchyService = taskHierarchyService;
+        this.taskRepository = taskRepository;
+        this.changeTracker = changeTracker;
+        this.employeeWorkloadService = employeeWorkloadService;
     }
 
     /**
@@ -32,10 +48,8 @@ public class ProcessServiceImpl implements ProcessService {
     @Override
     @Transactional(readOnly = true)
     public List<ProcessDTO> findAll() {
-        return repository.findAll()
-            .stream()
-            .map(ProcessMapper::toDTO)
-            .collect(Collectors.toList());
+        // Task IDs come from one query instead of each process's lazy task collection
+        return ProcessMapper.toDTOs(repository.findAll(Sort.by("id")), taskRepository.findAllProcessLinks());
     }
 
     @Override
@@ -51,18 +65,50 @@ public class ProcessServiceImpl implements ProcessService {
 
     @Override
     @Transactional
-    public Optional<ProcessDTO> update(Long id, ProcessEntity updatedProcess) {
-        return repository.findById(id).map(existing -> {
+    public Optional<ProcessDTO> update(Long id, ProcessEntity updatedProcess, Long expectedVersion) {
+        // With If-Match the row is locked first, so no task change can slip in between the check and the update
+        Optional<ProcessEntity> found = expectedVersion != null ? repository.findByIdForUpdate(id) : repository.findById(id);
+        return found.map(existing -> {
+            if (expectedVersion != null && existing.getTreeVersion() != expectedVersion) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Process " + id + " has version " + existing.getTreeVersion() + ", not " + expectedVersion);
+            }
             existing.setName(updatedProcess.getName());
             existing.setDescription(updatedProcess.getDescription());
-            return ProcessMapper.toDTO(repository.save(existing));
+            ProcessDTO dto = ProcessMapper.toDTO(repository.saveAndFlush(existing));
+            // The tree version is set with plain SQL while flushing, so it is read again
+            dto.setVersion(repository.findTreeVersionById(id).orElseThrow());
+            return dto;
         });
     }
 
+    /**
+     * Deletes the process and all of its tasks with a fixed series of bulk statements, so neither
+     * the tasks nor their subtask sets and join tables are loaded (which the orphan-removal
+     * cascade of ProcessEntity.tasks would do).
+     */
     @Override
     @Transactional
     public boolean delete(Long id) {
-        return repository.findById(id).map(p -> { repository.delete(p); return true; }).orElse(false);
+        // Also locks the process row, so concurrent deletions of the same process run one after the other
+        if (repository.touchAll(List.of(id), changeTracker.currentVersion()) == 0) {
+            return false;
+        }
+        List<Long> taskIds = taskRepository.findIdsByProcessId(id);
+        if (!taskIds.isEmpty()) {
+            // The index is selected through the task table, so it goes first
+            taskHierarchyService.removeProcess(id);
+            employeeWorkloadService.removeProcess(id);
+            taskRepository.deleteProcessAssignees(id);
+            taskRepository.deleteProcessSkills(id);
+            taskRepository.deleteProcessDepartments(id);
+            taskRepository.unlinkProcessTasks(id);
+            taskRepository.deleteProcessTasks(id);
+            changeTracker.recordDeletions(SyncEntityType.TASK, taskIds, id);
+        }
+        repository.deleteRow(id);
+        changeTracker.recordDeletion(SyncEntityType.PROCESS, id, id);
+        return true;
     }
 
     /**
@@ -82,13 +128,28 @@ public class ProcessServiceImpl implements ProcessService {
             ));
     }
 
+    /**
+     * Returns the process with its complete task tree.
+     * The tree is built from flat queries by TaskTreeLoader, so the number of
+     * statements does not grow with the number of tasks.
+     * @param id The ID of the process to retrieve.
+     * @return ProcessWithTaskInfoDTO with nested top-level tasks.
+     * @throws ResponseStatusException if the process is not found.
+     */
     @Override
     @Transactional(readOnly = true)
     public ProcessWithTaskInfoDTO getProcessWithTaskInfo(Long id) {
-        return repository.findById(id)
-            .map(ProcessMapper::toProcessWithTaskInfoDTO)
-            .orElseThrow(() -> new ResponseStatusException(
+        if (!repository.existsById(id)) {
+            throw new ResponseStatusException(
                 HttpStatus.NOT_FOUND, "Process not found with id: " + id
-            ));
+            );
+        }
+        return new ProcessWithTaskInfoDTO(id, taskTreeLoader.loadProcessTree(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findTreeVersion(Long id) {
+        return repository.findTreeVersionById(id);
     }
 }
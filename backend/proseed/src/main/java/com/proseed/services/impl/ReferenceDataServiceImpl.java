@@ -0,0 +1,274 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.CacheStatsDTO;
+import com.proseed.DTOs.Mappers.DepartmentMapper;
+import com.proseed.DTOs.Mappers.RoleMapper;
+import com.proseed.DTOs.Mappers.SkillMapper;
+import com.proseed.DTOs.ReferenceDataDTO;
+import com.proseed.entities.Department;
+import com.proseed.entities.EmployeeSkill;
+import com.proseed.entities.Role;
+import com.proseed.repos.DepartmentRepository;
+import com.proseed.repos.EmployeeSkillRepository;
+import com.proseed.repos.RoleRepository;
+import com.proseed.services.ReferenceDataService;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps each reference table as an immutable map from ID to a detached copy of the row, replaced
+ * as a whole. Reads never lock; a load that raced with an eviction is used once but not kept.
+ *
+ * Each loaded table also carries a hash of its IDs and names. The bundle version is made of the
+ * three hashes, so it only depends on the content: it survives restarts and evictions that did
+ * not change anything, and is the same on every instance.
+ */
+@Service
+public class ReferenceDataServiceImpl implements ReferenceDataService {
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final Region<Department> departments;
+    private final Region<Role> roles;
+    private final Region<EmployeeSkill> skills;
+
+    public ReferenceDataServiceImpl(DepartmentRepository departmentRepository, RoleRepository roleRepository,
+                                    EmployeeSkillRepository skillRepository) {
+        this.departments = new Region<>("departments", () -> departmentRepository.findAll(BY_ID),
+            Department::getId, Department::getName, ReferenceDataServiceImpl::copy);
+        this.roles = new Region<>("roles", () -> roleRepository.findAll(BY_ID),
+            Role::getId, Role::getName, ReferenceDataServiceImpl::copy);
+        this.skills = new Region<>("skills", () -> skillRepository.findAll(BY_ID),
+            EmployeeSkill::getId, EmployeeSkill::getName, ReferenceDataServiceImpl::copy);
+    }
+
+    @Override
+    public List<Department> findAllDepartments() {
+        return departments.all();
+    }
+
+    @Override
+    public Optional<Department> findDepartmentById(Long id) {
+        return departments.byId(id);
+    }
+
+    @Override
+    public List<Department> findDepartmentsByIds(Collection<Long> ids) {
+        return departments.byIds(ids);
+    }
+
+    @Override
+    public List<Role> findAllRoles() {
+        return roles.all();
+    }
+
+    @Override
+    public Optional<Role> findRoleById(Long id) {
+        return roles.byId(id);
+    }
+
+    @Override
+    public List<EmployeeSkill> findAllSkills() {
+        return skills.all();
+    }
+
+    @Override
+    public Optional<EmployeeSkill> findSkillById(Long id) {
+        return skills.byId(id);
+    }
+
+    @Override
+    public List<EmployeeSkill> findSkillsByIds(Collection<Long> ids) {
+        return skills.byIds(ids);
+    }
+
+    @Override
+    public ReferenceDataDTO bundle() {
+        Loaded<Department> loadedDepartments = departments.loaded();
+        Loaded<EmployeeSkill> loadedSkills = skills.loaded();
+        Loaded<Role> loadedRoles = roles.loaded();
+        String version = String.format("%016x%016x%016x", loadedDepartments.hash(), loadedSkills.hash(),
+            loadedRoles.hash());
+        return new ReferenceDataDTO(version,
+            loadedDepartments.entries().values().stream().map(DepartmentMapper::toDepartmentDTO).toList(),
+            loadedSkills.entries().values().stream().map(SkillMapper::toSkillDTO).toList(),
+            loadedRoles.entries().values().stream().map(RoleMapper::toRoleDTO).toList());
+    }
+
+    @Override
+    public void evictDepartments() {
+        departments.invalidate();
+    }
+
+    @Override
+    public void evictRoles() {
+        roles.invalidate();
+    }
+
+    @Override
+    public void evictSkills() {
+        skills.invalidate();
+    }
+
+    @Override
+    public List<CacheStatsDTO> stats() {
+        return List.of(departments.stats(), roles.stats(), skills.stats());
+    }
+
+    // Copies carry ID and name only, so a cached row holds no session or lazy collection
+
+    private static Department copy(Department department) {
+        Department copy = new Department();
+        copy.setId(department.getId());
+        copy.setName(department.getName());
+        return copy;
+    }
+
+    private static Role copy(Role role) {
+        Role copy = new Role();
+        copy.setId(role.getId());
+        copy.setName(role.getName());
+        return copy;
+    }
+
+    private static EmployeeSkill copy(EmployeeSkill skill) {
+        EmployeeSkill copy = new EmployeeSkill();
+        copy.setId(skill.getId());
+        copy.setName(skill.getName());
+        return copy;
+    }
+
+    private record Loaded<T>(Map<Long, T> entries, long hash) {
+    }
+
+    private static final class Region<T> {
+        private final String name;
+        private final Supplier<List<T>> loader;
+        private final Function<T, Long> idOf;
+        private final Function<T, String> nameOf;
+        private final UnaryOperator<T> copy;
+
+        // Null while not loaded
+        private volatile Loaded<T> loaded;
+        // Guarded by this; counts evictions, so a load can tell whether one happened meanwhile
+        private long generation;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        private Region(String name, Supplier<List<T>> loader, Function<T, Long> idOf, Function<T, String> nameOf,
+                       UnaryOperator<T> copy) {
+            this.name = name;
+            this.loader = loader;
+            this.idOf = idOf;
+            this.nameOf = nameOf;
+            this.copy = copy;
+        }
+
+        private Loaded<T> loaded() {
+            Loaded<T> current = loaded;
+            if (current != null) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            long loadedAt;
+            synchronized (this) {
+                loadedAt = generation;
+            }
+            Map<Long, T> entries = new LinkedHashMap<>();
+            MessageDigest digest = sha256();
+            for (T row : loader.get()) {
+                Long id = idOf.apply(row);
+                entries.put(id, copy.apply(row));
+                digest.update((id + "\t" + nameOf.apply(row) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            long hash = ByteBuffer.wrap(digest.digest()).getLong();
+            Loaded<T> fresh = new Loaded<>(Collections.unmodifiableMap(entries), hash);
+            synchronized (this) {
+                if (generation == loadedAt) {
+                    loaded = fresh;
+                }
+            }
+            return fresh;
+        }
+
+        private Map<Long, T> entries() {
+            return loaded().entries();
+        }
+
+        // Callers get their own copies, so the cached rows cannot be changed through them
+
+        private List<T> all() {
+            return entries().values().stream().map(copy).toList();
+        }
+
+        private Optional<T> byId(Long id) {
+            return Optional.ofNullable(id == null ? null : entries().get(id)).map(copy);
+        }
+
+        private List<T> byIds(Collection<Long> ids) {
+            Set<Long> wanted = new HashSet<>(ids);
+            List<T> found = new ArrayList<>();
+            for (Map.Entry<Long, T> entry : entries().entrySet()) {
+                if (wanted.contains(entry.getKey())) {
+                    found.add(copy.apply(entry.getValue()));
+                }
+            }
+            return found;
+        }
+
+        private void invalidate() {
+            evict();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        evict();
+                    }
+                });
+            }
+        }
+
+        private synchronized void evict() {
+            generation++;
+            loaded = null;
+            evictions.increment();
+        }
+
+        private CacheStatsDTO stats() {
+            Loaded<T> current = loaded;
+            return new CacheStatsDTO(name, current != null ? current.entries().size() : 0,
+                hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
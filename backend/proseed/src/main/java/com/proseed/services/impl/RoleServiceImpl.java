@@ -2,6 +2,7 @@ package com.proseed.services.impl;
 
 import com.proseed.entities.Role;
 import com.proseed.repos.RoleRepository;
+import com.proseed.services.ReferenceDataService;
 import com.proseed.services.RoleService;
 
 import jakarta.transaction.Transactional;
@@ -15,24 +16,27 @@ import org.springframework.stereotype.Service;
 @Service
 public class RoleServiceImpl implements RoleService {
     RoleRepository repository;
+    private final ReferenceDataService referenceDataService;
 
-    public RoleServiceImpl(RoleRepository repository) {
+    public RoleServiceImpl(RoleRepository repository, ReferenceDataService referenceDataService) {
         this.repository = repository;
+        this.referenceDataService = referenceDataService;
     }
 
     @Override
     public List<Role> findAll() {
-        return repository.findAll();
+        return referenceDataService.findAllRoles();
     }
 
     @Override
     public Optional<Role> findById(Long id) {
-        return repository.findById(id);
+        return referenceDataService.findRoleById(id);
     }
 
     @Override
     @Transactional
     public Role create(Role role) {
+        referenceDataService.evictRoles();
         return repository.save(role);
     }
 
@@ -44,6 +48,7 @@ public class RoleServiceImpl implements RoleService {
         }
         return repository.findById(id).map(existing -> {
             existing.setName(updated.getName());
+            referenceDataService.evictRoles();
             return repository.save(existing);
         });
     }
@@ -58,6 +63,7 @@ public class RoleServiceImpl implements RoleService {
         Role role = repository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Role with ID " + id + " not found"));
 
+        referenceDataService.evictRoles();
         repository.delete(role);
         try {
             repository.flush();
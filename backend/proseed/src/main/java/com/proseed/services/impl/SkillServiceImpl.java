@@ -1,7 +1,9 @@
 package com.proseed.services.impl;
 
-import com.proseed.entities.Employee;
+import com.proseed.DTOs.TaskLinkDTO;
 import com.proseed.entities.EmployeeSkill;
+import com.proseed.entities.SyncEntityType;
+import com.proseed.services.ReferenceDataService;
 import com.proseed.services.SkillService;
 
 import jakarta.transaction.Transactional;
@@ -9,11 +11,10 @@ import jakarta.persistence.EntityNotFoundException;
 
 import com.proseed.repos.EmployeeRepository;
 import com.proseed.repos.EmployeeSkillRepository;
+import com.proseed.repos.TaskRepository;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
@@ -21,25 +22,34 @@ import org.springframework.stereotype.Service;
 public class SkillServiceImpl implements SkillService {
     private final EmployeeSkillRepository repository;
     private final EmployeeRepository employeeRepository;
+    private final TaskRepository taskRepository;
+    private final ChangeTracker changeTracker;
+    private final ReferenceDataService referenceDataService;
 
-    public SkillServiceImpl(EmployeeSkillRepository repository, EmployeeRepository employeeRepository) {
+    public SkillServiceImpl(EmployeeSkillRepository repository, EmployeeRepository employeeRepository,
+                            TaskRepository taskRepository, ChangeTracker changeTracker,
+                            ReferenceDataService referenceDataService) {
         this.repository = repository;
         this.employeeRepository = employeeRepository;
+        this.taskRepository = taskRepository;
+        this.changeTracker = changeTracker;
+        this.referenceDataService = referenceDataService;
     }
 
     @Override
     public List<EmployeeSkill> findAll() {
-        return repository.findAll();
+        return referenceDataService.findAllSkills();
     }
 
     @Override
     public Optional<EmployeeSkill> findById(Long id) {
-        return repository.findById(id);
+        return referenceDataService.findSkillById(id);
     }
 
     @Override
     @Transactional
     public EmployeeSkill create(EmployeeSkill skill) {
+        referenceDataService.evictSkills();
         return repository.save(skill);
     }
 
@@ -48,26 +58,47 @@ public class SkillServiceImpl implements SkillService {
     public Optional<EmployeeSkill> update(Long id, EmployeeSkill skill) {
         return repository.findById(id).map(existing -> {
             existing.setName(skill.getName());
+            referenceDataService.evictSkills();
+            // Task trees include skill names
+            changeTracker.touchProcessTreesUsingSkill(id);
             return repository.save(existing);
         });
     }
 
+    /**
+     * Deletes a skill after removing it from every employee and every task that requires it.
+     * The holders and tasks are marked as changed and unlinked with set-based statements, without
+     * loading them, so the number of statements does not depend on how widely the skill is used.
+     */
     @Override
     @Transactional
     public boolean delete(Long id) {
-        EmployeeSkill skill = repository.findById(id).orElseThrow(
-            () -> new EntityNotFoundException("Skill not found with id: " + id)
-        );
+        if (id == null || !repository.existsById(id)) {
+            throw new EntityNotFoundException("Skill not found with id: " + id);
+        }
+        long version = changeTracker.currentVersion();
 
-        // Remove skill from associated employees
-        Set<Employee> employees = skill.getEmployees();
-        if (employees != null && !employees.isEmpty()) {
-            for (Employee e : new HashSet<>(employees)) {
-                e.getEmployeeSkills().remove(skill);
-                employeeRepository.save(e);
+        List<Long> holders = repository.findHolderIds(id);
+        if (!holders.isEmpty()) {
+            employeeRepository.touchHoldersOfSkill(id, version);
+            for (Long employeeId : holders) {
+                changeTracker.recordChange(SyncEntityType.EMPLOYEE, employeeId, null);
             }
+            repository.deleteEmployeeLinks(id);
         }
-        repository.delete(skill);
+
+        List<TaskLinkDTO> tasks = taskRepository.findProcessLinksBySkill(id);
+        if (!tasks.isEmpty()) {
+            taskRepository.touchRequiringSkill(id, version);
+            changeTracker.touchProcessTrees(tasks.stream().map(TaskLinkDTO::getRefId).toList());
+            for (TaskLinkDTO task : tasks) {
+                changeTracker.recordChange(SyncEntityType.TASK, task.getTaskId(), task.getRefId());
+            }
+            taskRepository.deleteSkillRequirements(id);
+        }
+
+        referenceDataService.evictSkills();
+        repository.deleteById(id);
         return true;
     }
 }
@@ -0,0 +1,79 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.EmployeeDTO;
+import com.proseed.DTOs.Mappers.EmployeeMapper;
+import com.proseed.DTOs.Mappers.ProcessMapper;
+import com.proseed.DTOs.ProcessDTO;
+import com.proseed.DTOs.SyncChangesDTO;
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.DTOs.TombstoneDTO;
+import com.proseed.entities.ProcessEntity;
+import com.proseed.repos.EmployeeRepository;
+import com.proseed.repos.ProcessRepository;
+import com.proseed.repos.TaskRepository;
+import com.proseed.repos.TombstoneRepository;
+import com.proseed.services.SyncService;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Every query is bounded by the change_version indexes, so the cost of a sync is proportional
+ * to the number of changes, not to the size of the tables.
+ */
+@Service
+public class SyncServiceImpl implements SyncService {
+    private final ChangeTracker changeTracker;
+    private final TaskRepository taskRepository;
+    private final ProcessRepository processRepository;
+    private final EmployeeRepository employeeRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final TaskTreeLoader taskTreeLoader;
+
+    public SyncServiceImpl(ChangeTracker changeTracker, TaskRepository taskRepository,
+                           ProcessRepository processRepository, EmployeeRepository employeeRepository,
+                           TombstoneRepository tombstoneRepository, TaskTreeLoader taskTreeLoader) {
+        this.changeTracker = changeTracker;
+        this.taskRepository = taskRepository;
+        this.processRepository = processRepository;
+        this.employeeRepository = employeeRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.taskTreeLoader = taskTreeLoader;
+    }
+
+    @Override
+    public long currentVersion() {
+        return changeTracker.safeVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SyncChangesDTO changesSince(long since) {
+        // Changes above the safe version may still be joined by a lower, uncommitted version;
+        // they are reported by the next sync instead.
+        long upTo = changeTracker.safeVersion();
+        if (since >= upTo) {
+            return new SyncChangesDTO(Math.max(since, upTo), List.of(), List.of(), List.of(), List.of());
+        }
+
+        List<TaskDTO> tasks = taskTreeLoader.loadTasks(taskRepository.findIdsChangedBetween(since, upTo));
+
+        List<ProcessEntity> changedProcesses = processRepository.findChangedBetween(since, upTo);
+        List<ProcessDTO> processes = changedProcesses.isEmpty() ? List.of() : ProcessMapper.toDTOs(changedProcesses,
+            taskRepository.findProcessLinksByProcessIds(changedProcesses.stream().map(ProcessEntity::getId).toList()));
+
+        List<Long> employeeIds = employeeRepository.findIdsChangedBetween(since, upTo);
+        List<EmployeeDTO> employees = employeeIds.isEmpty() ? List.of() : employeeRepository
+            .findWithDetailsByIds(employeeIds).stream().map(EmployeeMapper::toEmployeeDTO).toList();
+
+        List<TombstoneDTO> deleted = tombstoneRepository
+            .findByChangeVersionGreaterThanAndChangeVersionLessThanEqualOrderByChangeVersion(since, upTo)
+            .stream()
+            .map(t -> new TombstoneDTO(t.getEntityType(), t.getEntityId(), t.getChangeVersion()))
+            .toList();
+
+        return new SyncChangesDTO(upTo, tasks, processes, employees, deleted);
+    }
+}
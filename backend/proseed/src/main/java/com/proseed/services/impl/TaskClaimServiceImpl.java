@@ -0,0 +1,176 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.entities.SyncEntityType;
+import com.proseed.repos.EmployeeRepository;
+import com.proseed.services.EmployeeWorkloadService;
+import com.proseed.services.TaskClaimService;
+import com.proseed.services.TaskRollupService;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hands out tasks to employees who ask for work.
+ *
+ * On MariaDB (and MySQL) the next qualified task is selected with FOR UPDATE SKIP LOCKED: a row
+ * another claimer has locked is skipped instead of waited for, so concurrent claimers neither
+ * block each other nor get the same task. Claims run with READ COMMITTED, where InnoDB releases
+ * the locks of rows that were read but did not qualify.
+ *
+ * The subqueries of that scan are plain reads of the snapshot taken when the statement started,
+ * so a row freed by a claimer that committed in the meantime can be locked while its new assignee
+ * is not yet seen. The assignment itself is therefore a guarded insert, which reads a fresh
+ * snapshot once the row is locked; if it inserts nothing, the next candidate is tried.
+ *
+ * H2 has no SKIP LOCKED for such queries, so there a claimer reads a few candidates and takes
+ * the first one whose version it can increment (compare-and-set). Claimers try the candidates
+ * in random order, so they rarely race for the same row; a claimer that loses every race reads
+ * the candidates again.
+ */
+@Service
+public class TaskClaimServiceImpl implements TaskClaimService {
+    // Candidates read per attempt by the compare-and-set fallback
+    private static final int FALLBACK_CANDIDATES = 16;
+
+    // Parameters: employee ID twice
+    private static final String QUALIFIED_TASKS =
+        "SELECT t.id, t.version, t.process_id FROM task t " +
+        "WHERE t.is_completed = FALSE " +
+        "AND NOT EXISTS (SELECT 1 FROM task s WHERE s.parent_task_id = t.id) " +
+        "AND NOT EXISTS (SELECT 1 FROM task_assignees a WHERE a.task_id = t.id) " +
+        // Every required skill is one of the employee's
+        "AND NOT EXISTS (SELECT 1 FROM task_skills_mapping ts WHERE ts.task_id = t.id AND NOT EXISTS (" +
+        "SELECT 1 FROM employee_skills_mapping es WHERE es.employee_id = ? AND es.skill_id = ts.skill_id)) " +
+        // No required department, or the employee's department is one of them
+        "AND (NOT EXISTS (SELECT 1 FROM task_departments_mapping td WHERE td.task_id = t.id) " +
+        "OR EXISTS (SELECT 1 FROM task_departments_mapping td JOIN employee e ON e.department_id = td.department_id " +
+        "WHERE td.task_id = t.id AND e.employee_id = ?)) ";
+
+    // Parameters: employee ID, task ID. Inserts nothing if the task no longer qualifies as free work.
+    private static final String ASSIGN_IF_UNSTAFFED =
+        "INSERT INTO task_assignees (task_id, employee_id) SELECT t.id, ? FROM task t WHERE t.id = ? " +
+        "AND t.is_completed = FALSE " +
+        "AND NOT EXISTS (SELECT 1 FROM task s WHERE s.parent_task_id = t.id) " +
+        "AND NOT EXISTS (SELECT 1 FROM task_assignees a WHERE a.task_id = t.id)";
+
+    private static final RowMapper<Candidate> CANDIDATE = (rs, row) ->
+        new Candidate(rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmployeeRepository employeeRepository;
+    private final TaskRollupService taskRollupService;
+    private final ChangeTracker changeTracker;
+    private final TaskTreeLoader taskTreeLoader;
+    private final EmployeeWorkloadService employeeWorkloadService;
+
+    private volatile Boolean skipLocked;
+
+    public TaskClaimServiceImpl(JdbcTemplate jdbcTemplate, EmployeeRepository employeeRepository,
+                                TaskRollupService taskRollupService, ChangeTracker changeTracker,
+                                TaskTreeLoader taskTreeLoader, EmployeeWorkloadService employeeWorkloadService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.employeeRepository = employeeRepository;
+        this.taskRollupService = taskRollupService;
+        this.changeTracker = changeTracker;
+        this.taskTreeLoader = taskTreeLoader;
+        this.employeeWorkloadService = employeeWorkloadService;
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Optional<TaskDTO> claim(Long employeeId, Long processId) {
+        if (employeeId == null || !employeeRepository.existsById(employeeId)) {
+            throw new IllegalArgumentException("Employee not found with id: " + employeeId);
+        }
+        Optional<Candidate> claimed = supportsSkipLocked()
+            ? claimLocked(employeeId, processId)
+            : claimWithVersionCheck(employeeId, processId);
+        return claimed.map(task -> {
+            taskRollupService.adjustAncestors(task.id(), 0, 0, 1);
+            employeeWorkloadService.adjust(List.of(employeeId), 1);
+            changeTracker.recordChange(SyncEntityType.TASK, task.id(), task.processId());
+            return taskTreeLoader.loadTasks(List.of(task.id())).get(0);
+        });
+    }
+
+    /**
+     * Loops until the guarded insert succeeds or no candidate is left. An insert that fails means
+     * another claim committed, which the next scan sees, so the loop ends.
+     */
+    private Optional<Candidate> claimLocked(Long employeeId, Long processId) {
+        while (true) {
+            List<Candidate> next = jdbcTemplate.query(
+                query(processId) + "ORDER BY t.id LIMIT 1 FOR UPDATE SKIP LOCKED", CANDIDATE, args(employeeId, processId));
+            if (next.isEmpty()) {
+                return Optional.empty();
+            }
+            Candidate task = next.get(0);
+            if (assign(task, employeeId)) {
+                jdbcTemplate.update("UPDATE task SET version = version + 1, change_version = ? WHERE id = ?",
+                    changeTracker.currentVersion(), task.id());
+                return Optional.of(task);
+            }
+        }
+    }
+
+    /**
+     * Loops until it wins a candidate or none is left. A lost race means another claim committed,
+     * so every round makes progress and the loop ends.
+     */
+    private Optional<Candidate> claimWithVersionCheck(Long employeeId, Long processId) {
+        while (true) {
+            List<Candidate> candidates = new ArrayList<>(jdbcTemplate.query(
+                query(processId) + "ORDER BY t.id LIMIT " + FALLBACK_CANDIDATES, CANDIDATE, args(employeeId, processId)));
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+            Collections.shuffle(candidates, ThreadLocalRandom.current());
+            for (Candidate task : candidates) {
+                // Waits while another claimer holds the row; fails once that claimer has committed
+                int updated = jdbcTemplate.update(
+                    "UPDATE task SET version = version + 1, change_version = ? WHERE id = ? AND version = ?",
+                    changeTracker.currentVersion(), task.id(), task.version());
+                if (updated == 1 && assign(task, employeeId)) {
+                    return Optional.of(task);
+                }
+            }
+        }
+    }
+
+    private boolean assign(Candidate task, Long employeeId) {
+        return jdbcTemplate.update(ASSIGN_IF_UNSTAFFED, employeeId, task.id()) == 1;
+    }
+
+    private static String query(Long processId) {
+        return processId == null ? QUALIFIED_TASKS : QUALIFIED_TASKS + "AND t.process_id = ? ";
+    }
+
+    private static Object[] args(Long employeeId, Long processId) {
+        return processId == null ? new Object[] {employeeId, employeeId} : new Object[] {employeeId, employeeId, processId};
+    }
+
+    private boolean supportsSkipLocked() {
+        Boolean supported = skipLocked;
+        if (supported == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            supported = product != null && (product.contains("MariaDB") || product.contains("MySQL"));
+            skipLocked = supported;
+        }
+        return supported;
+    }
+
+    private record Candidate(long id, long version, Long processId) {
+    }
+}
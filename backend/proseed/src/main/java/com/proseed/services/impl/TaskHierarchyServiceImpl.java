@@ -0,0 +1,134 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.TaskNodeDTO;
+import com.proseed.entities.Task;
+import com.proseed.repos.TaskClosureRepository;
+import com.proseed.repos.TaskRepository;
+import com.proseed.services.TaskHierarchyService;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class TaskHierarchyServiceImpl implements TaskHierarchyService {
+    // Keeps IN lists of very wide tree levels at a size every database handles well
+    private static final int MAX_IDS_PER_STATEMENT = 1000;
+
+    private final TaskClosureRepository closureRepository;
+    private final TaskRepository taskRepository;
+
+    public TaskHierarchyServiceImpl(TaskClosureRepository closureRepository, TaskRepository taskRepository) {
+        this.closureRepository = closureRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Indexes the subtree level by level, so every level can copy the rows of its
+     * (already indexed) parents: two statements per level instead of per task.
+     */
+    @Override
+    @Transactional
+    public void registerSubtree(Task root) {
+        List<Task> level = List.of(root);
+        while (!level.isEmpty()) {
+            List<Long> ids = new ArrayList<>(level.size());
+            List<Task> next = new ArrayList<>();
+            for (Task task : level) {
+                ids.add(task.getId());
+                if (task.getSubTasks() != null) {
+                    next.addAll(task.getSubTasks());
+                }
+            }
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_STATEMENT) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_STATEMENT));
+                closureRepository.insertSelfRows(chunk);
+                closureRepository.insertParentPaths(chunk);
+            }
+            level = next;
+        }
+    }
+
+    @Override
+    @Transactional
+    public void moveSubtree(Long taskId, Long newParentId) {
+        closureRepository.detachSubtree(taskId);
+        if (newParentId != null) {
+            closureRepository.attachSubtree(taskId, newParentId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void removeSubtree(Long taskId) {
+        closureRepository.deleteSubtree(taskId);
+    }
+
+    @Override
+    @Transactional
+    public void removeProcess(Long processId) {
+        closureRepository.deleteByProcessId(processId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isAncestor(Long ancestorId, Long descendantId) {
+        if (ancestorId == null || descendantId == null) {
+            return false;
+        }
+        return closureRepository.existsByAncestorIdAndDescendantIdAndDepthGreaterThan(ancestorId, descendantId, 0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int depthOf(Long taskId) {
+        return closureRepository.findDepth(taskId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskNodeDTO> findDescendants(Long taskId) {
+        return closureRepository.findDescendants(taskId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findDescendantIds(Long taskId) {
+        return closureRepository.findDescendantIds(taskId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int subtreeSize(Long taskId) {
+        return (int) closureRepository.countSubtree(taskId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskNodeDTO> findAncestors(Long taskId) {
+        return closureRepository.findAncestors(taskId);
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuildIfInconsistent() {
+        long tasks = taskRepository.count();
+        // Every task has its self row, and its parent link matches task.parent_task_id exactly
+        if (closureRepository.countSelfRows() == tasks && closureRepository.countIndexedTasks() == tasks
+                && closureRepository.countParentRows() == closureRepository.countTasksWithParent()
+                && closureRepository.countTasksWithoutParentRow() == 0) {
+            return false;
+        }
+        closureRepository.deleteAllRows();
+        closureRepository.insertAllSelfRows();
+        // Each pass adds the rows one edge longer; a chain of n tasks needs n passes at most.
+        for (int depth = 0; depth <= tasks; depth++) {
+            if (closureRepository.insertNextLevel(depth) == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+}
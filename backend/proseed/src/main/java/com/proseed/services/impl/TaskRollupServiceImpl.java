@@ -0,0 +1,126 @@
+package com.proseed.services.impl;
+
+import com.proseed.entities.Task;
+import com.proseed.repos.TaskRollupRepository;
+import com.proseed.repos.TaskRollupRepository.SubtreeTotals;
+import com.proseed.services.TaskRollupService;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+public class TaskRollupServiceImpl implements TaskRollupService {
+    // Task IDs per IN list of a set-based statement
+    private static final int CHUNK_SIZE = 1000;
+
+    private final TaskRollupRepository rollupRepository;
+    private final ChangeTracker changeTracker;
+
+    public TaskRollupServiceImpl(TaskRollupRepository rollupRepository, ChangeTracker changeTracker) {
+        this.rollupRepository = rollupRepository;
+        this.changeTracker = changeTracker;
+    }
+
+    @Override
+    public void initialize(Task root) {
+        initializeSubtree(root);
+    }
+
+    /**
+     * @return tasks, completed tasks and assignments of the subtree, counting its root
+     */
+    private static int[] initializeSubtree(Task task) {
+        int[] below = new int[3];
+        if (task.getSubTasks() != null) {
+            for (Task subTask : task.getSubTasks()) {
+                int[] totals = initializeSubtree(subTask);
+                below[0] += totals[0];
+                below[1] += totals[1];
+                below[2] += totals[2];
+            }
+        }
+        task.setDescendantCount(below[0]);
+        task.setCompletedDescendantCount(below[1]);
+        task.setDescendantAssignmentCount(below[2]);
+        return new int[] {
+            below[0] + 1,
+            below[1] + (task.isCompleted() ? 1 : 0),
+            below[2] + (task.getEmployees() != null ? task.getEmployees().size() : 0)
+        };
+    }
+
+    @Override
+    @Transactional
+    public void addToAncestors(Long taskId) {
+        rollupRepository.findSubtreeTotals(taskId).ifPresent(totals ->
+            adjustAncestors(taskId, totals.getTasks(), totals.getCompleted(), totals.getAssignments()));
+    }
+
+    @Override
+    @Transactional
+    public void removeFromAncestors(Long taskId) {
+        rollupRepository.findSubtreeTotals(taskId).ifPresent(totals ->
+            adjustAncestors(taskId, -totals.getTasks(), -totals.getCompleted(), -totals.getAssignments()));
+    }
+
+    @Override
+    @Transactional
+    public void adjustAncestors(Long taskId, int tasks, int completed, int assignments) {
+        if (tasks != 0 || completed != 0 || assignments != 0) {
+            rollupRepository.adjustAncestors(taskId, tasks, completed, assignments, changeTracker.currentVersion());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void recomputeFromSubtasks(Task task) {
+        SubtreeTotals totals = rollupRepository.sumChildTotals(task.getId());
+        rollupRepository.setRollups(task.getId(), totals.getTasks(), totals.getCompleted(), totals.getAssignments());
+        task.setDescendantCount(totals.getTasks());
+        task.setCompletedDescendantCount(totals.getCompleted());
+        task.setDescendantAssignmentCount(totals.getAssignments());
+    }
+
+    @Override
+    @Transactional
+    public void subtreeCompleted(Long taskId, boolean completed, int changedTasks) {
+        rollupRepository.setSubtreeCompleted(taskId, completed);
+        adjustAncestors(taskId, 0, completed ? changedTasks : -changedTasks, 0);
+    }
+
+    @Override
+    @Transactional
+    public void subtreeAssigned(Long taskId, int employeeCount, int assignmentDelta) {
+        rollupRepository.setSubtreeAssignments(taskId, employeeCount);
+        adjustAncestors(taskId, 0, 0, assignmentDelta);
+    }
+
+    @Override
+    @Transactional
+    public void assignmentsAdded(Collection<Long> taskIds) {
+        List<Long> ids = new ArrayList<>(taskIds);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            rollupRepository.addAssignmentsToAncestors(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())),
+                changeTracker.currentVersion());
+        }
+    }
+
+    @Override
+    public void employeeUnassigned(Long employeeId) {
+        rollupRepository.removeEmployeeFromAncestors(employeeId, changeTracker.currentVersion());
+    }
+
+    @Override
+    @Transactional
+    public boolean rebuildIfInconsistent() {
+        if (rollupRepository.isConsistent() == 1) {
+            return false;
+        }
+        rollupRepository.rebuildAll();
+        return true;
+    }
+}
@@ -1,30 +1,61 @@
 package com.proseed.services.impl;
 
 import com.proseed.entities.ProcessEntity;
+import com.proseed.entities.SyncEntityType;
 import com.proseed.entities.Task;
 import com.proseed.repos.ProcessRepository;
 import com.proseed.repos.TaskRepository;
 import com.proseed.repos.EmployeeRepository;
 import com.proseed.entities.Employee;
+import com.proseed.services.EmployeeWorkloadService;
+import com.proseed.services.TaskHierarchyService;
+import com.proseed.services.TaskRollupService;
 import com.proseed.services.TaskService;
 import com.proseed.DTOs.Mappers.TaskMapper;
+import com.proseed.DTOs.SubtreeUpdateDTO;
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.DTOs.TaskFilterDTO;
+import com.proseed.DTOs.TaskPageDTO;
+import com.proseed.DTOs.TaskRowDTO;
 import com.proseed.DTOs.TaskWithEmployeesDTO;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TaskServiceImpl implements TaskService {
     private final TaskRepository taskRepository;
     private final ProcessRepository processRepository;
     private final EmployeeRepository employeeRepository;
-
-    public TaskServiceImpl(TaskRepository taskRepository, ProcessRepository processRepository, EmployeeRepository employeeRepository) {
+    private final TaskHierarchyService taskHierarchyService;
+    private final TaskTreeLoader taskTreeLoader;
+    private final ChangeTracker changeTracker;
+    private final TaskRollupService taskRollupService;
+    private final EmployeeWorkloadService employeeWorkloadService;
+
+    public TaskServiceImpl(TaskRepository taskRepository, ProcessRepository processRepository,
+                           EmployeeRepository employeeRepository, TaskHierarchyService taskHierarchyService,
+                           TaskTreeLoader taskTreeLoader, ChangeTracker changeTracker,
+                           TaskRollupService taskRollupService, EmployeeWorkloadService employeeWorkloadService) {
         this.taskRepository = taskRepository;
         this.processRepository = processRepository;
         this.employeeRepository = employeeRepository;
+        this.taskHierarchyService = taskHierarchyService;
+        this.taskTreeLoader = taskTreeLoader;
+        this.changeTracker = changeTracker;
+        this.taskRollupService = taskRollupService;
+        this.employeeWorkloadService = employeeWorkloadService;
     }
 
     @Override
@@ -35,6 +66,23 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public Optional<Task> findById(Long id) { return taskRepository.findById(id); }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPageDTO findPage(TaskFilterDTO filter, String cursor, int limit) {
+        if (filter.isRootsOnly() && filter.getParentTaskId() != null) {
+            throw new IllegalArgumentException("rootsOnly cannot be combined with parentTaskId");
+        }
+        // Fetch one extra ID to know whether another page follows
+        List<Long> ids = taskRepository.findIdPage(filter, Cursors.decode(cursor), limit + 1);
+        String nextCursor = null;
+        if (ids.size() > limit) {
+            ids = ids.subList(0, limit);
+            nextCursor = Cursors.encode(ids.get(limit - 1));
+        }
+        List<TaskDTO> tasks = taskTreeLoader.loadTasks(ids);
+        return new TaskPageDTO(tasks, nextCursor);
+    }
+
     @Override
     @Transactional
     public Task create(Long processId, Task task, Long parentId) {
@@ -51,17 +99,71 @@ public class TaskServiceImpl implements TaskService {
         // Set parent if provided
         setParentWithId(task, parentId);
 
-        return taskRepository.save(task);
+        taskRollupService.initialize(task);
+        Task saved = taskRepository.saveAndFlush(task);
+        taskHierarchyService.registerSubtree(saved);
+        taskRollupService.addToAncestors(saved.getId());
+        employeeWorkloadService.addSubtree(saved.getId());
+
+        // The process gains task IDs and the parent gains a subtask
+        Map<Long, Long> parentProcessIds = new HashMap<>();
+        if (task.getParentTask() != null) {
+            parentProcessIds.put(task.getParentTask().getId(), processId);
+        }
+        touchContainers(parentProcessIds, Set.of(processId));
+        // Detached by now, but the new subtree is fully initialized, so it is returned as is
+        return saved;
     }
 
     @Override
     @Transactional
-    public Optional<Task> update(Long id, Task task, Long parentId, Long processId) {
+    public Optional<Task> update(Long id, Task task, Long parentId, Long processId, Long expectedVersion) {
         // Resolve and reparent subtasks safely to avoid orphanRemoval accidental deletes.
         return taskRepository.findById(id).map(existing -> {
+            if (expectedVersion != null && existing.getVersion() != expectedVersion) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                    "Task " + id + " has version " + existing.getVersion() + ", not " + expectedVersion);
+            }
+            Long currentParentId = existing.getParentTask() != null ? existing.getParentTask().getId() : null;
+            boolean rollupsChange = task.getSubTasks() != null || existing.isCompleted() != task.isCompleted()
+                || (parentId != null && !parentId.equals(currentParentId));
+            if (rollupsChange) {
+                // Take the task's subtree and the listed subtasks out of the rollups of their current
+                // ancestors, before anything is flushed; they are added back below their final parents
+                // once the changes are replayed. Deepest first, so a subtree that lies below another
+                // one is not subtracted twice.
+                Map<Long, Integer> depths = new HashMap<>();
+                depths.put(id, taskHierarchyService.depthOf(id));
+                if (task.getSubTasks() != null) {
+                    for (Task incoming : task.getSubTasks()) {
+                        if (incoming.getId() != null) {
+                            depths.put(incoming.getId(), taskHierarchyService.depthOf(incoming.getId()));
+                        }
+                    }
+                }
+                depths.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                    .forEach(entry -> taskRollupService.removeFromAncestors(entry.getKey()));
+            }
+            if (existing.isCompleted() != task.isCompleted() && existing.getEmployees() != null) {
+                employeeWorkloadService.adjust(
+                    existing.getEmployees().stream().map(Employee::getEmployeeId).toList(),
+                    task.isCompleted() ? -1 : 1);
+            }
             existing.setName(task.getName());
             existing.setDescription(task.getDescription());
             existing.setCompleted(task.isCompleted());
+            // Subtask changes do not update the task's own row
+            changeTracker.touch(existing);
+
+            // Parents that gain or lose subtasks and processes that gain or lose tasks, stamped at the end
+            Map<Long, Long> touchedParents = new HashMap<>();
+            Set<Long> touchedProcesses = new LinkedHashSet<>();
+
+            // Hierarchy changes to replay on the task_closure index once the entities are flushed
+            List<Long> movedSubTaskIds = new ArrayList<>();
+            List<Long> removedSubTaskIds = new ArrayList<>();
+            List<Task> createdSubTasks = new ArrayList<>();
 
             if (task.getSubTasks() != null) {
                 // Build a resolved set of subtasks: existing managed entities for ids, or new ones for creations
@@ -71,11 +173,18 @@ public class TaskServiceImpl implements TaskService {
                         Task managed = taskRepository.findById(incoming.getId())
                             .orElseThrow(() -> new IllegalArgumentException("Subtask not found: " + incoming.getId()));
                         // Prevent circular relationships: you cannot make an ancestor a child of its descendant
-                        if (isAncestorOf(managed, existing) || managed.getId().equals(existing.getId())) {
+                        if (managed.getId().equals(existing.getId())
+                            || taskHierarchyService.isAncestor(managed.getId(), existing.getId())) {
                             throw new IllegalArgumentException(
                                 "Circular subtask relationship detected: task " + managed.getId() +
                                 " cannot be a child of its descendant " + existing.getId());
                         }
+                        if (managed.getParentTask() == null || !existing.getId().equals(managed.getParentTask().getId())) {
+                            movedSubTaskIds.add(managed.getId());
+                            if (managed.getParentTask() != null) {
+                                touchedParents.put(managed.getParentTask().getId(), managed.getProcess().getId());
+                            }
+                        }
                         // reparent the managed entity
                         managed.setParentTask(existing);
                         managed.setProcess(existing.getProcess());
@@ -89,6 +198,7 @@ public class TaskServiceImpl implements TaskService {
                         // new subtask: set parent/process recursively
                         prepareSubTasks(existing, incoming, existing.getProcess());
                         resolved.add(incoming);
+                        createdSubTasks.add(incoming);
                     }
                 }
 
@@ -96,21 +206,181 @@ public class TaskServiceImpl implements TaskService {
                 if (existing.getSubTasks() == null) {
                     existing.setSubTasks(new java.util.LinkedHashSet<>());
                 }
+                // Former subtasks that are not kept get deleted by orphanRemoval
+                java.util.Set<Long> keptIds = new java.util.HashSet<>();
+                resolved.forEach(t -> keptIds.add(t.getId()));
+                for (Task former : existing.getSubTasks()) {
+                    if (!keptIds.contains(former.getId())) {
+                        removedSubTaskIds.add(former.getId());
+                    }
+                }
                 // Replace existing's subtasks with resolved set
                 existing.getSubTasks().clear();
                 existing.getSubTasks().addAll(resolved);
             }
 
             // Set or clear parent as needed
+            Long previousParentId = existing.getParentTask() != null ? existing.getParentTask().getId() : null;
+            if (parentId != null && (parentId.equals(existing.getId())
+                    || taskHierarchyService.isAncestor(existing.getId(), parentId))) {
+                throw new IllegalArgumentException(
+                    "Circular subtask relationship detected: task " + existing.getId() +
+                    " cannot be moved below its descendant " + parentId);
+            }
+            ProcessEntity previousProcess = existing.getProcess();
+            Task previousParent = existing.getParentTask();
             setParentWithId(existing, parentId);
+            if (existing.getParentTask() != previousParent) {
+                if (previousParent != null) {
+                    touchedParents.put(previousParent.getId(), previousProcess.getId());
+                }
+                if (existing.getParentTask() != null) {
+                    touchedParents.put(existing.getParentTask().getId(), existing.getParentTask().getProcess().getId());
+                }
+            }
 
             //set or update process
             setProcessWithId(existing, processId);
+            boolean processChanged = existing.getProcess() != previousProcess;
+            if (!createdSubTasks.isEmpty() || !removedSubTaskIds.isEmpty() || processChanged) {
+                touchedProcesses.add(previousProcess.getId());
+                touchedProcesses.add(existing.getProcess().getId());
+            }
 
-            return taskRepository.save(existing);
+            createdSubTasks.forEach(taskRollupService::initialize);
+            // The assignments of removed subtrees are deleted by the flush. A subtask moved here from
+            // inside one of them survives, so it is added back once the index has it below this task.
+            List<Long> rescuedSubTaskIds = movedSubTaskIds.stream()
+                .filter(movedId -> removedSubTaskIds.stream()
+                    .anyMatch(removedId -> taskHierarchyService.isAncestor(removedId, movedId)))
+                .toList();
+            removedSubTaskIds.forEach(employeeWorkloadService::removeSubtree);
+            Task saved = taskRepository.saveAndFlush(existing);
+
+            // Replay the hierarchy changes on the index: moves first, so a moved task is no longer
+            // part of a removed subtree, then removals, then the new subtasks below their final parents.
+            for (Long movedId : movedSubTaskIds) {
+                taskHierarchyService.moveSubtree(movedId, saved.getId());
+            }
+            if (parentId != null && !parentId.equals(previousParentId)) {
+                taskHierarchyService.moveSubtree(saved.getId(), parentId);
+            }
+            for (Long removedId : removedSubTaskIds) {
+                taskHierarchyService.removeSubtree(removedId);
+            }
+            for (Task created : createdSubTasks) {
+                taskHierarchyService.registerSubtree(created);
+                employeeWorkloadService.addSubtree(created.getId());
+            }
+            rescuedSubTaskIds.forEach(employeeWorkloadService::addSubtree);
+            if (rollupsChange) {
+                taskRollupService.recomputeFromSubtasks(saved);
+                taskRollupService.addToAncestors(saved.getId());
+            }
+            if (processChanged) {
+                // Subtasks follow the task into its new process
+                moveDescendantsToProcess(saved.getId(), saved.getProcess().getId());
+            }
+            if (touchedParents.isEmpty() && touchedProcesses.isEmpty()) {
+                return saved;
+            }
+            // Both clear the persistence context, so the task is read again for the response
+            touchContainers(touchedParents, touchedProcesses);
+            return taskRepository.findById(saved.getId()).orElseThrow();
         });
     }
 
+    @Override
+    @Transactional
+    public Optional<TaskDTO> move(Long taskId, Long parentTaskId, Long processId, Long expectedVersion) {
+        List<TaskRowDTO> rows = taskRepository.findRowsByIds(List.of(taskId));
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        TaskRowDTO task = rows.get(0);
+        if (expectedVersion != null && task.getVersion() != expectedVersion) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "Task " + taskId + " has version " + task.getVersion() + ", not " + expectedVersion);
+        }
+
+        Long targetProcessId;
+        if (parentTaskId != null) {
+            if (parentTaskId.equals(taskId) || taskHierarchyService.isAncestor(taskId, parentTaskId)) {
+                throw new IllegalArgumentException(
+                    "Circular subtask relationship detected: task " + taskId +
+                    " cannot be moved below its descendant " + parentTaskId);
+            }
+            List<TaskRowDTO> parents = taskRepository.findRowsByIds(List.of(parentTaskId));
+            if (parents.isEmpty()) {
+                throw new IllegalArgumentException("Parent task not found with id: " + parentTaskId);
+            }
+            targetProcessId = parents.get(0).getProcessId();
+            if (processId != null && !processId.equals(targetProcessId)) {
+                throw new IllegalArgumentException("Parent task " + parentTaskId + " is not part of process " + processId);
+            }
+        } else {
+            targetProcessId = processId != null ? processId : task.getProcessId();
+            if (!processRepository.existsById(targetProcessId)) {
+                throw new IllegalArgumentException("Process not found with id: " + targetProcessId);
+            }
+        }
+
+        Long previousParentId = task.getParentTaskId();
+        Long previousProcessId = task.getProcessId();
+        boolean processChanged = !targetProcessId.equals(previousProcessId);
+        if (Objects.equals(parentTaskId, previousParentId) && !processChanged) {
+            return Optional.of(taskTreeLoader.loadTasks(List.of(taskId)).get(0));
+        }
+
+        long changeVersion = changeTracker.currentVersion();
+        int relinked = parentTaskId != null
+            ? taskRepository.relinkToParent(taskId, task.getVersion(), parentTaskId, targetProcessId, changeVersion)
+            : taskRepository.relinkAsRoot(taskId, task.getVersion(), targetProcessId, changeVersion);
+        if (relinked == 0) {
+            throw new OptimisticLockingFailureException("Task " + taskId + " was changed concurrently");
+        }
+        changeTracker.recordChange(SyncEntityType.TASK, taskId, targetProcessId);
+        taskRollupService.removeFromAncestors(taskId);
+        taskHierarchyService.moveSubtree(taskId, parentTaskId);
+        taskRollupService.addToAncestors(taskId);
+        if (processChanged) {
+            moveDescendantsToProcess(taskId, targetProcessId);
+        }
+
+        // The former and the new parent changed their subtasks
+        Set<Long> parentIds = new LinkedHashSet<>();
+        if (previousParentId != null) parentIds.add(previousParentId);
+        if (parentTaskId != null) parentIds.add(parentTaskId);
+        if (!parentIds.isEmpty()) {
+            taskRepository.touchAll(parentIds, changeVersion);
+            for (Long parentId : parentIds) {
+                changeTracker.recordChange(SyncEntityType.TASK, parentId,
+                    parentId.equals(parentTaskId) ? targetProcessId : previousProcessId);
+            }
+        }
+        // Both processes changed their task IDs
+        if (processChanged) {
+            processRepository.touchAll(List.of(previousProcessId, targetProcessId), changeVersion);
+            changeTracker.recordChange(SyncEntityType.PROCESS, previousProcessId, previousProcessId);
+            changeTracker.recordChange(SyncEntityType.PROCESS, targetProcessId, targetProcessId);
+        }
+        return Optional.of(taskTreeLoader.loadTasks(List.of(taskId)).get(0));
+    }
+
+    /**
+     * Rewrites the process of every task below taskId with one statement; the tasks are not loaded.
+     */
+    private void moveDescendantsToProcess(Long taskId, Long processId) {
+        List<Long> descendantIds = taskHierarchyService.findDescendantIds(taskId);
+        if (descendantIds.isEmpty()) {
+            return;
+        }
+        taskRepository.moveDescendantsToProcess(taskId, processId, changeTracker.currentVersion());
+        for (Long descendantId : descendantIds) {
+            changeTracker.recordChange(SyncEntityType.TASK, descendantId, processId);
+        }
+    }
+
     /**
      * Recursively set parent and process for subtasks and their children.
      */
@@ -122,21 +392,6 @@ public class TaskServiceImpl implements TaskService {
         }
     }
 
-    /**
-     * Returns true if candidateAncestor is an ancestor (direct or indirect parent) of node.
-     */
-    private boolean isAncestorOf(Task candidateAncestor, Task node) {
-        Task cursor = node.getParentTask();
-        while (cursor != null) {
-            if (cursor.getId() != null && candidateAncestor.getId() != null
-                && cursor.getId().equals(candidateAncestor.getId())) {
-                return true;
-            }
-            cursor = cursor.getParentTask();
-        }
-        return false;
-    }
-
     /**
      * Validate that there are no cycles within the provided task tree (DTO->entity graph) before persisting.
      * Uses taskId when present; otherwise falls back to object identity to detect self-reference.
@@ -182,6 +437,10 @@ public class TaskServiceImpl implements TaskService {
         if (processId != null) {
             ProcessEntity process = processRepository.findById(processId)
                 .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("Process not found with id: " + processId));
+            // The task's own update only reaches the tree version of its new process
+            if (task.getProcess() != null && task.getProcess() != process) {
+                changeTracker.touchProcessTree(task.getProcess().getId());
+            }
             task.setProcess(process);
         }
     }
@@ -194,11 +453,106 @@ public class TaskServiceImpl implements TaskService {
             if (t.getSubTasks() != null && !t.getSubTasks().isEmpty()) {
                 throw new IllegalArgumentException("Cannot delete task with id " + id + " because it has subtasks.");
             }
+            taskRollupService.removeFromAncestors(id);
+            employeeWorkloadService.removeSubtree(id);
+            taskHierarchyService.removeSubtree(id);
+            // The parent loses a subtask and the process loses a task ID
+            Map<Long, Long> parentProcessIds = new HashMap<>();
+            if (t.getParentTask() != null) {
+                parentProcessIds.put(t.getParentTask().getId(), t.getProcess().getId());
+            }
+            Set<Long> processIds = Set.of(t.getProcess().getId());
             taskRepository.delete(t);
+            touchContainers(parentProcessIds, processIds);
             return true;
         }).orElse(false);
     }
 
+    @Override
+    @Transactional
+    public Optional<Integer> deleteSubtree(Long taskId) {
+        List<TaskRowDTO> rows = taskRepository.findRowsByIds(List.of(taskId));
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        TaskRowDTO root = rows.get(0);
+        List<Long> ids = new ArrayList<>();
+        ids.add(taskId);
+        ids.addAll(taskHierarchyService.findDescendantIds(taskId));
+
+        // Every statement selects the subtree through task_closure, so its rows go last
+        taskRollupService.removeFromAncestors(taskId);
+        employeeWorkloadService.removeSubtree(taskId);
+        taskRepository.deleteSubtreeAssignees(taskId);
+        taskRepository.deleteSubtreeSkills(taskId);
+        taskRepository.deleteSubtreeDepartments(taskId);
+        taskRepository.unlinkSubtree(taskId);
+        taskRepository.deleteSubtree(taskId);
+        taskHierarchyService.removeSubtree(taskId);
+        changeTracker.recordDeletions(SyncEntityType.TASK, ids, root.getProcessId());
+
+        // The parent lost a subtask and the process lost task IDs
+        long changeVersion = changeTracker.currentVersion();
+        if (root.getParentTaskId() != null) {
+            taskRepository.touchAll(List.of(root.getParentTaskId()), changeVersion);
+            changeTracker.recordChange(SyncEntityType.TASK, root.getParentTaskId(), root.getProcessId());
+        }
+        processRepository.touchAll(List.of(root.getProcessId()), changeVersion);
+        changeTracker.recordChange(SyncEntityType.PROCESS, root.getProcessId(), root.getProcessId());
+        return Optional.of(ids.size());
+    }
+
+    @Override
+    @Transactional
+    public Optional<SubtreeUpdateDTO> setSubtreeCompleted(Long taskId, boolean completed) {
+        List<TaskRowDTO> rows = taskRepository.findRowsByIds(List.of(taskId));
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Long processId = rows.get(0).getProcessId();
+        List<Long> changedIds = taskRepository.findSubtreeIdsNotCompleted(taskId, completed);
+        if (!changedIds.isEmpty()) {
+            employeeWorkloadService.subtreeCompleting(taskId, completed);
+            taskRepository.setSubtreeCompleted(taskId, completed, changeTracker.currentVersion());
+            taskRollupService.subtreeCompleted(taskId, completed, changedIds.size());
+            for (Long id : changedIds) {
+                changeTracker.recordChange(SyncEntityType.TASK, id, processId);
+            }
+        }
+        return Optional.of(new SubtreeUpdateDTO(taskHierarchyService.subtreeSize(taskId), changedIds.size()));
+    }
+
+    @Override
+    @Transactional
+    public Optional<SubtreeUpdateDTO> replaceSubtreeAssignees(Long taskId, List<Long> employeeIds) {
+        List<TaskRowDTO> rows = taskRepository.findRowsByIds(List.of(taskId));
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<Long> employees = new LinkedHashSet<>(employeeIds != null ? employeeIds : List.of());
+        if (employees.contains(null)) {
+            throw new IllegalArgumentException("Employee IDs must not be null");
+        }
+        if (!employees.isEmpty() && employeeRepository.countByIds(employees) != employees.size()) {
+            throw new IllegalArgumentException("Employee not found among ids: " + employees);
+        }
+
+        Long processId = rows.get(0).getProcessId();
+        List<Long> ids = new ArrayList<>();
+        ids.add(taskId);
+        ids.addAll(taskHierarchyService.findDescendantIds(taskId));
+        employeeWorkloadService.removeSubtree(taskId);
+        int removed = taskRepository.deleteSubtreeAssignees(taskId);
+        int added = employees.isEmpty() ? 0 : taskRepository.insertSubtreeAssignees(taskId, employees);
+        taskRollupService.subtreeAssigned(taskId, employees.size(), added - removed);
+        employeeWorkloadService.addSubtree(taskId);
+        taskRepository.touchSubtree(taskId, changeTracker.currentVersion());
+        for (Long id : ids) {
+            changeTracker.recordChange(SyncEntityType.TASK, id, processId);
+        }
+        return Optional.of(new SubtreeUpdateDTO(ids.size(), ids.size()));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public TaskWithEmployeesDTO getTaskWithEmployees(Long id) {
@@ -215,7 +569,12 @@ public class TaskServiceImpl implements TaskService {
         Employee employee = employeeRepository.findById(employeeId)
             .orElseThrow(() -> new IllegalArgumentException("Employee not found with id: " + employeeId));
         if (task.getEmployees() != null && task.getEmployees().remove(employee)) {
+            changeTracker.touch(task);
             taskRepository.save(task);
+            taskRollupService.adjustAncestors(taskId, 0, 0, -1);
+            if (!task.isCompleted()) {
+                employeeWorkloadService.adjust(List.of(employeeId), -1);
+            }
         }
     }
 
@@ -243,12 +602,24 @@ public class TaskServiceImpl implements TaskService {
         }
 
         // Save the new task FIRST to get a persistent entity with ID
+        taskRollupService.initialize(newTask);
         Task savedNewTask = taskRepository.saveAndFlush(newTask);
+        taskHierarchyService.registerSubtree(savedNewTask);
+        taskRollupService.addToAncestors(savedNewTask.getId());
+        employeeWorkloadService.addSubtree(savedNewTask.getId());
 
         // Update child's parent to point to the new task
         // This is the owning side of the relationship, so this is what matters
         childTask.setParentTask(savedNewTask);
         taskRepository.saveAndFlush(childTask);
+        taskRollupService.removeFromAncestors(childTaskId);
+        taskHierarchyService.moveSubtree(childTaskId, savedNewTask.getId());
+        taskRollupService.addToAncestors(childTaskId);
+        taskRollupService.recomputeFromSubtasks(savedNewTask);
+        // The parent swaps a subtask and the process gains a task ID. This clears the persistence
+        // context, so the new task is read again below, with its rollups.
+        Long processId = parentTask.getProcess().getId();
+        touchContainers(Map.of(parentTaskId, processId), Set.of(processId));
 
         // DO NOT modify parentTask.getSubTasks() collection directly!
         // orphanRemoval=true will delete the child if we remove it from the collection.
@@ -258,8 +629,33 @@ public class TaskServiceImpl implements TaskService {
         return taskRepository.findById(savedNewTask.getId()).orElse(savedNewTask);
     }
 
+    /**
+     * Stamps tasks that gained or lost subtasks and processes that gained or lost tasks with the
+     * current change version. Their version is incremented with a set-based statement instead of
+     * a version-checked update of the entity, so concurrent writers adding or removing tasks
+     * below the same parent or in the same process do not conflict. Clears the persistence context.
+     * @param parentProcessIds Process of each touched parent task, by the parent's ID
+     * @param processIds Touched processes
+     */
+    private void touchContainers(Map<Long, Long> parentProcessIds, Set<Long> processIds) {
+        long changeVersion = changeTracker.currentVersion();
+        if (!parentProcessIds.isEmpty()) {
+            taskRepository.touchAll(parentProcessIds.keySet(), changeVersion);
+            parentProcessIds.forEach((parentId, processId) ->
+                changeTracker.recordChange(SyncEntityType.TASK, parentId, processId));
+        }
+        if (!processIds.isEmpty()) {
+            processRepository.touchAll(processIds, changeVersion);
+            for (Long processId : processIds) {
+                changeTracker.recordChange(SyncEntityType.PROCESS, processId, processId);
+            }
+        }
+    }
+
     @Override
     public Task save(Task task) {
+        // Callers use this for join-table changes (skills, departments)
+        changeTracker.touch(task);
         return taskRepository.save(task);
     }
 }
@@ -0,0 +1,69 @@
+package com.proseed.services.impl;
+
+import com.proseed.DTOs.Mappers.TaskMapper;
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.repos.TaskRepository;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads task trees as DTOs without touching lazy entity collections.
+ * All tasks of a process are read with one flat query, their assignees, skills and
+ * departments with one query each, and the tree is linked in memory.
+ * The number of statements is therefore fixed, regardless of the size or depth of the tree.
+ */
+@Component
+public class TaskTreeLoader {
+    private final TaskRepository taskRepository;
+
+    public TaskTreeLoader(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Returns the top-level tasks of a process with all subtasks nested below them.
+     * @param processId The ID of the process.
+     * @return List of top-level TaskDTOs; empty if the process has no tasks.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> loadProcessTree(Long processId) {
+        Map<Long, TaskDTO> byId = TaskMapper.toFlatTaskDTOs(
+            taskRepository.findRowsByProcessId(processId),
+            taskRepository.findAssigneeLinksByProcessId(processId),
+            taskRepository.findSkillLinksByProcessId(processId),
+            taskRepository.findDepartmentLinksByProcessId(processId)
+        );
+        return TaskMapper.toTaskTree(byId);
+    }
+
+    /**
+     * Returns the given tasks as flat TaskDTOs, ordered by ID.
+     * Their subTasks hold shallow entries for the direct children only (no assignees, skills,
+     * departments or grandchildren), so no subtree is serialized more than once.
+     * @param taskIds IDs of the tasks to load.
+     * @return TaskDTOs for the tasks that exist.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> loadTasks(List<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, TaskDTO> byId = TaskMapper.toFlatTaskDTOs(
+            taskRepository.findRowsByIds(taskIds),
+            taskRepository.findAssigneeLinksByTaskIds(taskIds),
+            taskRepository.findSkillLinksByTaskIds(taskIds),
+            taskRepository.findDepartmentLinksByTaskIds(taskIds)
+        );
+        Map<Long, TaskDTO> children = TaskMapper.toFlatTaskDTOs(
+            taskRepository.findChildRowsByParentIds(taskIds), List.of(), List.of(), List.of());
+        for (TaskDTO child : children.values()) {
+            byId.get(child.getParentTaskId()).getSubTasks().add(child);
+        }
+        return new ArrayList<>(byId.values());
+    }
+}
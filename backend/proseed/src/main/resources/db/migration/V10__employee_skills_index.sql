@@ -0,0 +1,3 @@
+-- Flyway V10: index for finding the holders of a skill, e.g. to unlink them when the skill is deleted
+
+CREATE INDEX IF NOT EXISTS IDX_EMPLOYEE_SKILLS_SKILL ON employee_skills_mapping (skill_id, employee_id);
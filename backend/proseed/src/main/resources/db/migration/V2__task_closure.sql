@@ -0,0 +1,10 @@
+-- Flyway V2: ancestor/descendant index of the task hierarchy
+
+CREATE TABLE IF NOT EXISTS task_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IDX_TASK_CLOSURE_DESCENDANT ON task_closure (descendant_id, depth);
@@ -0,0 +1,28 @@
+-- Flyway V3: pooled id sequences (INCREMENT BY must match allocationSize on the entities)
+-- Each sequence is moved past the ids that already exist in its table.
+
+CREATE SEQUENCE IF NOT EXISTS department_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS employee_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS employee_profile_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS employee_skill_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS privilege_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS process_entity_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS role_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 1 INCREMENT BY 50;
+
+SET @next = (SELECT COALESCE(MAX(department_id), 0) + 1 FROM department);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(department_seq, ', @next, ')');
+SET @next = (SELECT COALESCE(MAX(employee_id), 0) + 1 FROM employee);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(employee_seq, ', @next, ')');
+SET @next = (SELECT COALESCE(MAX(id), 0) + 1 FROM employee_profile);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(employee_profile_seq, ', @next, ')');
+SET @next = (SELECT COALESCE(MAX(skill_id), 0) + 1 FROM employee_skill);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(employee_skill_seq, ', @next, ')');
+SET @next = (SELECT COALESCE(MAX(privilege_id), 0) + 1 FROM privilege);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(privilege_seq, ', @next, ')');
+SET @next = (SELECT COALESCE(MAX(id), 0) + 1 FROM process_entity);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(process_entity_seq, ', @next, ')');
+SET @next = (SELECT COALESCE(MAX(role_id), 0) + 1 FROM role);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(role_seq, ', @next, ')');
+SET @next = (SELECT COALESCE(MAX(id), 0) + 1 FROM task);
+EXECUTE IMMEDIATE CONCAT('SELECT SETVAL(task_seq, ', @next, ')');
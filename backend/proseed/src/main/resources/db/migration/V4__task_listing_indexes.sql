@@ -0,0 +1,8 @@
+-- Flyway V4: indexes for the filtered, keyset-paginated task listing
+
+CREATE INDEX IF NOT EXISTS IDX_TASK_PROCESS ON task (process_id, id);
+CREATE INDEX IF NOT EXISTS IDX_TASK_PARENT ON task (parent_task_id, id);
+CREATE INDEX IF NOT EXISTS IDX_TASK_COMPLETED ON task (is_completed, id);
+CREATE INDEX IF NOT EXISTS IDX_TASK_ASSIGNEES_EMPLOYEE ON task_assignees (employee_id, task_id);
+CREATE INDEX IF NOT EXISTS IDX_TASK_SKILLS_SKILL ON task_skills_mapping (skill_id, task_id);
+CREATE INDEX IF NOT EXISTS IDX_TASK_DEPARTMENTS_DEPARTMENT ON task_departments_mapping (department_id, task_id);
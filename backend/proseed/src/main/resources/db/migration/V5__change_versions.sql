@@ -0,0 +1,18 @@
+-- Flyway V5: change versions and tombstones for delta sync
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE process_entity ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE employee ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS IDX_TASK_CHANGE_VERSION ON task (change_version);
+CREATE INDEX IF NOT EXISTS IDX_PROCESS_CHANGE_VERSION ON process_entity (change_version);
+CREATE INDEX IF NOT EXISTS IDX_EMPLOYEE_CHANGE_VERSION ON employee (change_version);
+
+CREATE TABLE IF NOT EXISTS change_tombstone (
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    change_version BIGINT NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+CREATE INDEX IF NOT EXISTS IDX_CHANGE_TOMBSTONE_VERSION ON change_tombstone (change_version);
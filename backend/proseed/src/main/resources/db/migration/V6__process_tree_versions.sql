@@ -0,0 +1,7 @@
+-- Flyway V6: per-process tree versions, used as ETag of the process read endpoints
+
+ALTER TABLE process_entity ADD COLUMN IF NOT EXISTS tree_version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE process_entity p
+SET tree_version = GREATEST(p.change_version,
+    COALESCE((SELECT MAX(t.change_version) FROM task t WHERE t.process_id = p.id), 0));
@@ -0,0 +1,5 @@
+-- Flyway V7: version columns for optimistic locking
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE process_entity ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE employee ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
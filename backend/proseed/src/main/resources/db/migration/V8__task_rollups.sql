@@ -0,0 +1,6 @@
+-- Flyway V8: progress rollups per task (tasks, completed tasks and assignments below it)
+-- The values are computed from task_closure on startup (TaskHierarchyInitializer).
+
+ALTER TABLE task ADD COLUMN IF NOT EXISTS descendant_count INT NOT NULL DEFAULT 0;
+ALTER TABLE task ADD COLUMN IF NOT EXISTS completed_descendant_count INT NOT NULL DEFAULT 0;
+ALTER TABLE task ADD COLUMN IF NOT EXISTS descendant_assignment_count INT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Flyway V9: number of open (not completed) tasks each employee is assigned to
+-- The values are computed from task_assignees on startup (TaskHierarchyInitializer).
+
+ALTER TABLE employee ADD COLUMN IF NOT EXISTS open_task_count INT NOT NULL DEFAULT 0;
@@ -0,0 +1,125 @@
+package com.proseed.benchmarks;
+
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.entities.Employee;
+import com.proseed.entities.ProcessEntity;
+import com.proseed.entities.Task;
+import com.proseed.services.EmployeeService;
+import com.proseed.services.ProcessService;
+import com.proseed.services.TaskClaimService;
+import com.proseed.services.TaskService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures claims per second when many workers pull tasks from one process at the same time
+ * through TaskClaimService.claim. Against H2 this exercises the compare-and-set fallback; run it
+ * with {@code SPRING_PROFILES_ACTIVE=dev-maria} to measure SKIP LOCKED.
+ * Excluded from the normal test run; start it with {@code ./gradlew test -Pbenchmarks}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class TaskClaimContentionBenchmark {
+
+    private static final int TASKS = 5_000;
+    private static final int WORKERS = 500;
+    private static final int EMPLOYEES = 50;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TaskClaimService taskClaimService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates one root task with TASKS leaves below it; the root itself has subtasks and is never claimed.
+     */
+    private long createProcess() {
+        ProcessEntity process = new ProcessEntity();
+        process.setName("Claim Benchmark");
+        long processId = processService.create(process).getId();
+        Task root = newTask("claim-root");
+        for (int i = 0; i < TASKS; i++) {
+            root.getSubTasks().add(newTask("claim-" + i));
+        }
+        taskService.create(processId, root, null);
+        return processId;
+    }
+
+    private Task newTask(String name) {
+        Task task = new Task();
+        task.setName(name);
+        task.setSubTasks(new LinkedHashSet<>());
+        return task;
+    }
+
+    @Test
+    void claimConcurrently_everyTaskExactlyOnce() throws Exception {
+        long processId = createProcess();
+        List<Long> employeeIds = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = new Employee();
+            employee.setFirstName("Worker");
+            employee.setLastName(String.valueOf(i));
+            employeeIds.add(employeeService.create(employee).getEmployeeId());
+        }
+
+        Set<Long> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int worker = 0; worker < WORKERS; worker++) {
+                long employeeId = employeeIds.get(worker % EMPLOYEES);
+                results.add(workers.submit(() -> {
+                    Optional<TaskDTO> task;
+                    while ((task = taskClaimService.claim(employeeId, processId)).isPresent()) {
+                        if (!claimed.add(task.get().getId())) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(duplicates.get()).isZero();
+        assertThat(claimed).hasSize(TASKS);
+        Integer doublyStaffed = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM (SELECT a.task_id FROM task_assignees a JOIN task t ON t.id = a.task_id "
+                + "WHERE t.process_id = ? GROUP BY a.task_id HAVING COUNT(*) > 1) d",
+            Integer.class, processId);
+        assertThat(doublyStaffed).isZero();
+
+        System.out.printf("[TaskClaimContention] %,d tasks, %d workers in %.2f s -> %,.0f claims/s%n",
+            TASKS, WORKERS, seconds, TASKS / seconds);
+    }
+}
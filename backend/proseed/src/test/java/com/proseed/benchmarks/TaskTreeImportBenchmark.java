@@ -0,0 +1,104 @@
+package com.proseed.benchmarks;
+
+import com.proseed.entities.ProcessEntity;
+import com.proseed.entities.Task;
+import com.proseed.services.ProcessService;
+import com.proseed.services.TaskService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures rows per second for importing one large nested task tree through TaskService.create.
+ * Excluded from the normal test run; start it with {@code ./gradlew test -Pbenchmarks}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class TaskTreeImportBenchmark {
+
+    private static final int NODES = 50_000;
+    private static final int FAN_OUT = 8;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Builds a tree of NODES tasks, filled breadth-first with FAN_OUT children per task.
+     */
+    private Task buildTree(String prefix) {
+        Task root = newTask(prefix + "-0");
+        Deque<Task> open = new ArrayDeque<>();
+        open.add(root);
+        int created = 1;
+        while (created < NODES) {
+            Task parent = open.poll();
+            for (int i = 0; i < FAN_OUT && created < NODES; i++) {
+                Task child = newTask(prefix + "-" + created++);
+                parent.getSubTasks().add(child);
+                open.add(child);
+            }
+        }
+        return root;
+    }
+
+    private Task newTask(String name) {
+        Task task = new Task();
+        task.setName(name);
+        task.setSubTasks(new LinkedHashSet<>());
+        return task;
+    }
+
+    /**
+     * Imports one tree in a single transaction and returns rows per second.
+     * A batch size of 1 sends every insert in its own round trip, as IDENTITY ids used to force.
+     */
+    private double importTree(String label, Integer batchSize) {
+        ProcessEntity process = new ProcessEntity();
+        process.setName("Benchmark " + label);
+        long processId = processService.create(process).getId();
+        Task root = buildTree(label);
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long start = System.nanoTime();
+        Task saved = tx.execute(status -> {
+            if (batchSize != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            }
+            return taskService.create(processId, root, null);
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertThat(saved.getId()).isNotNull();
+
+        double rowsPerSecond = NODES / seconds;
+        System.out.printf("[TaskTreeImport] %-8s %,d tasks in %.2f s -> %,.0f rows/s%n", label, NODES, seconds, rowsPerSecond);
+        return rowsPerSecond;
+    }
+
+    @Test
+    void importLargeTree_unbatchedVersusBatched() {
+        double unbatched = importTree("unbatched", 1);
+        double batched = importTree("batched", null);
+        System.out.printf("[TaskTreeImport] speed-up x%.1f%n", batched / unbatched);
+    }
+}
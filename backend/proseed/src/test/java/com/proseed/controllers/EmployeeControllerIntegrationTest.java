@@ -2,6 +2,7 @@ package com.proseed.controllers;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.proseed.support.TestSummaryExtension;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -138,6 +140,202 @@ class EmployeeControllerIntegrationTest {
             .andExpect(status().isNotFound());
     }
 
+    private long createSkill(String name) throws Exception {
+        String json = mockMvc.perform(post("/api/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(objectMapper.createObjectNode().put("name", name))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private ObjectNode skillEntry(long employeeId, long... skillIds) {
+        ObjectNode entry = objectMapper.createObjectNode().put("employeeId", employeeId);
+        ArrayNode ids = entry.putArray("skillIds");
+        for (long skillId : skillIds) {
+            ids.add(skillId);
+        }
+        return entry;
+    }
+
+    @Test
+    void patchEmployee_skillIds_shouldReplaceSkillSet() throws Exception {
+        long id = createEmployee("Skilled", "Employee");
+        long javaSkill = createSkill("Patch Java");
+        long sql = createSkill("Patch SQL");
+        long react = createSkill("Patch React");
+
+        mockMvc.perform(patch("/api/employees/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"skillIds\":[" + javaSkill + "," + sql + "]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.skills[*].id", containsInAnyOrder((int) javaSkill, (int) sql)));
+        long version = objectMapper.readTree(mockMvc.perform(get("/api/employees/{id}", id))
+            .andReturn().getResponse().getContentAsString()).get("version").asLong();
+
+        mockMvc.perform(patch("/api/employees/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"skillIds\":[" + sql + "," + react + "]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.skills[*].name", containsInAnyOrder("Patch SQL", "Patch React")))
+            .andExpect(jsonPath("$.version").value(version + 1));
+
+        mockMvc.perform(patch("/api/employees/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"skillIds\":[" + sql + ", 987654]}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/employees/{id}", id))
+            .andExpect(jsonPath("$.skills", hasSize(2)));
+    }
+
+    @Test
+    void replaceSkills_shouldOnlyChangeDifferingEmployees() throws Exception {
+        long first = createEmployee("Bulk", "First");
+        long second = createEmployee("Bulk", "Second");
+        long design = createSkill("Bulk Design");
+        long testing = createSkill("Bulk Testing");
+
+        ArrayNode entries = objectMapper.createArrayNode();
+        entries.add(skillEntry(first, design, testing));
+        entries.add(skillEntry(second, design));
+        mockMvc.perform(put("/api/employees/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entries)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.employees").value(2))
+            .andExpect(jsonPath("$.changedEmployees").value(2))
+            .andExpect(jsonPath("$.addedLinks").value(3))
+            .andExpect(jsonPath("$.removedLinks").value(0));
+        long secondVersion = objectMapper.readTree(mockMvc.perform(get("/api/employees/{id}", second))
+            .andReturn().getResponse().getContentAsString()).get("version").asLong();
+
+        entries = objectMapper.createArrayNode();
+        entries.add(skillEntry(first, testing));
+        entries.add(skillEntry(second, design));
+        mockMvc.perform(put("/api/employees/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entries)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.changedEmployees").value(1))
+            .andExpect(jsonPath("$.addedLinks").value(0))
+            .andExpect(jsonPath("$.removedLinks").value(1));
+        mockMvc.perform(get("/api/employees/{id}", first))
+            .andExpect(jsonPath("$.skills[*].id", containsInAnyOrder((int) testing)));
+        mockMvc.perform(get("/api/employees/{id}", second))
+            .andExpect(jsonPath("$.version").value(secondVersion));
+
+        entries = objectMapper.createArrayNode();
+        entries.add(skillEntry(first));
+        entries.add(skillEntry(first, design));
+        mockMvc.perform(put("/api/employees/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entries)))
+            .andExpect(status().isBadRequest());
+        entries = objectMapper.createArrayNode();
+        entries.add(skillEntry(first));
+        entries.add(skillEntry(888888L, design));
+        mockMvc.perform(put("/api/employees/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entries)))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/employees/{id}", first))
+            .andExpect(jsonPath("$.skills", hasSize(1)));
+    }
+
+    @Test
+    void deleteSkill_shouldUnlinkHoldersAndRequiringTasks() throws Exception {
+        long holder = createEmployee("Holder", "Employee");
+        long skill = createSkill("Deleted Skill");
+        long kept = createSkill("Kept Skill");
+        mockMvc.perform(patch("/api/employees/{id}", holder)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"skillIds\":[" + skill + "," + kept + "]}"))
+            .andExpect(status().isOk());
+        long version = objectMapper.readTree(mockMvc.perform(get("/api/employees/{id}", holder))
+            .andReturn().getResponse().getContentAsString()).get("version").asLong();
+
+        ObjectNode process = objectMapper.createObjectNode().put("name", "Skill Deletion");
+        long processId = objectMapper.readTree(mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(process)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        ObjectNode task = objectMapper.createObjectNode().put("name", "Needs the skill");
+        long taskId = objectMapper.readTree(mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(put("/api/tasks/{id}/requirements", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"skillIds\":[" + skill + "," + kept + "]}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/skills/{id}", skill))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/skills/{id}", skill))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/employees/{id}", holder))
+            .andExpect(jsonPath("$.skills[*].id", containsInAnyOrder((int) kept)))
+            .andExpect(jsonPath("$.version").value(version + 1));
+        mockMvc.perform(get("/api/tasks/{id}", taskId))
+            .andExpect(jsonPath("$.skills[*].id", containsInAnyOrder((int) kept)));
+    }
+
+    @Test
+    void reassign_shouldMoveOnlyEmployeesNotYetThere() throws Exception {
+        long first = createEmployee("Moved", "First");
+        long second = createEmployee("Moved", "Second");
+        long roleId = objectMapper.readTree(mockMvc.perform(post("/api/roles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"REASSIGN_TARGET\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        long departmentId = objectMapper.readTree(mockMvc.perform(post("/api/departments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Reassign Target\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(patch("/api/employees/{id}", first)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"roleId\":" + roleId + "}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.role.name").value("REASSIGN_TARGET"));
+        long firstVersion = objectMapper.readTree(mockMvc.perform(get("/api/employees/{id}", first))
+            .andReturn().getResponse().getContentAsString()).get("version").asLong();
+
+        mockMvc.perform(put("/api/employees/reassign")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + first + "," + second + ", 999999],\"roleId\":" + roleId + "}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.employees").value(2))
+            .andExpect(jsonPath("$.changedEmployees").value(1));
+        mockMvc.perform(get("/api/employees/{id}", first))
+            .andExpect(jsonPath("$.version").value(firstVersion));
+        mockMvc.perform(get("/api/employees/{id}", second))
+            .andExpect(jsonPath("$.role.id").value(roleId));
+
+        mockMvc.perform(put("/api/employees/reassign")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + first + "," + second + "],\"departmentId\":" + departmentId + "}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.changedEmployees").value(2));
+        mockMvc.perform(get("/api/employees/{id}", first))
+            .andExpect(jsonPath("$.department.name").value("Reassign Target"))
+            .andExpect(jsonPath("$.role.id").value(roleId));
+
+        mockMvc.perform(put("/api/employees/reassign")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + first + "],\"roleId\":987654}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/employees/reassign")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + first + "]}"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deleteEmployee_shouldReturn204() throws Exception {
         long id = createEmployee("Delete", "Me");
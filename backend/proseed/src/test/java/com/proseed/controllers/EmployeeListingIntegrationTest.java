@@ -0,0 +1,171 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class EmployeeListingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("EmployeeListing");
+
+    private long create(String path, String name) throws Exception {
+        String json = mockMvc.perform(post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(objectMapper.createObjectNode().put("name", name))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    /**
+     * Creates employees in a department and with a role, each holding the given skills.
+     */
+    private List<Long> createEmployees(String prefix, int count, long departmentId, long roleId,
+                                       long... skillIds) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        ArrayNode entries = objectMapper.createArrayNode();
+        for (int i = 0; i < count; i++) {
+            ObjectNode body = objectMapper.createObjectNode().put("firstName", prefix + i).put("lastName", "Listed");
+            long id = objectMapper.readTree(mockMvc.perform(post("/api/employees")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("employeeId").asLong();
+            ids.add(id);
+            ObjectNode entry = entries.addObject().put("employeeId", id);
+            ArrayNode skills = entry.putArray("skillIds");
+            for (long skillId : skillIds) {
+                skills.add(skillId);
+            }
+        }
+        mockMvc.perform(put("/api/employees/reassign")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                    .put("roleId", roleId)
+                    .put("departmentId", departmentId)
+                    .set("employeeIds", objectMapper.valueToTree(ids)))))
+            .andExpect(status().isOk());
+        mockMvc.perform(put("/api/employees/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(entries)))
+            .andExpect(status().isOk());
+        return ids;
+    }
+
+    private long countStatements(String path, Object... vars) throws Exception {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mockMvc.perform(get(path, vars))
+            .andExpect(status().isOk());
+        return stats.getPrepareStatementCount();
+    }
+
+    @Test
+    void listAndDetail_statementCountShouldNotGrowWithEmployeeCount() throws Exception {
+        long role = create("/api/roles", "LISTING_COUNT");
+        long first = create("/api/skills", "Listing Count A");
+        long second = create("/api/skills", "Listing Count B");
+        long smallDepartment = create("/api/departments", "Listing Small");
+        long largeDepartment = create("/api/departments", "Listing Large");
+        List<Long> small = createEmployees("Small", 2, smallDepartment, role, first, second);
+        List<Long> large = createEmployees("Large", 25, largeDepartment, role, first, second);
+
+        mockMvc.perform(get("/api/employees").param("departmentId", String.valueOf(largeDepartment)))
+            .andExpect(jsonPath("$", hasSize(25)))
+            .andExpect(jsonPath("$[0].department.id").value(largeDepartment))
+            .andExpect(jsonPath("$[0].role.id").value(role))
+            .andExpect(jsonPath("$[0].skills", hasSize(2)));
+
+        long smallList = countStatements("/api/employees?departmentId={id}", smallDepartment);
+        long largeList = countStatements("/api/employees?departmentId={id}", largeDepartment);
+        assertThat(largeList).isEqualTo(smallList);
+
+        long smallDetail = countStatements("/api/employees/{id}", small.get(0));
+        long largeDetail = countStatements("/api/employees/{id}", large.get(0));
+        assertThat(largeDetail).isEqualTo(smallDetail).isEqualTo(1);
+    }
+
+    @Test
+    void list_shouldFilterAndPageByCursor() throws Exception {
+        long department = create("/api/departments", "Listing Filter");
+        long developer = create("/api/roles", "LISTING_DEVELOPER");
+        long tester = create("/api/roles", "LISTING_TESTER");
+        long kotlin = create("/api/skills", "Listing Kotlin");
+        long go = create("/api/skills", "Listing Go");
+        List<Long> developers = createEmployees("Dev", 3, department, developer, kotlin);
+        List<Long> testers = createEmployees("Test", 2, department, tester, go);
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/employees").param("departmentId", String.valueOf(department)).param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+            for (JsonNode employee : objectMapper.readTree(response.getContentAsString())) {
+                paged.add(employee.get("id").asLong());
+            }
+            cursor = response.getHeader(TaskController.NEXT_CURSOR_HEADER);
+            pages++;
+        } while (cursor != null);
+        List<Long> all = new ArrayList<>(developers);
+        all.addAll(testers);
+        assertThat(paged).containsExactlyElementsOf(all);
+        assertThat(pages).isEqualTo(3);
+
+        mockMvc.perform(get("/api/employees").param("roleId", String.valueOf(tester)))
+            .andExpect(jsonPath("$[*].id", containsInAnyOrder(testers.stream().map(Long::intValue).toArray())));
+        mockMvc.perform(get("/api/employees")
+                .param("skillId", String.valueOf(kotlin))
+                .param("departmentId", String.valueOf(department)))
+            .andExpect(jsonPath("$", hasSize(3)));
+        mockMvc.perform(get("/api/employees")
+                .param("skillId", String.valueOf(go))
+                .param("roleId", String.valueOf(developer)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(get("/api/employees").param("cursor", "not a cursor"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+}
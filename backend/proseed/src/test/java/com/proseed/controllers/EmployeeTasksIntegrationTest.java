@@ -0,0 +1,185 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.repos.EmployeeWorkloadRepository;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EmployeeTasksIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeWorkloadRepository workloadRepository;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("EmployeeTasks");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long createEmployee(String firstName) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("firstName", firstName).put("lastName", "Workload");
+        String json = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("employeeId").asLong();
+    }
+
+    private ObjectNode task(String name, long... employeeIds) {
+        ObjectNode task = objectMapper.createObjectNode().put("name", name).put("completed", false);
+        var employees = task.putArray("employeeIds");
+        for (long employeeId : employeeIds) {
+            employees.add(employeeId);
+        }
+        task.putArray("subTasks");
+        return task;
+    }
+
+    private JsonNode createTask(long processId, ObjectNode task) throws Exception {
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private int openTaskCount(long employeeId) throws Exception {
+        String json = mockMvc.perform(get("/api/employees/{id}", employeeId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("openTaskCount").asInt();
+    }
+
+    @Test
+    void openTaskCount_shouldFollowAssignmentsCompletionAndDeletion() throws Exception {
+        long processId = createProcess("Workload Tree");
+        long first = createEmployee("First");
+        long second = createEmployee("Second");
+        ObjectNode branch = task("Branch", first);
+        branch.set("subTasks", objectMapper.createArrayNode()
+            .add(task("Leaf A", first, second))
+            .add(task("Leaf B", second)));
+        ObjectNode rootTask = task("Root");
+        rootTask.set("subTasks", objectMapper.createArrayNode().add(branch));
+        JsonNode root = createTask(processId, rootTask);
+        JsonNode createdBranch = root.get("subTasks").get(0);
+        long branchId = createdBranch.get("id").asLong();
+        long leafAId = -1;
+        for (JsonNode leaf : createdBranch.get("subTasks")) {
+            if (leaf.get("name").asText().equals("Leaf A")) {
+                leafAId = leaf.get("id").asLong();
+            }
+        }
+        assertThat(openTaskCount(first)).isEqualTo(2);
+        assertThat(openTaskCount(second)).isEqualTo(2);
+
+        // Completing a task takes it out of the count, reopening brings it back
+        mockMvc.perform(put("/api/tasks/{id}", leafAId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Leaf A\",\"completed\":true}"))
+            .andExpect(status().isOk());
+        assertThat(openTaskCount(first)).isEqualTo(1);
+        assertThat(openTaskCount(second)).isEqualTo(1);
+        mockMvc.perform(put("/api/tasks/{id}/subtree/completed", branchId).param("completed", "false"))
+            .andExpect(status().isOk());
+        assertThat(openTaskCount(second)).isEqualTo(2);
+
+        mockMvc.perform(delete("/api/tasks/{taskId}/employees/{employeeId}", leafAId, second))
+            .andExpect(status().isNoContent());
+        assertThat(openTaskCount(second)).isEqualTo(1);
+
+        mockMvc.perform(put("/api/tasks/{id}/subtree/assignees", branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + second + "]}"))
+            .andExpect(status().isOk());
+        assertThat(openTaskCount(first)).isZero();
+        assertThat(openTaskCount(second)).isEqualTo(3);
+
+        mockMvc.perform(delete("/api/tasks/{id}/subtree", branchId)).andExpect(status().isNoContent());
+        assertThat(openTaskCount(second)).isZero();
+
+        createTask(processId, task("Another", first));
+        assertThat(openTaskCount(first)).isEqualTo(1);
+        mockMvc.perform(delete("/api/processes/{id}", processId)).andExpect(status().isNoContent());
+        assertThat(openTaskCount(first)).isZero();
+        assertThat(workloadRepository.isConsistent()).isEqualTo(1);
+    }
+
+    @Test
+    void getEmployeeTasks_shouldPageThroughFilteredAssignments() throws Exception {
+        long processId = createProcess("Workload Listing");
+        long otherProcessId = createProcess("Workload Other");
+        long employee = createEmployee("Lister");
+        List<Long> openIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            openIds.add(createTask(processId, task("Open " + i, employee)).get("id").asLong());
+        }
+        createTask(processId, task("Done", employee).put("completed", true));
+        createTask(otherProcessId, task("Elsewhere", employee));
+        createTask(processId, task("Unassigned"));
+        assertThat(openTaskCount(employee)).isEqualTo(6);
+
+        List<Long> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/employees/{id}/tasks", employee)
+                .param("processId", String.valueOf(processId))
+                .param("completed", "false")
+                .param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+            for (JsonNode task : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                assertThat(task.get("employeeIds").toString()).contains(String.valueOf(employee));
+                listed.add(task.get("id").asLong());
+            }
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        assertThat(listed).containsExactlyElementsOf(openIds);
+
+        mockMvc.perform(get("/api/employees/{id}/tasks", employee))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(7)));
+        mockMvc.perform(get("/api/employees/{id}/tasks", employee).param("limit", "0"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees/{id}/tasks", 999999))
+            .andExpect(status().isNotFound());
+    }
+}
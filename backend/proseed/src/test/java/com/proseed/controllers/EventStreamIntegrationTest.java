@@ -0,0 +1,101 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class EventStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("EventStream");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long createTask(long processId, String name) throws Exception {
+        ObjectNode task = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private MockHttpServletResponse subscribe(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return result.getResponse();
+    }
+
+    /**
+     * Waits until the stream contains the given text, or fails after a few seconds.
+     */
+    private String awaitStream(MockHttpServletResponse stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            content = stream.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    // Matches one change in a "changes" event; IDs of different types may be equal, hence the type
+    private static String change(String type, long id) {
+        return "\"type\":\"" + type + "\",\"id\":" + id + ",";
+    }
+
+    @Test
+    void committedChanges_shouldBePushedToSubscribers() throws Exception {
+        MockHttpServletResponse all = subscribe("/api/events");
+        long processId = createProcess("Events Process");
+        MockHttpServletResponse process = subscribe("/api/processes/" + processId + "/events");
+        long otherProcessId = createProcess("Events Other");
+
+        long taskId = createTask(processId, "Pushed Task");
+        long otherTaskId = createTask(otherProcessId, "Other Task");
+
+        awaitStream(all, change("TASK", otherTaskId));
+        String processEvents = awaitStream(process, change("TASK", taskId));
+        assertThat(all.getContentAsString()).contains("event:changes", change("TASK", taskId));
+        // The process stream only carries changes of its own process
+        assertThat(processEvents).doesNotContain(change("TASK", otherTaskId));
+    }
+
+    @Test
+    void unknownProcess_shouldReturn404() throws Exception {
+        mockMvc.perform(get("/api/processes/999999/events").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isNotFound());
+    }
+}
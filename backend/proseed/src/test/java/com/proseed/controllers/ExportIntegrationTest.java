@@ -0,0 +1,116 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("Export");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long createTask(long processId, String name) throws Exception {
+        ObjectNode task = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private JsonNode export(String url) throws Exception {
+        MvcResult started = mockMvc.perform(get(url))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String json = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsString();
+        JsonNode array = objectMapper.readTree(json);
+        assertThat(array.isArray()).isTrue();
+        return array;
+    }
+
+    private List<Long> ids(JsonNode array, String field) {
+        List<Long> ids = new ArrayList<>();
+        array.forEach(node -> ids.add(node.get(field).asLong()));
+        return ids;
+    }
+
+    @Test
+    void exportTasks_shouldStreamEveryTaskOrderedById() throws Exception {
+        long processId = createProcess("Export Tasks");
+        long first = createTask(processId, "Export A");
+        long second = createTask(processId, "Export B");
+
+        List<Long> ids = ids(export("/api/tasks/export"), "id");
+
+        assertThat(ids).contains(first, second).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void exportProcesses_shouldIncludeTaskIds() throws Exception {
+        long processId = createProcess("Export Processes");
+        long taskId = createTask(processId, "Export P");
+
+        JsonNode exported = null;
+        for (JsonNode node : export("/api/processes/export")) {
+            if (node.get("id").asLong() == processId) {
+                exported = node;
+            }
+        }
+
+        assertThat(exported).isNotNull();
+        assertThat(exported.get("name").asText()).isEqualTo("Export Processes");
+        List<Long> taskIds = new ArrayList<>();
+        exported.get("taskIds").forEach(id -> taskIds.add(id.asLong()));
+        assertThat(taskIds).containsExactly(taskId);
+    }
+
+    @Test
+    void exportEmployees_shouldMatchListEndpoint() throws Exception {
+        String listed = mockMvc.perform(get("/api/employees"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        List<Long> exportedIds = ids(export("/api/employees/export"), "id");
+
+        assertThat(exportedIds).containsExactlyInAnyOrderElementsOf(ids(objectMapper.readTree(listed), "id"));
+        assertThat(exportedIds).isSorted();
+    }
+}
@@ -0,0 +1,231 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.entities.ProcessEntity;
+import com.proseed.repos.ProcessRepository;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OptimisticLockingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProcessRepository processRepository;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("OptimisticLocking");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private JsonNode createTask(long processId, String name) throws Exception {
+        ObjectNode task = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private String rename(String name) throws Exception {
+        return objectMapper.writeValueAsString(objectMapper.createObjectNode().put("name", name));
+    }
+
+    @Test
+    void updateTask_ifMatch_shouldRejectStaleVersion() throws Exception {
+        long processId = createProcess("Locking Tasks");
+        JsonNode task = createTask(processId, "Versioned");
+        long taskId = task.get("id").asLong();
+        long version = task.get("version").asLong();
+
+        String json = mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .header("If-Match", "\"" + version + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("First writer")))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(json).get("version").asLong()).isGreaterThan(version);
+
+        // A second writer that read the same version loses instead of overwriting the first
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .header("If-Match", "\"" + version + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("Second writer")))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/tasks/{id}", taskId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("First writer"));
+
+        // Without If-Match the update is not checked
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("Unconditional")))
+            .andExpect(status().isOk());
+    }
+
+    private long taskVersion(long taskId) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/tasks/{id}", taskId))
+            .andReturn().getResponse().getContentAsString()).get("version").asLong();
+    }
+
+    @Test
+    void childChanges_shouldGiveParentAndProcessNewVersion() throws Exception {
+        long processId = createProcess("Locking Children");
+        long parentId = createTask(processId, "Parent").get("id").asLong();
+        long parentVersion = taskVersion(parentId);
+        long processVersion = processRepository.findById(processId).orElseThrow().getVersion();
+
+        ObjectNode child = objectMapper.createObjectNode().put("name", "Child").put("parentTaskId", parentId);
+        long childId = objectMapper.readTree(mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(child)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.parentTaskId").value(parentId))
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        assertThat(taskVersion(parentId)).isGreaterThan(parentVersion);
+        assertThat(processRepository.findById(processId).orElseThrow().getVersion()).isGreaterThan(processVersion);
+
+        parentVersion = taskVersion(parentId);
+        long middleId = objectMapper.readTree(mockMvc.perform(post("/api/tasks/insert-between")
+                .param("parentTaskId", String.valueOf(parentId))
+                .param("childTaskId", String.valueOf(childId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("Middle")))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.parentTaskId").value(parentId))
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        assertThat(taskVersion(parentId)).isGreaterThan(parentVersion);
+
+        long middleVersion = taskVersion(middleId);
+        processVersion = processRepository.findById(processId).orElseThrow().getVersion();
+        mockMvc.perform(delete("/api/tasks/{id}", childId))
+            .andExpect(status().isNoContent());
+        assertThat(taskVersion(middleId)).isGreaterThan(middleVersion);
+        assertThat(processRepository.findById(processId).orElseThrow().getVersion()).isGreaterThan(processVersion);
+    }
+
+    @Test
+    void updateProcess_ifMatch_shouldRejectStaleVersion() throws Exception {
+        long processId = createProcess("Locking Process");
+        long version = objectMapper.readTree(mockMvc.perform(get("/api/processes/{id}", processId))
+            .andReturn().getResponse().getContentAsString()).get("version").asLong();
+
+        mockMvc.perform(put("/api/processes/{id}", processId)
+                .header("If-Match", String.valueOf(version))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("Renamed once")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(greaterThan(version), Long.class));
+
+        mockMvc.perform(put("/api/processes/{id}", processId)
+                .header("If-Match", String.valueOf(version))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("Renamed twice")))
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateProcess_ifMatchWithETag_shouldSucceedUntilTreeChanges() throws Exception {
+        long processId = createProcess("Locking ETag");
+        String eTag = mockMvc.perform(get("/api/processes/{id}", processId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(mockMvc.perform(get("/api/processes/{id}/tasks", processId))
+            .andReturn().getResponse().getHeader("ETag")).isEqualTo(eTag);
+
+        // The ETag of a read is a valid If-Match, and the response carries the next one
+        String next = mockMvc.perform(put("/api/processes/{id}", processId)
+                .header("If-Match", eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("Renamed by ETag")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Renamed by ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(next).isNotEqualTo(eTag);
+        mockMvc.perform(get("/api/processes/{id}", processId))
+            .andExpect(header().string("ETag", next))
+            .andExpect(jsonPath("$.version").value(ETags.expectedVersion(next)));
+
+        // A change to a task of the process makes the ETag stale
+        createTask(processId, "Changes the tree");
+        mockMvc.perform(put("/api/processes/{id}", processId)
+                .header("If-Match", next)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("Renamed with stale ETag")))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/processes/{id}", processId))
+            .andExpect(jsonPath("$.name").value("Renamed by ETag"));
+    }
+
+    @Test
+    void updateEmployee_ifMatch_shouldRejectStaleVersion() throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("firstName", "Lock").put("lastName", "Smith");
+        JsonNode employee = objectMapper.readTree(mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString());
+        long id = employee.get("employeeId").asLong();
+        long version = employee.get("version").asLong();
+
+        mockMvc.perform(patch("/api/employees/{id}", id)
+                .header("If-Match", "\"" + version + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastName\":\"Jones\"}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/employees/{id}", id)
+                .header("If-Match", "\"" + version + "\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/employees/{id}", id))
+            .andExpect(jsonPath("$.lastName").value("Jones"));
+    }
+
+    @Test
+    void staleEntity_shouldFailOnSave() throws Exception {
+        long processId = createProcess("Locking Race");
+        ProcessEntity stale = processRepository.findById(processId).orElseThrow();
+
+        mockMvc.perform(put("/api/processes/{id}", processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(rename("Committed first")))
+            .andExpect(status().isOk());
+
+        // What a concurrent update that loaded the old row runs into at commit; the controllers map it to 409
+        stale.setName("Committed second");
+        assertThatThrownBy(() -> processRepository.save(stale))
+            .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+}
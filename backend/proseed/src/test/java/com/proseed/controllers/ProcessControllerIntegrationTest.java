@@ -2,6 +2,7 @@ package com.proseed.controllers;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.proseed.support.TestSummaryExtension;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
@@ -163,4 +168,209 @@ class ProcessControllerIntegrationTest {
         mockMvc.perform(delete("/api/processes/{id}", 333333L))
             .andExpect(status().isNotFound());
     }
+
+    @Test
+    void deleteProcess_withTaskTree_shouldDeleteAllTasks() throws Exception {
+        long id = createProcess("Delete Tree");
+        ObjectNode child = objectMapper.createObjectNode().put("name", "Child");
+        ObjectNode parent = objectMapper.createObjectNode().put("name", "Parent");
+        parent.set("subTasks", objectMapper.createArrayNode().add(child));
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/api/tasks")
+                .param("processId", String.valueOf(id))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(parent)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString());
+        long parentId = created.get("id").asLong();
+        long childId = created.get("subTasks").get(0).get("id").asLong();
+        mockMvc.perform(put("/api/tasks/{id}/subtree/completed", parentId))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/processes/{id}", id))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/tasks/{id}", parentId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/tasks/{id}", childId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/processes/{id}", id)).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/processes/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteProcess_async_shouldReturnJobAndComplete() throws Exception {
+        long id = createProcess("Delete Async");
+        createTask(id, "Async Task");
+
+        String location = mockMvc.perform(delete("/api/processes/{id}", id).param("async", "true"))
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists("Location"))
+            .andExpect(jsonPath("$.processId").value(id))
+            .andReturn().getResponse().getHeader("Location");
+
+        String jobStatus = null;
+        for (int attempt = 0; attempt < 100 && !"COMPLETED".equals(jobStatus); attempt++) {
+            Thread.sleep(50);
+            jobStatus = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString())
+                .get("status").asText();
+        }
+        assertThat(jobStatus).isEqualTo("COMPLETED");
+        mockMvc.perform(get("/api/processes/{id}", id)).andExpect(status().isNotFound());
+
+        mockMvc.perform(delete("/api/processes/{id}", 333333L).param("async", "true"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/processes/deletions/{jobId}", "unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    private long createEntity(String path, ObjectNode body, String idField) throws Exception {
+        String json = mockMvc.perform(post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get(idField).asLong();
+    }
+
+    private JsonNode dashboardEntry(JsonNode dashboard, long processId) {
+        for (JsonNode entry : dashboard.get("processes")) {
+            if (entry.get("id").asLong() == processId) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void dashboard_shouldAggregateAndFollowChanges() throws Exception {
+        long id = createProcess("Dashboard");
+        long employeeId = createEntity("/api/employees",
+            objectMapper.createObjectNode().put("firstName", "Dash").put("lastName", "Board"), "employeeId");
+        long skillId = createEntity("/api/skills", objectMapper.createObjectNode().put("name", "Dashboarding"), "id");
+
+        ObjectNode staffed = objectMapper.createObjectNode().put("name", "Staffed");
+        staffed.putArray("employeeIds").add(employeeId);
+        staffed.putArray("subTasks").addObject().put("name", "Staffed Child");
+        long staffedId = createEntity("/api/tasks?processId=" + id, staffed, "id");
+        long skilledId = createEntity("/api/tasks?processId=" + id,
+            objectMapper.createObjectNode().put("name", "Needs Skill"), "id");
+        ObjectNode requirements = objectMapper.createObjectNode();
+        requirements.putArray("skillIds").add(skillId);
+        mockMvc.perform(put("/api/tasks/{id}/requirements", skilledId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requirements)))
+            .andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/{id}/subtree/completed", skilledId))
+            .andExpect(status().isOk());
+
+        var response = mockMvc.perform(get("/api/processes/dashboard"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse();
+        JsonNode entry = dashboardEntry(objectMapper.readTree(response.getContentAsString()), id);
+        assertThat(entry).isNotNull();
+        assertThat(entry.get("taskCount").asLong()).isEqualTo(3);
+        assertThat(entry.get("completedTaskCount").asLong()).isEqualTo(1);
+        assertThat(entry.get("completionPercent").asInt()).isEqualTo(33);
+        assertThat(entry.get("rootTaskCount").asLong()).isEqualTo(2);
+        assertThat(entry.get("assigneeCount").asLong()).isEqualTo(1);
+        assertThat(entry.get("unstaffedSkilledTaskCount").asLong()).isEqualTo(1);
+
+        // Nothing changed since
+        mockMvc.perform(get("/api/processes/dashboard").header("If-None-Match", response.getHeader("ETag")))
+            .andExpect(status().isNotModified());
+
+        // Deleting the staffed subtree is picked up without a full recomputation
+        mockMvc.perform(delete("/api/tasks/{id}/subtree", staffedId)).andExpect(status().isNoContent());
+        entry = dashboardEntry(objectMapper.readTree(mockMvc.perform(get("/api/processes/dashboard"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString()), id);
+        assertThat(entry.get("taskCount").asLong()).isEqualTo(1);
+        assertThat(entry.get("completionPercent").asInt()).isEqualTo(100);
+        assertThat(entry.get("assigneeCount").asLong()).isZero();
+
+        mockMvc.perform(delete("/api/processes/{id}", id)).andExpect(status().isNoContent());
+        JsonNode dashboard = objectMapper.readTree(mockMvc.perform(get("/api/processes/dashboard"))
+            .andReturn().getResponse().getContentAsString());
+        assertThat(dashboardEntry(dashboard, id)).isNull();
+    }
+
+    @Test
+    void autoAssign_shouldProposeAndApplyBalancedAssignments() throws Exception {
+        long id = createProcess("Auto Assign");
+        long skillId = createEntity("/api/skills", objectMapper.createObjectNode().put("name", "AutoAssignSkill"), "id");
+        long first = createEntity("/api/employees",
+            objectMapper.createObjectNode().put("firstName", "Auto").put("lastName", "First"), "employeeId");
+        long second = createEntity("/api/employees",
+            objectMapper.createObjectNode().put("firstName", "Auto").put("lastName", "Second"), "employeeId");
+        for (long employeeId : new long[] {first, second}) {
+            ObjectNode patch = objectMapper.createObjectNode();
+            patch.putArray("skillIds").add(skillId);
+            mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isOk());
+        }
+
+        // A parent with two leaves; only the leaves are staffed
+        ObjectNode parent = objectMapper.createObjectNode().put("name", "Auto Parent");
+        ArrayNode subTasks = parent.putArray("subTasks");
+        subTasks.addObject().put("name", "Leaf One");
+        subTasks.addObject().put("name", "Leaf Two");
+        long parentId = createEntity("/api/tasks?processId=" + id, parent, "id");
+        List<Long> leafIds = new ArrayList<>();
+        objectMapper.readTree(mockMvc.perform(get("/api/tasks/{id}", parentId))
+                .andReturn().getResponse().getContentAsString())
+            .get("subTasks").forEach(leaf -> leafIds.add(leaf.get("id").asLong()));
+        ObjectNode requirements = objectMapper.createObjectNode();
+        requirements.putArray("skillIds").add(skillId);
+        for (long leafId : leafIds) {
+            mockMvc.perform(put("/api/tasks/{id}/requirements", leafId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requirements)))
+                .andExpect(status().isOk());
+        }
+        // Nobody has this skill
+        long rareSkill = createEntity("/api/skills", objectMapper.createObjectNode().put("name", "AutoAssignRare"), "id");
+        long unmatchable = createEntity("/api/tasks?processId=" + id,
+            objectMapper.createObjectNode().put("name", "Unmatchable"), "id");
+        ObjectNode rare = objectMapper.createObjectNode();
+        rare.putArray("skillIds").add(rareSkill);
+        mockMvc.perform(put("/api/tasks/{id}/requirements", unmatchable)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(rare)))
+            .andExpect(status().isOk());
+
+        JsonNode proposal = objectMapper.readTree(mockMvc.perform(post("/api/processes/{id}/auto-assign", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.applied").value(false))
+            .andExpect(jsonPath("$.openLeafTaskCount").value(3))
+            .andExpect(jsonPath("$.assignments", hasSize(2)))
+            .andExpect(jsonPath("$.unmatchedTaskIds[0]").value(unmatchable))
+            .andReturn().getResponse().getContentAsString());
+        List<Long> proposedEmployees = new ArrayList<>();
+        proposal.get("assignments").forEach(a -> proposedEmployees.add(a.get("employeeId").asLong()));
+        // Balanced: one leaf each
+        assertThat(proposedEmployees).containsExactlyInAnyOrder(first, second);
+        mockMvc.perform(get("/api/tasks/{id}", leafIds.get(0)))
+            .andExpect(jsonPath("$.employeeIds", hasSize(0)));
+
+        mockMvc.perform(post("/api/processes/{id}/auto-assign", id).param("apply", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.applied").value(true))
+            .andExpect(jsonPath("$.assignments", hasSize(2)));
+        for (long leafId : leafIds) {
+            mockMvc.perform(get("/api/tasks/{id}", leafId))
+                .andExpect(jsonPath("$.employeeIds", hasSize(1)));
+        }
+        mockMvc.perform(get("/api/tasks/{id}", parentId))
+            .andExpect(jsonPath("$.descendantAssignmentCount").value(2));
+
+        // Everything staffable is staffed now
+        mockMvc.perform(post("/api/processes/{id}/auto-assign", id))
+            .andExpect(jsonPath("$.openLeafTaskCount").value(1))
+            .andExpect(jsonPath("$.assignments", hasSize(0)));
+        mockMvc.perform(post("/api/processes/{id}/auto-assign", 444444L))
+            .andExpect(status().isNotFound());
+    }
 }
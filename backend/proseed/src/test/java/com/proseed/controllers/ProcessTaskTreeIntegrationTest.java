@@ -0,0 +1,241 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ProcessTaskTreeIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("ProcessTaskTree");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    /**
+     * Builds a chain of the given depth where every level also has one leaf sibling.
+     */
+    private ObjectNode chain(String prefix, int depth) {
+        ObjectNode node = objectMapper.createObjectNode().put("name", prefix + depth).put("completed", false);
+        ArrayNode subs = objectMapper.createArrayNode();
+        subs.add(objectMapper.createObjectNode().put("name", prefix + depth + "-leaf").put("completed", true));
+        if (depth > 1) {
+            subs.add(chain(prefix, depth - 1));
+        }
+        node.set("subTasks", subs);
+        return node;
+    }
+
+    private void createTree(long processId, ObjectNode root) throws Exception {
+        mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(root)))
+            .andExpect(status().isCreated());
+    }
+
+    private long countStatements(long processId) throws Exception {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mockMvc.perform(get("/api/processes/{id}/tasks", processId))
+            .andExpect(status().isOk());
+        return stats.getPrepareStatementCount();
+    }
+
+    @Test
+    void getProcessTasks_shouldReturnFullyNestedTree() throws Exception {
+        long processId = createProcess("Tree Shape Process");
+        createTree(processId, chain("L", 4));
+
+        String json = mockMvc.perform(get("/api/processes/{id}/tasks", processId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tasks", hasSize(1)))
+            .andExpect(jsonPath("$.tasks[0].name").value("L4"))
+            .andExpect(jsonPath("$.tasks[0].subTasks", hasSize(2)))
+            .andReturn().getResponse().getContentAsString();
+
+        // Walk down the chain and check every level is linked to its parent
+        JsonNode node = objectMapper.readTree(json).get("tasks").get(0);
+        for (int level = 4; level > 1; level--) {
+            long parentId = node.get("id").asLong();
+            JsonNode next = null;
+            for (JsonNode sub : node.get("subTasks")) {
+                assertThat(sub.get("parentTaskId").asLong()).isEqualTo(parentId);
+                assertThat(sub.get("processId").asLong()).isEqualTo(processId);
+                if (sub.get("name").asText().equals("L" + (level - 1))) {
+                    next = sub;
+                }
+            }
+            assertThat(next).as("level %d", level - 1).isNotNull();
+            node = next;
+        }
+    }
+
+    @Test
+    void getProcessTasks_statementCountShouldNotGrowWithTreeSize() throws Exception {
+        long smallId = createProcess("Small Tree Process");
+        createTree(smallId, chain("S", 2));
+
+        long largeId = createProcess("Large Tree Process");
+        createTree(largeId, chain("B", 12));
+        createTree(largeId, chain("C", 12));
+
+        long small = countStatements(smallId);
+        long large = countStatements(largeId);
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    private String treeETag(long processId) throws Exception {
+        String eTag = mockMvc.perform(get("/api/processes/{id}/tasks", processId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("ETag");
+        assertThat(eTag).isNotNull();
+        return eTag;
+    }
+
+    @Test
+    void getProcessTasks_unchangedTree_shouldReturn304WithoutReadingTasks() throws Exception {
+        long processId = createProcess("ETag Process");
+        createTree(processId, chain("E", 3));
+        String eTag = treeETag(processId);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mockMvc.perform(get("/api/processes/{id}/tasks", processId).header("If-None-Match", eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", eTag))
+            .andExpect(content().string(""));
+
+        // Only the tree version of the process row is read
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void getProcessTasks_taskChanges_shouldChangeETag() throws Exception {
+        long processId = createProcess("ETag Changes");
+        long otherId = createProcess("ETag Other");
+        createTree(processId, chain("X", 1));
+        String json = mockMvc.perform(get("/api/processes/{id}/tasks", processId))
+            .andReturn().getResponse().getContentAsString();
+        long taskId = objectMapper.readTree(json).get("tasks").get(0).get("id").asLong();
+
+        String initial = treeETag(processId);
+        String otherInitial = treeETag(otherId);
+
+        ObjectNode rename = objectMapper.createObjectNode().put("name", "Renamed").put("completed", false);
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(rename)))
+            .andExpect(status().isOk());
+        String renamed = treeETag(processId);
+        assertThat(renamed).isNotEqualTo(initial);
+        mockMvc.perform(get("/api/processes/{id}/tasks", processId).header("If-None-Match", initial))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tasks[0].name").value("Renamed"));
+
+        // Moving the task to another process changes the versions of both processes
+        mockMvc.perform(put("/api/tasks/{id}", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(rename.put("processId", otherId))))
+            .andExpect(status().isOk());
+        assertThat(treeETag(processId)).isNotEqualTo(renamed);
+        assertThat(treeETag(otherId)).isNotEqualTo(otherInitial);
+    }
+
+    private long createEmployee(String first) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("firstName", first).put("lastName", "Payload");
+        String json = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("employeeId").asLong();
+    }
+
+    /**
+     * A root with the given number of subtasks; subtask i is assigned employees[i % employees.length]
+     * and requires the skill.
+     */
+    private ObjectNode staffedTree(String prefix, int width, long skillId, long... employees) {
+        ObjectNode root = objectMapper.createObjectNode().put("name", prefix).put("completed", false);
+        ArrayNode subs = root.putArray("subTasks");
+        for (int i = 0; i < width; i++) {
+            ObjectNode sub = subs.addObject().put("name", prefix + "-" + i).put("completed", false);
+            sub.putArray("employeeIds").add(employees[i % employees.length]);
+            sub.putArray("skills").addObject().put("id", skillId);
+        }
+        return root;
+    }
+
+    private long countQueries(long processId, ObjectNode root) throws Exception {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        createTree(processId, root);
+        return stats.getQueryExecutionCount();
+    }
+
+    @Test
+    void createTask_shouldResolvePayloadReferencesOncePerType() throws Exception {
+        long[] employees = {createEmployee("Ada"), createEmployee("Grace"), createEmployee("Linus")};
+        String skill = mockMvc.perform(post("/api/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Payload Skill\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long skillId = objectMapper.readTree(skill).get("id").asLong();
+
+        long smallId = createProcess("Small Staffed Process");
+        long largeId = createProcess("Large Staffed Process");
+        long small = countQueries(smallId, staffedTree("S", 2, skillId, employees));
+        long large = countQueries(largeId, staffedTree("B", 40, skillId, employees));
+        assertThat(large).isEqualTo(small);
+
+        // Every subtask got the employee and skill of its own payload node
+        String json = mockMvc.perform(get("/api/processes/{id}/tasks", largeId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.tasks[0].subTasks", hasSize(40)))
+            .andReturn().getResponse().getContentAsString();
+        for (JsonNode sub : objectMapper.readTree(json).get("tasks").get(0).get("subTasks")) {
+            int index = Integer.parseInt(sub.get("name").asText().substring("B-".length()));
+            assertThat(sub.get("employeeIds")).hasSize(1);
+            assertThat(sub.get("employeeIds").get(0).asLong()).isEqualTo(employees[index % employees.length]);
+            assertThat(sub.get("skills").get(0).get("id").asLong()).isEqualTo(skillId);
+        }
+    }
+}
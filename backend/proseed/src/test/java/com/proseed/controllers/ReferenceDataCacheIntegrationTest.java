@@ -0,0 +1,158 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReferenceDataCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("ReferenceDataCache");
+
+    private JsonNode stats(String name) throws Exception {
+        String json = mockMvc.perform(get("/api/reference-data/cache-stats"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        for (JsonNode region : objectMapper.readTree(json)) {
+            if (region.get("name").asText().equals(name)) {
+                return region;
+            }
+        }
+        throw new AssertionError("No cache stats for " + name);
+    }
+
+    private String named(String name) throws Exception {
+        return objectMapper.writeValueAsString(objectMapper.createObjectNode().put("name", name));
+    }
+
+    @Test
+    void repeatedReads_shouldBeServedFromMemory() throws Exception {
+        mockMvc.perform(get("/api/departments")).andExpect(status().isOk());
+        JsonNode before = stats("departments");
+
+        mockMvc.perform(get("/api/departments")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/departments")).andExpect(status().isOk());
+
+        JsonNode after = stats("departments");
+        assertThat(after.get("hits").asLong()).isGreaterThanOrEqualTo(before.get("hits").asLong() + 2);
+        assertThat(after.get("size").asInt()).isPositive();
+    }
+
+    @Test
+    void writes_shouldEvictAndBeVisibleOnNextRead() throws Exception {
+        mockMvc.perform(get("/api/skills")).andExpect(status().isOk());
+        long evictions = stats("skills").get("evictions").asLong();
+
+        String json = mockMvc.perform(post("/api/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(named("Cached Kotlin")))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long skillId = objectMapper.readTree(json).get("id").asLong();
+        mockMvc.perform(get("/api/skills/{id}", skillId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value("Cached Kotlin"));
+
+        mockMvc.perform(put("/api/skills/{id}", skillId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(named("Cached Scala")))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/skills/{id}", skillId))
+            .andExpect(jsonPath("$.name").value("Cached Scala"));
+        assertThat(stats("skills").get("evictions").asLong()).isGreaterThan(evictions);
+
+        // Requirements resolve skill IDs through the cache as well
+        ObjectNode process = objectMapper.createObjectNode().put("name", "Reference Data");
+        long processId = objectMapper.readTree(mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(process)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        long taskId = objectMapper.readTree(mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(named("Needs Scala")))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(put("/api/tasks/{id}/requirements", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"skillIds\":[" + skillId + "]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.skills[0].name").value("Cached Scala"));
+        mockMvc.perform(put("/api/tasks/{id}/requirements", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"skillIds\":[]}"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/skills/{id}", skillId)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/skills/{id}", skillId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bundle_shouldBeConditionalAndVersionedByContent() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/reference-data"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", "no-cache"))
+            .andExpect(jsonPath("$.departments").isArray())
+            .andExpect(jsonPath("$.skills").isArray())
+            .andExpect(jsonPath("$.roles").isArray())
+            .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+        String version = objectMapper.readTree(first.getResponse().getContentAsString()).get("version").asText();
+        assertThat(eTag).isEqualTo("\"" + version + "\"");
+
+        mockMvc.perform(get("/api/reference-data").header("If-None-Match", eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        mockMvc.perform(get("/api/reference-data").param("version", version))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Cache-Control", containsString("immutable")));
+
+        // An eviction alone does not change the version, a rename does
+        String json = mockMvc.perform(post("/api/roles")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(named("BUNDLE_ROLE")))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long roleId = objectMapper.readTree(json).get("id").asLong();
+        mockMvc.perform(get("/api/reference-data").header("If-None-Match", eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roles[?(@.id == " + roleId + ")].name").value("BUNDLE_ROLE"));
+
+        String current = mockMvc.perform(get("/api/reference-data"))
+            .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(put("/api/roles/{id}", roleId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(named("BUNDLE_ROLE")))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/reference-data").header("If-None-Match", current))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(put("/api/roles/{id}", roleId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(named("BUNDLE_ROLE_RENAMED")))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/reference-data").header("If-None-Match", current))
+            .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,137 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SyncIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("Sync");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long createTask(long processId, String name) throws Exception {
+        ObjectNode task = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long version() throws Exception {
+        return Long.parseLong(mockMvc.perform(get("/api/sync/version"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    private JsonNode changes(long since) throws Exception {
+        String json = mockMvc.perform(get("/api/sync/changes").param("since", String.valueOf(since)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private List<Long> ids(JsonNode array) {
+        List<Long> ids = new ArrayList<>();
+        array.forEach(node -> ids.add(node.get("id").asLong()));
+        return ids;
+    }
+
+    @Test
+    void changesSince_shouldReturnOnlyNewChanges() throws Exception {
+        long before = version();
+        long processId = createProcess("Sync Create");
+        long taskId = createTask(processId, "Sync Task");
+
+        JsonNode delta = changes(before);
+        assertThat(delta.get("version").asLong()).isGreaterThan(before);
+        assertThat(ids(delta.get("tasks"))).containsExactly(taskId);
+        assertThat(ids(delta.get("processes"))).containsExactly(processId);
+        assertThat(delta.get("processes").get(0).get("taskIds").get(0).asLong()).isEqualTo(taskId);
+
+        // Nothing changed since the returned version
+        JsonNode empty = changes(delta.get("version").asLong());
+        assertThat(empty.get("tasks")).isEmpty();
+        assertThat(empty.get("processes")).isEmpty();
+        assertThat(empty.get("deleted")).isEmpty();
+    }
+
+    @Test
+    void deletes_shouldBeReportedAsTombstones() throws Exception {
+        long processId = createProcess("Sync Delete");
+        long taskId = createTask(processId, "Doomed Task");
+        long before = version();
+
+        mockMvc.perform(delete("/api/tasks/{id}", taskId))
+            .andExpect(status().isNoContent());
+
+        JsonNode delta = changes(before);
+        assertThat(delta.get("deleted")).hasSize(1);
+        assertThat(delta.get("deleted").get(0).get("type").asText()).isEqualTo("TASK");
+        assertThat(delta.get("deleted").get(0).get("id").asLong()).isEqualTo(taskId);
+        // The process lost a task ID, so it is reported as changed too
+        assertThat(ids(delta.get("processes"))).containsExactly(processId);
+        assertThat(delta.get("processes").get(0).get("taskIds")).isEmpty();
+    }
+
+    @Test
+    void processDelete_shouldLeaveTombstonesForItsTasks() throws Exception {
+        long processId = createProcess("Sync Process Delete");
+        long taskId = createTask(processId, "Cascaded Task");
+        long before = version();
+
+        mockMvc.perform(delete("/api/processes/{id}", processId))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/sync/changes").param("since", String.valueOf(before)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted", hasSize(2)))
+            .andExpect(jsonPath("$.tasks", hasSize(0)))
+            .andExpect(jsonPath("$.processes", hasSize(0)));
+        JsonNode deleted = changes(before).get("deleted");
+        List<String> keys = new ArrayList<>();
+        deleted.forEach(d -> keys.add(d.get("type").asText() + ":" + d.get("id").asLong()));
+        assertThat(keys).containsExactlyInAnyOrder("TASK:" + taskId, "PROCESS:" + processId);
+    }
+
+    @Test
+    void negativeSince_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/sync/changes").param("since", "-1"))
+            .andExpect(status().isBadRequest());
+    }
+}
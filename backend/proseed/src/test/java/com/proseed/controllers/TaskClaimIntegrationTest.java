@@ -0,0 +1,140 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.DTOs.TaskDTO;
+import com.proseed.services.TaskClaimService;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskClaimIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskClaimService taskClaimService;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("TaskClaim");
+
+    private long create(String path, ObjectNode body, String idField) throws Exception {
+        String json = mockMvc.perform(post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get(idField).asLong();
+    }
+
+    private long createProcess(String name) throws Exception {
+        return create("/api/processes", objectMapper.createObjectNode().put("name", name), "id");
+    }
+
+    private long createTask(long processId, String name) throws Exception {
+        return create("/api/tasks?processId=" + processId, objectMapper.createObjectNode().put("name", name), "id");
+    }
+
+    private long createEmployee(String firstName) throws Exception {
+        return create("/api/employees",
+            objectMapper.createObjectNode().put("firstName", firstName).put("lastName", "Claimer"), "employeeId");
+    }
+
+    private void requireSkill(long taskId, long skillId) throws Exception {
+        ObjectNode requirements = objectMapper.createObjectNode();
+        requirements.putArray("skillIds").add(skillId);
+        mockMvc.perform(put("/api/tasks/{id}/requirements", taskId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requirements)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void claim_shouldOnlyHandOutQualifiedOpenLeafTasks() throws Exception {
+        long processId = createProcess("Claim Qualification");
+        long skillId = create("/api/skills", objectMapper.createObjectNode().put("name", "ClaimSkill"), "id");
+        long skilled = createEmployee("Skilled");
+        long unskilled = createEmployee("Unskilled");
+        ObjectNode patch = objectMapper.createObjectNode();
+        patch.putArray("skillIds").add(skillId);
+        mockMvc.perform(patch("/api/employees/{id}", skilled)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+            .andExpect(status().isOk());
+
+        long needsSkill = createTask(processId, "Needs Skill");
+        requireSkill(needsSkill, skillId);
+
+        // The unskilled employee finds nothing, the skilled one gets the task
+        mockMvc.perform(post("/api/tasks/claim").param("employeeId", String.valueOf(unskilled))
+                .param("processId", String.valueOf(processId)))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/tasks/claim").param("employeeId", String.valueOf(skilled))
+                .param("processId", String.valueOf(processId)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(needsSkill))
+            .andExpect(jsonPath("$.employeeIds", hasSize(1)))
+            .andExpect(jsonPath("$.employeeIds[0]").value(skilled));
+
+        // A claimed task is not handed out again
+        mockMvc.perform(post("/api/tasks/claim").param("employeeId", String.valueOf(skilled))
+                .param("processId", String.valueOf(processId)))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/tasks/claim").param("employeeId", "999999"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void concurrentClaims_shouldNeverHandOutATaskTwice() throws Exception {
+        long processId = createProcess("Claim Contention");
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            taskIds.add(createTask(processId, "Contended " + i));
+        }
+        long employeeId = createEmployee("Contender");
+
+        ConcurrentLinkedQueue<Long> claimed = new ConcurrentLinkedQueue<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int client = 0; client < 50; client++) {
+                results.add(clients.submit(() -> {
+                    Optional<TaskDTO> task;
+                    while ((task = taskClaimService.claim(employeeId, processId)).isPresent()) {
+                        claimed.add(task.get().getId());
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        assertThat(claimed).hasSize(taskIds.size());
+        assertThat(claimed).containsExactlyInAnyOrderElementsOf(taskIds);
+    }
+}
@@ -366,4 +366,77 @@ class TaskControllerIntegrationTest {
             .andExpect(jsonPath("$.skills", hasSize(1)))
             .andExpect(jsonPath("$.departments", hasSize(1)));
     }
+
+    private void patchEmployee(long employeeId, ObjectNode patch) throws Exception {
+        mockMvc.perform(patch("/api/employees/" + employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(patch.toString()))
+            .andExpect(status().isOk());
+    }
+
+    private ObjectNode staffing(long departmentId, long... skillIds) {
+        ObjectNode patch = objectMapper.createObjectNode().put("departmentId", departmentId);
+        ArrayNode skills = patch.putArray("skillIds");
+        for (long skillId : skillIds) skills.add(skillId);
+        return patch;
+    }
+
+    @Test
+    void getCandidates_shouldRankBySkillCoverageAndWorkload() throws Exception {
+        long processId = createProcess("Matching Process");
+        long taskId = createTask(processId, "Needs Staff", null, null);
+        long skillA = createSkill("MatchSkillA");
+        long skillB = createSkill("MatchSkillB");
+        long dept = createDepartment("MatchDept");
+        long otherDept = createDepartment("MatchOtherDept");
+        ObjectNode requirements = objectMapper.createObjectNode();
+        requirements.putArray("skillIds").add(skillA).add(skillB);
+        requirements.putArray("departmentIds").add(dept);
+        mockMvc.perform(put("/api/tasks/" + taskId + "/requirements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requirements.toString()))
+            .andExpect(status().isOk());
+
+        long full = createEmployee("Full", "Match");
+        long partial = createEmployee("Partial", "Match");
+        long outsider = createEmployee("Other", "Department");
+        long unskilled = createEmployee("No", "Skills");
+        patchEmployee(full, staffing(dept, skillA, skillB));
+        patchEmployee(partial, staffing(dept, skillA));
+        patchEmployee(outsider, staffing(otherDept, skillA, skillB));
+        patchEmployee(unskilled, staffing(dept));
+
+        mockMvc.perform(get("/api/tasks/" + taskId + "/candidates"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].employeeId").value(full))
+            .andExpect(jsonPath("$[0].coverage").value(1.0))
+            .andExpect(jsonPath("$[1].employeeId").value(partial))
+            .andExpect(jsonPath("$[1].matchedSkillCount").value(1))
+            .andExpect(jsonPath("$[1].requiredSkillCount").value(2));
+
+        // Equal coverage: the employee with fewer open tasks comes first
+        patchEmployee(partial, staffing(dept, skillA, skillB));
+        long busyTask = createTask(processId, "Busy", null, null);
+        mockMvc.perform(put("/api/tasks/" + busyTask + "/subtree/assignees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + full + "]}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/" + taskId + "/candidates"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].employeeId").value(partial))
+            .andExpect(jsonPath("$[1].employeeId").value(full))
+            .andExpect(jsonPath("$[1].openTaskCount").value(1));
+
+        mockMvc.perform(delete("/api/employees/" + partial)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/tasks/" + taskId + "/candidates").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].employeeId").value(full));
+
+        mockMvc.perform(get("/api/tasks/" + taskId + "/candidates").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/999999/candidates"))
+            .andExpect(status().isNotFound());
+    }
 }
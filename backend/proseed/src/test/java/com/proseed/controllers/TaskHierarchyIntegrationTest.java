@@ -0,0 +1,280 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.services.TaskHierarchyService;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskHierarchyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskHierarchyService taskHierarchyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("TaskHierarchy");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private JsonNode createTask(long processId, ObjectNode task) throws Exception {
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private Map<Long, Integer> descendants(long taskId) throws Exception {
+        String json = mockMvc.perform(get("/api/tasks/{id}/descendants", taskId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        Map<Long, Integer> depths = new HashMap<>();
+        for (JsonNode node : objectMapper.readTree(json)) {
+            depths.put(node.get("id").asLong(), node.get("depth").asInt());
+        }
+        return depths;
+    }
+
+    private ObjectNode move(String name, long parentId) {
+        return objectMapper.createObjectNode()
+            .put("name", name)
+            .put("completed", false)
+            .put("parentTaskId", parentId);
+    }
+
+    @Test
+    void nestedCreate_shouldIndexWholeSubtree() throws Exception {
+        long processId = createProcess("Hierarchy Create");
+        ObjectNode c = objectMapper.createObjectNode().put("name", "C");
+        ObjectNode b = objectMapper.createObjectNode().put("name", "B");
+        b.set("subTasks", objectMapper.createArrayNode().add(c));
+        ObjectNode a = objectMapper.createObjectNode().put("name", "A");
+        a.set("subTasks", objectMapper.createArrayNode().add(b));
+
+        JsonNode created = createTask(processId, a);
+        long aId = created.get("id").asLong();
+        long bId = created.get("subTasks").get(0).get("id").asLong();
+        long cId = created.get("subTasks").get(0).get("subTasks").get(0).get("id").asLong();
+
+        assertThat(descendants(aId)).containsExactlyInAnyOrderEntriesOf(Map.of(bId, 1, cId, 2));
+
+        mockMvc.perform(get("/api/tasks/{id}/ancestors", cId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].id").value(bId))
+            .andExpect(jsonPath("$[1].id").value(aId));
+    }
+
+    @Test
+    void reparent_shouldMoveWholeBranchAndRejectCycles() throws Exception {
+        long processId = createProcess("Hierarchy Move");
+        long aId = createTask(processId, objectMapper.createObjectNode().put("name", "A")).get("id").asLong();
+        ObjectNode child = objectMapper.createObjectNode().put("name", "D-child");
+        ObjectNode d = objectMapper.createObjectNode().put("name", "D");
+        d.set("subTasks", objectMapper.createArrayNode().add(child));
+        JsonNode dNode = createTask(processId, d);
+        long dId = dNode.get("id").asLong();
+        long dChildId = dNode.get("subTasks").get(0).get("id").asLong();
+
+        // Move D (with its child) below A
+        mockMvc.perform(put("/api/tasks/{id}", dId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(move("D", aId))))
+            .andExpect(status().isOk());
+        assertThat(descendants(aId)).containsExactlyInAnyOrderEntriesOf(Map.of(dId, 1, dChildId, 2));
+
+        // Moving A below its grandchild would create a cycle
+        mockMvc.perform(put("/api/tasks/{id}", aId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(move("A", dChildId))))
+            .andExpect(status().isBadRequest());
+        assertThat(descendants(dChildId)).isEmpty();
+    }
+
+    private List<Long> taskIdsOfProcess(long processId) throws Exception {
+        String json = mockMvc.perform(get("/api/processes/{id}", processId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        objectMapper.readTree(json).get("taskIds").forEach(id -> ids.add(id.asLong()));
+        return ids;
+    }
+
+    @Test
+    void moveEndpoint_shouldRelinkBranchIntoOtherProcess() throws Exception {
+        long sourceId = createProcess("Move Source");
+        long targetId = createProcess("Move Target");
+        long targetRootId = createTask(targetId, objectMapper.createObjectNode().put("name", "T")).get("id").asLong();
+        ObjectNode grandChild = objectMapper.createObjectNode().put("name", "M-grandchild");
+        ObjectNode child = objectMapper.createObjectNode().put("name", "M-child");
+        child.set("subTasks", objectMapper.createArrayNode().add(grandChild));
+        ObjectNode m = objectMapper.createObjectNode().put("name", "M");
+        m.set("subTasks", objectMapper.createArrayNode().add(child));
+        JsonNode mNode = createTask(sourceId, m);
+        long mId = mNode.get("id").asLong();
+        long childId = mNode.get("subTasks").get(0).get("id").asLong();
+        long grandChildId = mNode.get("subTasks").get(0).get("subTasks").get(0).get("id").asLong();
+
+        mockMvc.perform(post("/api/tasks/{id}/move", mId).param("parentTaskId", String.valueOf(targetRootId)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.parentTaskId").value(targetRootId))
+            .andExpect(jsonPath("$.processId").value(targetId));
+
+        // The whole branch follows into the target process
+        assertThat(taskIdsOfProcess(sourceId)).isEmpty();
+        assertThat(taskIdsOfProcess(targetId)).containsExactlyInAnyOrder(targetRootId, mId, childId, grandChildId);
+        assertThat(descendants(targetRootId))
+            .containsExactlyInAnyOrderEntriesOf(Map.of(mId, 1, childId, 2, grandChildId, 3));
+
+        // Back to the top level of the source process
+        mockMvc.perform(post("/api/tasks/{id}/move", mId).param("processId", String.valueOf(sourceId)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.parentTaskId").value(nullValue()));
+        assertThat(taskIdsOfProcess(sourceId)).containsExactlyInAnyOrder(mId, childId, grandChildId);
+        assertThat(descendants(targetRootId)).isEmpty();
+    }
+
+    @Test
+    void moveEndpoint_shouldRejectCyclesAndMismatchedProcess() throws Exception {
+        long processId = createProcess("Move Cycle");
+        long otherId = createProcess("Move Cycle Other");
+        ObjectNode b = objectMapper.createObjectNode().put("name", "B");
+        ObjectNode a = objectMapper.createObjectNode().put("name", "A");
+        a.set("subTasks", objectMapper.createArrayNode().add(b));
+        JsonNode created = createTask(processId, a);
+        long aId = created.get("id").asLong();
+        long bId = created.get("subTasks").get(0).get("id").asLong();
+
+        mockMvc.perform(post("/api/tasks/{id}/move", aId).param("parentTaskId", String.valueOf(bId)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/tasks/{id}/move", aId).param("parentTaskId", String.valueOf(aId)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/tasks/{id}/move", bId)
+                .param("parentTaskId", String.valueOf(aId))
+                .param("processId", String.valueOf(otherId)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/tasks/{id}/move", 987654L))
+            .andExpect(status().isNotFound());
+        assertThat(descendants(aId)).containsExactlyInAnyOrderEntriesOf(Map.of(bId, 1));
+    }
+
+    @Test
+    void updateWithProcess_shouldMoveSubtasksToo() throws Exception {
+        long sourceId = createProcess("Update Source");
+        long targetId = createProcess("Update Target");
+        ObjectNode child = objectMapper.createObjectNode().put("name", "U-child");
+        ObjectNode u = objectMapper.createObjectNode().put("name", "U");
+        u.set("subTasks", objectMapper.createArrayNode().add(child));
+        JsonNode created = createTask(sourceId, u);
+        long uId = created.get("id").asLong();
+        long childId = created.get("subTasks").get(0).get("id").asLong();
+
+        ObjectNode update = objectMapper.createObjectNode().put("name", "U").put("processId", targetId);
+        mockMvc.perform(put("/api/tasks/{id}", uId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.subTasks[0].processId").value(targetId));
+
+        assertThat(taskIdsOfProcess(sourceId)).isEmpty();
+        assertThat(taskIdsOfProcess(targetId)).containsExactlyInAnyOrder(uId, childId);
+    }
+
+    @Test
+    void insertBetweenAndDelete_shouldKeepIndexInSync() throws Exception {
+        long processId = createProcess("Hierarchy Insert");
+        ObjectNode b = objectMapper.createObjectNode().put("name", "B");
+        ObjectNode a = objectMapper.createObjectNode().put("name", "A");
+        a.set("subTasks", objectMapper.createArrayNode().add(b));
+        JsonNode created = createTask(processId, a);
+        long aId = created.get("id").asLong();
+        long bId = created.get("subTasks").get(0).get("id").asLong();
+
+        String json = mockMvc.perform(post("/api/tasks/insert-between")
+                .param("parentTaskId", String.valueOf(aId))
+                .param("childTaskId", String.valueOf(bId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"X\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long xId = objectMapper.readTree(json).get("id").asLong();
+
+        assertThat(descendants(aId)).containsExactlyInAnyOrderEntriesOf(Map.of(xId, 1, bId, 2));
+
+        mockMvc.perform(delete("/api/tasks/{id}", bId))
+            .andExpect(status().isNoContent());
+        assertThat(descendants(aId)).containsExactlyInAnyOrderEntriesOf(Map.of(xId, 1));
+    }
+
+    @Test
+    void rebuildIfInconsistent_shouldRepairParentLinksChangedOutsideTheIndex() throws Exception {
+        long processId = createProcess("Hierarchy Repair");
+        ObjectNode a = objectMapper.createObjectNode().put("name", "A");
+        a.set("subTasks", objectMapper.createArrayNode()
+            .add(objectMapper.createObjectNode().put("name", "B"))
+            .add(objectMapper.createObjectNode().put("name", "C")));
+        JsonNode created = createTask(processId, a);
+        long aId = created.get("id").asLong();
+        Map<String, Long> ids = new HashMap<>();
+        created.get("subTasks").forEach(sub -> ids.put(sub.get("name").asText(), sub.get("id").asLong()));
+        long bId = ids.get("B");
+        long cId = ids.get("C");
+
+        // Every task still has its self row and there are as many parent rows as parents,
+        // but the (B, C, 1) row is missing
+        jdbcTemplate.update("UPDATE task SET parent_task_id = ? WHERE id = ?", bId, cId);
+        assertThat(taskHierarchyService.rebuildIfInconsistent()).isTrue();
+        assertThat(descendants(aId)).containsExactlyInAnyOrderEntriesOf(Map.of(bId, 1, cId, 2));
+
+        // One parent row too many
+        jdbcTemplate.update("UPDATE task SET parent_task_id = NULL WHERE id = ?", cId);
+        assertThat(taskHierarchyService.rebuildIfInconsistent()).isTrue();
+        assertThat(descendants(aId)).containsExactlyInAnyOrderEntriesOf(Map.of(bId, 1));
+        assertThat(taskHierarchyService.rebuildIfInconsistent()).isFalse();
+    }
+
+    @Test
+    void descendants_missingTask_shouldReturn404() throws Exception {
+        mockMvc.perform(get("/api/tasks/{id}/descendants", 987654L))
+            .andExpect(status().isNotFound());
+    }
+}
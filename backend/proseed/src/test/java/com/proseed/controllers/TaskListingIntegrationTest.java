@@ -0,0 +1,142 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskListingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("TaskListing");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private JsonNode createTask(long processId, ObjectNode task) throws Exception {
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private ObjectNode task(String name, boolean completed) {
+        return objectMapper.createObjectNode().put("name", name).put("completed", completed);
+    }
+
+    /**
+     * Follows X-Next-Cursor until the last page and returns the IDs of all listed tasks.
+     */
+    private List<Long> listAll(String query, int limit) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/api/tasks?" + query + "&limit=" + limit + (cursor != null ? "&cursor=" + cursor : "");
+            MvcResult result = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn();
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            assertThat(page.size()).isLessThanOrEqualTo(limit);
+            page.forEach(node -> ids.add(node.get("id").asLong()));
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        return ids;
+    }
+
+    @Test
+    void listByProcess_shouldPageThroughAllTasksInIdOrder() throws Exception {
+        long processId = createProcess("Listing Paging");
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(createTask(processId, task("P" + i, false)).get("id").asLong());
+        }
+
+        assertThat(listAll("processId=" + processId, 2)).containsExactlyElementsOf(created);
+    }
+
+    @Test
+    void filters_shouldRestrictResultAndKeepSubTasksShallow() throws Exception {
+        long processId = createProcess("Listing Filters");
+        ObjectNode grandChild = task("GrandChild", true);
+        ObjectNode child = task("Child", true);
+        child.set("subTasks", objectMapper.createArrayNode().add(grandChild));
+        ObjectNode root = task("Root", false);
+        root.set("subTasks", objectMapper.createArrayNode().add(child));
+        JsonNode rootNode = createTask(processId, root);
+        long rootId = rootNode.get("id").asLong();
+        long childId = rootNode.get("subTasks").get(0).get("id").asLong();
+
+        assertThat(listAll("processId=" + processId + "&rootsOnly=true", 10)).containsExactly(rootId);
+        assertThat(listAll("processId=" + processId + "&completed=false", 10)).containsExactly(rootId);
+        assertThat(listAll("parentTaskId=" + rootId, 10)).containsExactly(childId);
+
+        // The root lists its child, but not the grandchild below it
+        mockMvc.perform(get("/api/tasks?processId=" + processId + "&rootsOnly=true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].subTasks", hasSize(1)))
+            .andExpect(jsonPath("$[0].subTasks[0].id").value(childId))
+            .andExpect(jsonPath("$[0].subTasks[0].subTasks", hasSize(0)));
+    }
+
+    @Test
+    void filterBySkill_shouldReturnOnlyTasksRequiringIt() throws Exception {
+        long processId = createProcess("Listing Skills");
+        long skillId = objectMapper.readTree(mockMvc.perform(post("/api/skills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"ListingSkill\"}"))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+        long withSkill = createTask(processId, task("With skill", false)).get("id").asLong();
+        createTask(processId, task("Without skill", false));
+
+        mockMvc.perform(put("/api/tasks/" + withSkill + "/requirements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"skillIds\":[" + skillId + "]}"))
+            .andExpect(status().isOk());
+
+        assertThat(listAll("skillId=" + skillId, 10)).containsExactly(withSkill);
+    }
+
+    @Test
+    void invalidParameters_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/tasks?cursor=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks?limit=0"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks?rootsOnly=true&parentTaskId=1"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,178 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskRollupIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("TaskRollup");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long createEmployee(String firstName) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("firstName", firstName).put("lastName", "Rollup");
+        String json = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("employeeId").asLong();
+    }
+
+    private ObjectNode task(String name, ObjectNode... subTasks) {
+        ObjectNode task = objectMapper.createObjectNode().put("name", name).put("completed", false);
+        var children = objectMapper.createArrayNode();
+        for (ObjectNode subTask : subTasks) {
+            children.add(subTask);
+        }
+        task.set("subTasks", children);
+        return task;
+    }
+
+    private JsonNode createTask(long processId, ObjectNode task) throws Exception {
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private JsonNode subTask(JsonNode task, String name) {
+        for (JsonNode subTask : task.get("subTasks")) {
+            if (subTask.get("name").asText().equals(name)) {
+                return subTask;
+            }
+        }
+        throw new AssertionError("No subtask " + name);
+    }
+
+    /**
+     * @return descendantCount, completedDescendantCount and descendantAssignmentCount of the task
+     */
+    private int[] rollups(long taskId) throws Exception {
+        JsonNode task = objectMapper.readTree(mockMvc.perform(get("/api/tasks/{id}", taskId))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        return new int[] {
+            task.get("descendantCount").asInt(),
+            task.get("completedDescendantCount").asInt(),
+            task.get("descendantAssignmentCount").asInt()
+        };
+    }
+
+    @Test
+    void rollups_shouldFollowCreateCompleteMoveAndDelete() throws Exception {
+        long processId = createProcess("Rollup Tree");
+        JsonNode root = createTask(processId, task("Root", task("A", task("A1"), task("A2")), task("B")));
+        long rootId = root.get("id").asLong();
+        JsonNode a = subTask(root, "A");
+        long aId = a.get("id").asLong();
+        long bId = subTask(root, "B").get("id").asLong();
+        long a1Id = subTask(a, "A1").get("id").asLong();
+        long a2Id = subTask(a, "A2").get("id").asLong();
+        assertThat(root.get("descendantCount").asInt()).isEqualTo(4);
+        assertThat(rollups(aId)).containsExactly(2, 0, 0);
+
+        // Completing a leaf counts for every ancestor
+        mockMvc.perform(put("/api/tasks/{id}", a1Id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"A1\",\"completed\":true}"))
+            .andExpect(status().isOk());
+        assertThat(rollups(aId)).containsExactly(2, 1, 0);
+        assertThat(rollups(rootId)).containsExactly(4, 1, 0);
+
+        // Moving A below B carries its progress along
+        mockMvc.perform(post("/api/tasks/{id}/move", aId).param("parentTaskId", String.valueOf(bId)))
+            .andExpect(status().isOk());
+        assertThat(rollups(bId)).containsExactly(3, 1, 0);
+        assertThat(rollups(rootId)).containsExactly(4, 1, 0);
+
+        mockMvc.perform(delete("/api/tasks/{id}", a2Id)).andExpect(status().isNoContent());
+        assertThat(rollups(bId)).containsExactly(2, 1, 0);
+
+        ObjectNode child = task("A3").put("parentTaskId", aId).put("completed", true);
+        createTask(processId, child);
+        assertThat(rollups(aId)).containsExactly(2, 2, 0);
+        assertThat(rollups(rootId)).containsExactly(4, 2, 0);
+
+        // Promote A1 from below A to below the root in a full update
+        ObjectNode update = objectMapper.createObjectNode().put("name", "Root").put("completed", false);
+        update.set("subTasks", objectMapper.createArrayNode()
+            .add(objectMapper.createObjectNode().put("id", bId))
+            .add(objectMapper.createObjectNode().put("id", a1Id)));
+        mockMvc.perform(put("/api/tasks/{id}", rootId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.descendantCount").value(4));
+        assertThat(rollups(aId)).containsExactly(1, 1, 0);
+        assertThat(rollups(bId)).containsExactly(2, 1, 0);
+        assertThat(rollups(rootId)).containsExactly(4, 2, 0);
+
+        mockMvc.perform(put("/api/tasks/{id}/subtree/completed", bId)).andExpect(status().isOk());
+        assertThat(rollups(bId)).containsExactly(2, 2, 0);
+        assertThat(rollups(rootId)).containsExactly(4, 4, 0);
+        mockMvc.perform(delete("/api/tasks/{id}/subtree", bId)).andExpect(status().isNoContent());
+        assertThat(rollups(rootId)).containsExactly(1, 1, 0);
+    }
+
+    @Test
+    void rollups_shouldCountAssignmentsBelowTask() throws Exception {
+        long processId = createProcess("Rollup Assignments");
+        long first = createEmployee("First");
+        long second = createEmployee("Second");
+        ObjectNode leaf = task("Leaf");
+        leaf.set("employeeIds", objectMapper.createArrayNode().add(first));
+        JsonNode root = createTask(processId, task("Root", task("Branch", leaf)));
+        long rootId = root.get("id").asLong();
+        long branchId = root.get("subTasks").get(0).get("id").asLong();
+        long leafId = root.get("subTasks").get(0).get("subTasks").get(0).get("id").asLong();
+        assertThat(rollups(rootId)).containsExactly(2, 0, 1);
+
+        mockMvc.perform(put("/api/tasks/{id}/subtree/assignees", branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + first + "," + second + "]}"))
+            .andExpect(status().isOk());
+        assertThat(rollups(branchId)).containsExactly(1, 0, 2);
+        assertThat(rollups(rootId)).containsExactly(2, 0, 4);
+
+        mockMvc.perform(delete("/api/tasks/{taskId}/employees/{employeeId}", leafId, second))
+            .andExpect(status().isNoContent());
+        assertThat(rollups(rootId)).containsExactly(2, 0, 3);
+
+        mockMvc.perform(delete("/api/employees/{id}", first)).andExpect(status().isNoContent());
+        assertThat(rollups(branchId)).containsExactly(1, 0, 0);
+        assertThat(rollups(rootId)).containsExactly(2, 0, 1);
+    }
+}
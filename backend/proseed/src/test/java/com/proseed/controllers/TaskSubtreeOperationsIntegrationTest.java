@@ -0,0 +1,200 @@
+package com.proseed.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.proseed.support.TestSummaryExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskSubtreeOperationsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @RegisterExtension
+    static TestSummaryExtension summary = TestSummaryExtension.forSuite("TaskSubtreeOperations");
+
+    private long createProcess(String name) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("name", name);
+        String json = mockMvc.perform(post("/api/processes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long createEmployee(String firstName) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("firstName", firstName).put("lastName", "Subtree");
+        String json = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("employeeId").asLong();
+    }
+
+    private ObjectNode task(String name, ObjectNode... subTasks) {
+        ObjectNode task = objectMapper.createObjectNode().put("name", name).put("completed", false);
+        var children = objectMapper.createArrayNode();
+        for (ObjectNode subTask : subTasks) {
+            children.add(subTask);
+        }
+        task.set("subTasks", children);
+        return task;
+    }
+
+    private JsonNode createTask(long processId, ObjectNode task) throws Exception {
+        String json = mockMvc.perform(post("/api/tasks?processId=" + processId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(task)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private long version() throws Exception {
+        return Long.parseLong(mockMvc.perform(get("/api/sync/version"))
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    /**
+     * Creates Root -> Branch -> (Leaf 1, Leaf 2) and returns the IDs in that order.
+     */
+    private List<Long> createBranch(long processId) throws Exception {
+        JsonNode root = createTask(processId, task("Root", task("Branch", task("Leaf 1"), task("Leaf 2"))));
+        JsonNode branch = root.get("subTasks").get(0);
+        List<Long> ids = new ArrayList<>(List.of(root.get("id").asLong(), branch.get("id").asLong()));
+        branch.get("subTasks").forEach(leaf -> ids.add(leaf.get("id").asLong()));
+        return ids;
+    }
+
+    @Test
+    void deleteSubtree_shouldRemoveBranchAndKeepParent() throws Exception {
+        long processId = createProcess("Subtree Delete");
+        List<Long> ids = createBranch(processId);
+        long rootId = ids.get(0);
+        long branchId = ids.get(1);
+        long employeeId = createEmployee("Assigned");
+        mockMvc.perform(put("/api/tasks/{id}/subtree/assignees", branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + employeeId + "]}"))
+            .andExpect(status().isOk());
+        long before = version();
+
+        mockMvc.perform(delete("/api/tasks/{id}/subtree", branchId))
+            .andExpect(status().isNoContent());
+
+        for (Long id : ids.subList(1, ids.size())) {
+            mockMvc.perform(get("/api/tasks/{id}", id)).andExpect(status().isNotFound());
+        }
+        mockMvc.perform(get("/api/tasks/{id}/descendants", rootId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/processes/{id}", processId))
+            .andExpect(jsonPath("$.taskIds", hasSize(1)));
+        // The employee itself is untouched
+        mockMvc.perform(get("/api/employees/{id}", employeeId)).andExpect(status().isOk());
+
+        // Every deleted task leaves a tombstone; the parent and the process are reported as changed
+        JsonNode delta = objectMapper.readTree(mockMvc.perform(get("/api/sync/changes")
+                .param("since", String.valueOf(before)))
+            .andReturn().getResponse().getContentAsString());
+        List<Long> deleted = new ArrayList<>();
+        delta.get("deleted").forEach(d -> deleted.add(d.get("id").asLong()));
+        assertThat(deleted).containsExactlyInAnyOrderElementsOf(ids.subList(1, ids.size()));
+        assertThat(delta.get("tasks")).hasSize(1);
+        assertThat(delta.get("tasks").get(0).get("id").asLong()).isEqualTo(rootId);
+
+        mockMvc.perform(delete("/api/tasks/{id}/subtree", branchId))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void setSubtreeCompleted_shouldOnlyChangeTasksInBranch() throws Exception {
+        long processId = createProcess("Subtree Complete");
+        List<Long> ids = createBranch(processId);
+        long rootId = ids.get(0);
+        long branchId = ids.get(1);
+
+        mockMvc.perform(put("/api/tasks/{id}/subtree/completed", branchId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.subtreeSize").value(3))
+            .andExpect(jsonPath("$.changedTasks").value(3));
+        mockMvc.perform(get("/api/tasks/{id}", ids.get(3)))
+            .andExpect(jsonPath("$.completed").value(true));
+        mockMvc.perform(get("/api/tasks/{id}", rootId))
+            .andExpect(jsonPath("$.completed").value(false));
+
+        // Tasks that already have the state are not rewritten
+        mockMvc.perform(put("/api/tasks/{id}/subtree/completed", rootId).param("completed", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.subtreeSize").value(4))
+            .andExpect(jsonPath("$.changedTasks").value(1));
+        mockMvc.perform(put("/api/tasks/{id}/subtree/completed", rootId).param("completed", "false"))
+            .andExpect(jsonPath("$.changedTasks").value(4));
+
+        mockMvc.perform(put("/api/tasks/{id}/subtree/completed", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void replaceSubtreeAssignees_shouldReplaceAssignmentsOfWholeBranch() throws Exception {
+        long processId = createProcess("Subtree Assignees");
+        List<Long> ids = createBranch(processId);
+        long rootId = ids.get(0);
+        long first = createEmployee("First");
+        long second = createEmployee("Second");
+
+        mockMvc.perform(put("/api/tasks/{id}/subtree/assignees", rootId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + first + "]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.subtreeSize").value(4));
+        mockMvc.perform(put("/api/tasks/{id}/subtree/assignees", ids.get(1))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + second + "," + first + "]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.changedTasks").value(3));
+
+        mockMvc.perform(get("/api/tasks/{id}", rootId))
+            .andExpect(jsonPath("$.employeeIds", containsInAnyOrder((int) first)));
+        mockMvc.perform(get("/api/tasks/{id}", ids.get(2)))
+            .andExpect(jsonPath("$.employeeIds", containsInAnyOrder((int) first, (int) second)));
+
+        // Unknown employees are rejected without changing anything
+        mockMvc.perform(put("/api/tasks/{id}/subtree/assignees", rootId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[" + Long.MAX_VALUE + "]}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/{id}", ids.get(3)))
+            .andExpect(jsonPath("$.employeeIds", hasSize(2)));
+
+        mockMvc.perform(put("/api/tasks/{id}/subtree/assignees", rootId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"employeeIds\":[]}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/{id}", ids.get(3)))
+            .andExpect(jsonPath("$.employeeIds", hasSize(0)));
+    }
+}
@@ -1,4 +1,4 @@
-import {useState, useEffect} from "react";
+import {useState, useEffect, useRef} from "react";
 import {DataContext} from "./DataContext.jsx";
 import axios from "axios";
 import {toast} from "react-toastify";
@@ -15,6 +15,8 @@ export function DataProvider({children}) {
   const [processes, setProcesses] = useState([]);
   const [tasks, setTasks] = useState([]);
   const [initialized, setInitialized] = useState(false);
+  // Change version the local state is in sync with (see syncChanges)
+  const syncVersion = useRef(null);
 
   useEffect(() => {
     if (!initialized) {
@@ -22,6 +24,21 @@ export function DataProvider({children}) {
     }
   }, [initialized]);
 
+  // Keep the state up to date with changes made by other users, pushed by the backend as Server-Sent Events
+  useEffect(() => {
+    if (!initialized) {
+      return;
+    }
+    const events = new EventSource(`${BASE_URL}events`);
+    events.addEventListener("changes", event => {
+      const {version} = JSON.parse(event.data);
+      if (syncVersion.current === null || version > syncVersion.current) {
+        syncChanges();
+      }
+    });
+    return () => events.close();
+  }, [initialized]);
+
   /**
    * @function initializeData
    * @description Initializes the data by fetching all processes and tasks from the backend.
@@ -30,6 +47,9 @@ export function DataProvider({children}) {
   async function initializeData() {
     try {
       console.log("Initializing data from DB");
+      // Read the version first, so changes made during the full fetch are picked up by the next sync
+      const versionResponse = await axios.get(`${BASE_URL}sync/version`);
+      syncVersion.current = versionResponse.data;
       await Promise.all([fetchAllProcesses(), fetchAllTasks()]);
       setInitialized(true);
     } catch (error) {
@@ -55,18 +75,63 @@ export function DataProvider({children}) {
   /**
    * @function fetchAllTasks
    * @description Fetches all tasks from the backend and updates the state.
+   * The backend returns tasks in pages; the cursor of the next page is sent in the X-Next-Cursor header.
    * @returns {Promise<void>} A promise that resolves when the tasks are fetched.
    */
   async function fetchAllTasks() {
     try {
-      const response = await axios.get(`${BASE_URL}tasks`);
-      console.log("Tasks:", response.data);
-      setTasks(response.data);
+      const allTasks = [];
+      let cursor = null;
+      do {
+        const response = await axios.get(`${BASE_URL}tasks`, {params: cursor ? {cursor} : {}});
+        allTasks.push(...response.data);
+        cursor = response.headers['x-next-cursor'];
+      } while (cursor);
+      console.log("Tasks:", allTasks);
+      setTasks(allTasks);
     } catch (error) {
       console.error("Error fetching tasks:", error);
     }
   }
 
+  /**
+   * @function mergeChanges
+   * @description Returns a copy of a list of entities with changed entities replaced or added and deleted ones removed.
+   * @param {Array} list - The current entities.
+   * @param {Array} changed - Entities created or updated since the last sync.
+   * @param {Set<Number>} deletedIds - IDs of the entities deleted since the last sync.
+   * @returns {Array} The merged list.
+   */
+  function mergeChanges(list, changed, deletedIds) {
+    const byId = new Map(list.map(item => [item.id, item]));
+    deletedIds.forEach(id => byId.delete(id));
+    changed.forEach(item => byId.set(item.id, item));
+    return [...byId.values()];
+  }
+
+  /**
+   * @function syncChanges
+   * @description Fetches only the processes and tasks changed or deleted since the last sync and merges them into the state.
+   * Falls back to a full fetch if no sync version is known yet.
+   * @returns {Promise<void>} A promise that resolves when the state is up to date.
+   */
+  async function syncChanges() {
+    if (syncVersion.current === null) {
+      await Promise.all([fetchAllProcesses(), fetchAllTasks()]);
+      return;
+    }
+    try {
+      const response = await axios.get(`${BASE_URL}sync/changes`, {params: {since: syncVersion.current}});
+      const {version, tasks: changedTasks, processes: changedProcesses, deleted} = response.data;
+      const deletedIds = type => new Set(deleted.filter(d => d.type === type).map(d => d.id));
+      setTasks(prevTasks => mergeChanges(prevTasks, changedTasks, deletedIds("TASK")));
+      setProcesses(prevProcesses => mergeChanges(prevProcesses, changedProcesses, deletedIds("PROCESS")));
+      syncVersion.current = version;
+    } catch (error) {
+      console.error("Error syncing changes:", error);
+    }
+  }
+
   /**
    * @function fetchProcessById
    * @description Fetches a process by its ID from the backend and updates the state.
@@ -97,7 +162,7 @@ export function DataProvider({children}) {
   /**
    * @function addTaskBetweenTasks
    * @description Adds a new task between two existing tasks in a process.
-   * Makes a POST request to the backend, then fetches the updated process and all tasks.
+   * Makes a POST request to the backend, then syncs the changed processes and tasks.
    * @param {Number} processId - The ID of the process to which the task will be added. Expected to be an integer. Required.
    * @param {string} name - The name of the new task. Required.
    * @param {string} description - The description of the new task. Optional.
@@ -113,8 +178,7 @@ export function DataProvider({children}) {
       );
 
       console.log("Added task: ", response.data);
-      await fetchProcessById(processId);
-      await fetchAllTasks();
+      await syncChanges();
     } catch (error) {
       console.error("Error adding task between tasks:", error);
       if (error.response && error.response.status === 400) {
@@ -133,6 +197,7 @@ export function DataProvider({children}) {
     fetchAllProcesses,
     fetchAllTasks,
     fetchProcessById,
+    syncChanges,
     addTaskBetweenTasks
   };
 
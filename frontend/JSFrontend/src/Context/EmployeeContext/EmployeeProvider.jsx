@@ -42,13 +42,19 @@ export function EmployeeProvider({children}) {
   /**
    * @function fetchAllEmployees
    * @description Fetches all employees from the database and updates the state.
+   * The backend returns employees in pages; the cursor of the next page is sent in the X-Next-Cursor header.
    * @returns {Promise<void>} A promise that resolves when the employees are fetched and state is updated.
    */
 async function fetchAllEmployees() {
     try {
         console.log("Fetching all employees from DB");
-        const response = await axios.get(`${BASE_URL}employees`);
-        const data = Array.isArray(response.data) ? response.data : response.data?.employees ?? [];
+        const data = [];
+        let cursor = null;
+        do {
+            const response = await axios.get(`${BASE_URL}employees`, {params: cursor ? {cursor} : {}});
+            data.push(...response.data);
+            cursor = response.headers['x-next-cursor'];
+        } while (cursor);
         console.log("Employees:", data);
         setEmployees(data);
         return data;
@@ -15,7 +15,7 @@ const BASE_URL = "http://localhost:8080/api/";
  * @constructor
  */
 export function ProcessProvider({children}) {
-  const {processes, setProcesses, fetchAllTasks, fetchProcessById} = useContext(DataContext);
+  const {processes, setProcesses, syncChanges, fetchProcessById} = useContext(DataContext);
 
   /**
    * @function addProcess
@@ -46,15 +46,15 @@ export function ProcessProvider({children}) {
   /**
    * @function deleteProcess
    * @description Deletes a process by its ID. Makes a DELETE request to the backend,
-   * then updates the state to remove the deleted process and fetches all tasks.
+   * then syncs the deleted process and its deleted tasks.
    * @param {Number} processId - The ID of the process to delete. Expected to be an integer. Required.
-   * @returns {Promise<void>} A promise that resolves when the process is deleted and tasks are fetched.
+   * @returns {Promise<void>} A promise that resolves when the process is deleted and the state is synced.
    */
   async function deleteProcess(processId) {
     try {
       await axios.delete(`${BASE_URL}processes/${processId}`);
       setProcesses(processes.filter(p => p.id !== processId));
-      await fetchAllTasks();
+      await syncChanges();
     } catch (error) {
         console.error("Error deleting process:", error);
       if (error.response && error.response.status === 404) {
@@ -68,18 +68,25 @@ export function ProcessProvider({children}) {
   /**
    * @function updateProcess
    * @description Updates an existing process with new fields. Makes a PUT request to the backend,
-   * then updates the process in the state.
+   * then updates the process in the state. Sends the version of the process in the state as If-Match,
+   * so changes made by someone else in the meantime are not overwritten.
    * @param {Number} processId - The ID of the process to be updated. Expected to be an integer. Required.
    * @param {Object} updatedFields - An object containing the fields to be updated. Required.
    * @returns {Promise<void>} A promise that resolves when the process is updated.
    */
   async function updateProcess(processId, updatedFields) {
     try {
-      const response = await axios.put(`${BASE_URL}processes/${processId}`, updatedFields);
+      const version = processes.find(p => p.id === processId)?.version;
+      const response = await axios.put(`${BASE_URL}processes/${processId}`, updatedFields,
+        {headers: version != null ? {"If-Match": `"${version}"`} : {}});
       setProcesses(processes.map(p => p.id === processId ? response.data : p));
     } catch (error) {
       console.error("Error updating process:", error);
-        if (error.response && error.response.status === 400) {
+        if (error.response && (error.response.status === 412 || error.response.status === 409)) {
+            toast.error("The process was changed by someone else. Its latest version has been loaded, please try again.");
+            // The version of a process also changes with its tasks, which delta sync does not report on the process
+            await Promise.all([syncChanges(), fetchProcessById(processId)]);
+        } else if (error.response && error.response.status === 400) {
             toast.error("Cannot update process. Invalid data provided.");
         } else {
             toast.error("Cannot update process. Backend failure");
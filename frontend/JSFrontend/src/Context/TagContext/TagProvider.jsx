@@ -13,6 +13,7 @@ import {toast} from "react-toastify";
 export function TagProvider({children}) {
   const [departments, setDepartments] = useState([]);
   const [skills, setSkills] = useState([]);
+  const [roles, setRoles] = useState([]);
 
   const [initialized, setInitialized] = useState(false);
   const BASE_URL = "http://localhost:8080/api/";
@@ -27,22 +28,41 @@ export function TagProvider({children}) {
   }, [initialized])
 
   /**
-   * @function initializeDepartmentsFromDB
-   * @description Initializes departments from the database.
-   * Calls fetchAllDepartments to retrieve all departments and update the state, then sets initialized to true.
+   * @function initializeTagsFromDB
+   * @description Initializes departments, skills and roles from the database.
+   * Calls fetchReferenceData to retrieve all of them in one request, then sets initialized to true.
    * @returns {Promise<void>} A promise that resolves when the initialization is complete.
    */
   async function initializeTagsFromDB() {
     try {
-      console.log("Initializing departments from DB");
-      await fetchAllDepartments();
-      await fetchAllSkills();
+      console.log("Initializing departments, skills and roles from DB");
+      await fetchReferenceData();
       setInitialized(true);
     } catch (error) {
       console.error("Error fetching departments from DB:", error);
     }
   }
 
+  /**
+   * @function fetchReferenceData
+   * @description Fetches all departments, skills and roles in one request and updates the state.
+   * The response carries an ETag and must be revalidated, so the browser sends If-None-Match on its own
+   * and reuses its cached copy when the backend answers 304.
+   * @returns {Promise<void>} A promise that resolves when the reference data is fetched and state is updated.
+   */
+  async function fetchReferenceData() {
+    try {
+      console.log("Fetching reference data from DB");
+      const response = await axios.get(`${BASE_URL}reference-data`);
+      console.log("Reference data:", response.data);
+      setDepartments(response.data.departments);
+      setSkills(response.data.skills);
+      setRoles(response.data.roles);
+    } catch (error) {
+      console.error("Error fetching reference data from DB:", error);
+    }
+  }
+
   /**
    * @function fetchAllSkills
    * @description Fetches all skills from the database and updates the state.
@@ -276,7 +296,9 @@ export function TagProvider({children}) {
     <TagContext.Provider value={{
       departments,
       skills,
+      roles,
       initializeTagsFromDB,
+      fetchReferenceData,
       fetchAllDepartments,
       fetchAllSkills,
       updateTag,
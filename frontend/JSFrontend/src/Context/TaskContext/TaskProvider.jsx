@@ -14,12 +14,12 @@ const BASE_URL = "http://localhost:8080/api/";
  * @returns {JSX.Element} The TaskProvider component.
  */
 export function TaskProvider({children}) {
-  const {tasks, setTasks, fetchAllTasks, addTaskBetweenTasks} = use(DataContext);
+  const {tasks, setTasks, fetchAllTasks, syncChanges, addTaskBetweenTasks} = use(DataContext);
 
   /**
    * @function addTask
    * @description Adds a new task to a process. Makes a POST request to the backend with the task details,
-   * then fetches all tasks to update the state.
+   * then syncs the changed tasks and processes.
    * @param {Number} processId - The ID of the process to which the task will be added. Expected to be an integer. Required.
    * @param {string} name - The name of the new task. Required.
    * @param {string} description - The description of the new task. Optional.
@@ -49,7 +49,7 @@ export function TaskProvider({children}) {
                 description,
                 parentTaskId
             });
-            await fetchAllTasks();
+            await syncChanges();
         } catch (error) {
             console.error("Error adding task:", error);
             if (error.response && error.response.status === 400) {
@@ -63,7 +63,8 @@ export function TaskProvider({children}) {
   /**
    * @function updateTask
    * @description Updates the name and description of an existing task. Makes a PUT request to the backend,
-   * then updates the task in the state.
+   * then updates the task in the state. The request carries the version of the task in the state (If-Match),
+   * so it fails instead of overwriting changes made by someone else in the meantime.
    * @param {Number} taskId - The ID of the task to be updated. Expected to be an integer. Required.
    * @param {string} newName - The new name for the task. Required.
    * @param {string} newDescription - The new description for the task. Required.
@@ -72,14 +73,20 @@ export function TaskProvider({children}) {
   async function updateTask(taskId, newName, newDescription) {
     try {
       console.debug("Updating task:", taskId, newName, newDescription);
+      const version = tasks.find(t => t.id === taskId)?.version;
       const response = await axios.put(`${BASE_URL}tasks/${taskId}`, {
         name: newName,
         description: newDescription
-      });
+      }, {headers: version != null ? {"If-Match": `"${version}"`} : {}});
       console.debug("Updating task:", response.data);
       setTasks(tasks.map(t => t.id === taskId ? response.data : t));
     } catch (error) {
       console.error("Error updating task:", error);
+      if (error.response && (error.response.status === 412 || error.response.status === 409)) {
+        toast.error("The task was changed by someone else. Its latest version has been loaded, please try again.");
+        await syncChanges();
+        return;
+      }
       if (error.response && error.response.status === 404) {
         toast.error("Task not found. It may have been deleted or edited. Refresh the page.");
       }
@@ -117,14 +124,14 @@ export function TaskProvider({children}) {
   /**
    * @function deleteTask
    * @description Deletes a task by its ID. Makes a DELETE request to the backend,
-   * and then fetches all tasks to update the state.
+   * and then syncs the changed tasks and processes.
    * @param {number} taskId - The ID of the task to be deleted. Expected to be an integer. Required.
    * @returns {Promise<void>} A promise that resolves when the task is deleted and tasks are fetched.
    */
   async function deleteTask(taskId) {
     try {
       await axios.delete(`${BASE_URL}tasks/${taskId}`);
-      await fetchAllTasks();
+      await syncChanges();
     } catch (error) {
       console.error("Error deleting task:", error);
       if (error.response && error.response.status === 404) {